@@ -0,0 +1,26 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramétrage du traitement asynchrone des contrôleurs ({@code Callable}, {@code DeferredResult},
+ * {@code CompletableFuture}).
+ */
+@Data
+@ConfigurationProperties(prefix = "http.async")
+public class AsyncProperties {
+
+    /**
+     * Délai maximal, en millisecondes, avant qu'une requête asynchrone ne soit terminée en erreur {@code 503}.
+     */
+    private long timeout = 30000;
+
+    private int corePoolSize = 8;
+
+    private int maxPoolSize = 32;
+
+    private int queueCapacity = 500;
+
+    private String threadNamePrefix = "mvc-async-";
+}
@@ -0,0 +1,74 @@
+package org.example.nicop.demo_actuator.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formats binaires de l'enveloppe de réponse (Smile, CBOR, MessagePack), négociés sur l'en-tête {@code Accept} pour
+ * les appels entre services. JSON reste le format par défaut : les convertisseurs binaires sont placés après le
+ * convertisseur JSON, et ne sont choisis que sur demande explicite.
+ *
+ * Chaque ObjectMapper binaire reçoit la configuration de l'ObjectMapper JSON de Spring Boot (modules, filtre de
+ * réponse partielle, propriétés {@code spring.jackson.*}).
+ */
+@Configuration
+@Slf4j
+public class BinaryFormatsConfig extends WebMvcConfigurerAdapter {
+
+    private final MappingJackson2HttpMessageConverter jsonConverter;
+
+    private final List<HttpMessageConverter<?>> binaryConverters;
+
+    public BinaryFormatsConfig(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                               MappingJackson2HttpMessageConverter jsonConverter) {
+        this.jsonConverter = jsonConverter;
+        this.binaryConverters = Arrays.asList(
+                converter(objectMapperBuilder, new SmileFactory(), BinaryJacksonHttpMessageConverter.SMILE),
+                converter(objectMapperBuilder, new CBORFactory(), BinaryJacksonHttpMessageConverter.CBOR),
+                converter(objectMapperBuilder, new TrackingMessagePackFactory(), BinaryJacksonHttpMessageConverter.MSGPACK));
+    }
+
+    private static HttpMessageConverter<?> converter(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                                     JsonFactory factory, MediaType mediaType) {
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        objectMapperBuilder.configure(objectMapper);
+        return new BinaryJacksonHttpMessageConverter(objectMapper, mediaType);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        log.info("Configuring Smile, CBOR and MessagePack response formats");
+        int index = converters.size();
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                index = i + 1;
+            }
+        }
+        converters.addAll(index, binaryConverters);
+    }
+
+    /**
+     * Écriture des enveloppes d'erreur hors de Spring MVC, dans les mêmes formats que les contrôleurs.
+     */
+    @Bean
+    public ResponseWrapperWriter responseWrapperWriter() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(jsonConverter);
+        converters.addAll(binaryConverters);
+        return new ResponseWrapperWriter(converters);
+    }
+}
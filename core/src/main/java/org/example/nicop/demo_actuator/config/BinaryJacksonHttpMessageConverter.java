@@ -0,0 +1,27 @@
+package org.example.nicop.demo_actuator.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+/**
+ * Convertisseur Jackson pour un format binaire (Smile, CBOR, MessagePack) : l'ObjectMapper fourni porte la fabrique du
+ * format, et la configuration de l'ObjectMapper JSON (modules, filtre de réponse partielle, etc.).
+ *
+ * Les {@link org.springframework.http.converter.json.MappingJacksonValue} sont traitées comme en JSON : la réponse
+ * partielle s'applique quel que soit le format.
+ */
+public class BinaryJacksonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    public static final MediaType CBOR = new MediaType("application", "cbor");
+
+    public static final MediaType MSGPACK = new MediaType("application", "x-msgpack");
+
+    public BinaryJacksonHttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType) {
+        super(objectMapper, mediaType);
+        // format binaire : pas de charset dans le Content-Type
+        setDefaultCharset(null);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.nicop.demo_actuator.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marque un endpoint dont la réponse est stable : sa version compressée est conservée par {@link CompressionFilter},
+ * indexée par ETag, type de contenu et encodage, et resservie sans recompression.
+ *
+ * Sans ETag (réponse streamée, calcul désactivé), la réponse est compressée normalement. Sans effet sur les réponses
+ * plus petites que le seuil de compression, {@link CompressionProperties#getMinResponseSize()} sauf si
+ * {@link #minResponseSize()} le redéfinit pour la route.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CompressedCacheable {
+
+    /**
+     * Seuil de compression propre à la route, en octets. Négatif : le seuil global s'applique.
+     */
+    int minResponseSize() default -1;
+}
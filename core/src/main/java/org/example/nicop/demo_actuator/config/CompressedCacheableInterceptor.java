@@ -0,0 +1,45 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Signale à {@link CompressionFilter} les requêtes traitées par un handler {@link CompressedCacheable}.
+ * L'annotation est résolue une fois par méthode ; son seuil éventuel est transmis dans
+ * {@link CompressionFilter#MIN_RESPONSE_SIZE_ATTRIBUTE}.
+ */
+public class CompressedCacheableInterceptor extends HandlerInterceptorAdapter {
+
+    private final ConcurrentMap<Method, Optional<CompressedCacheable>> annotations = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            findAnnotation((HandlerMethod) handler).ifPresent(cacheable -> {
+                request.setAttribute(CompressionFilter.CACHEABLE_ATTRIBUTE, Boolean.TRUE);
+                if (cacheable.minResponseSize() >= 0) {
+                    request.setAttribute(CompressionFilter.MIN_RESPONSE_SIZE_ATTRIBUTE, cacheable.minResponseSize());
+                }
+            });
+        }
+        return true;
+    }
+
+    private Optional<CompressedCacheable> findAnnotation(HandlerMethod handlerMethod) {
+        return annotations.computeIfAbsent(handlerMethod.getMethod(), method -> {
+            CompressedCacheable annotation = AnnotatedElementUtils.findMergedAnnotation(method, CompressedCacheable.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), CompressedCacheable.class);
+            }
+            return Optional.ofNullable(annotation);
+        });
+    }
+}
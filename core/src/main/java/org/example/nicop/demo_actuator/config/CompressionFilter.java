@@ -0,0 +1,598 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.management.CompressionMetrics;
+import org.example.nicop.demo_actuator.util.EntityTags;
+import org.example.nicop.demo_actuator.util.LruCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresse les réponses en {@code gzip} ou {@code deflate} selon l'en-tête {@code Accept-Encoding}.
+ *
+ * Le corps est retenu jusqu'à {@link CompressionProperties#getMinResponseSize()} octets, ou jusqu'au seuil de la route
+ * ({@link CompressedCacheable#minResponseSize()}) : en dessous, il est écrit tel quel ; au-delà, il est compressé au
+ * fil de l'eau, ce qui reste compatible avec les réponses streamées.
+ *
+ * Pour les endpoints {@link CompressedCacheable}, la version compressée est conservée, indexée par ETag (voir
+ * {@link EtagFilter}, qui doit s'exécuter à l'intérieur de ce filtre), type de contenu et encodage : les appels suivants
+ * la resservent sans recompresser.
+ *
+ * Une réponse compressée porte un ETag propre à son encodage ({@code "abc-gzip"}, voir
+ * {@link EntityTags#withCoding(String, String)}) : un cache ne la confond pas avec la représentation identité. En entrée,
+ * l'en-tête {@code If-None-Match} est ramené à la forme identité pour les filtres et contrôleurs internes.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    /**
+     * Attribut de requête positionné quand le handler est annoté {@link CompressedCacheable}.
+     */
+    public static final String CACHEABLE_ATTRIBUTE = CompressionFilter.class.getName() + ".CACHEABLE";
+
+    /**
+     * Attribut de requête portant le seuil propre à la route ({@link CompressedCacheable#minResponseSize()}), absent
+     * quand le seuil global s'applique.
+     */
+    public static final String MIN_RESPONSE_SIZE_ATTRIBUTE = CompressionFilter.class.getName() + ".MIN_RESPONSE_SIZE";
+
+    private static final String WRAPPER_ATTRIBUTE = CompressionFilter.class.getName() + ".WRAPPER";
+
+    private static final String WILDCARD_SUBTYPE = "/*";
+
+    private final CompressionProperties properties;
+
+    private final CompressionMetrics metrics;
+
+    private final LruCache<String, byte[]> cache;
+
+    public CompressionFilter(CompressionProperties properties, CompressionMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.cache = new LruCache<>(properties.getCacheSize());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (isAsyncDispatch(request)) {
+            resumeAsync(request, response, filterChain);
+            return;
+        }
+
+        Encoding encoding = Encoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null || "HEAD".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(request, response, encoding);
+        try {
+            filterChain.doFilter(new IdentityConditionalRequest(request, encoding), wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            wrapper.abort();
+            throw e;
+        }
+        if (isAsyncStarted(request)) {
+            request.setAttribute(WRAPPER_ATTRIBUTE, wrapper);
+        } else {
+            wrapper.finish();
+        }
+    }
+
+    /**
+     * Comme pour {@link EtagFilter}, la compression d'une requête asynchrone se termine lors du dispatch final.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void resumeAsync(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CompressingResponseWrapper wrapper = (CompressingResponseWrapper) request.getAttribute(WRAPPER_ATTRIBUTE);
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            if (wrapper != null) {
+                wrapper.abort();
+            }
+            throw e;
+        }
+        if (wrapper != null && !isAsyncStarted(request)) {
+            request.removeAttribute(WRAPPER_ATTRIBUTE);
+            wrapper.finish();
+        }
+    }
+
+    private boolean isExcluded(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int idx = contentType.indexOf(';');
+        String mimeType = (idx == -1 ? contentType : contentType.substring(0, idx)).trim().toLowerCase(Locale.ROOT);
+        List<String> excluded = properties.getExcludedMimeTypes();
+        for (String candidate : excluded) {
+            if (candidate.endsWith(WILDCARD_SUBTYPE)
+                    ? mimeType.startsWith(candidate.substring(0, candidate.length() - 1))
+                    : mimeType.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encodages supportés, par ordre de préférence. Le compresseur natif est libéré dès la fin de la compression, sans
+     * fermer le flux de la réponse.
+     */
+    enum Encoding {
+
+        GZIP("gzip") {
+            @Override
+            DeflaterOutputStream open(OutputStream target) throws IOException {
+                return new GZIPOutputStream(target, BUFFER_SIZE, true) {
+                    @Override
+                    public void finish() throws IOException {
+                        super.finish();
+                        def.end();
+                    }
+                };
+            }
+        },
+
+        DEFLATE("deflate") {
+            @Override
+            DeflaterOutputStream open(OutputStream target) {
+                return new DeflaterOutputStream(target, new Deflater(Deflater.DEFAULT_COMPRESSION), BUFFER_SIZE, true) {
+                    @Override
+                    public void finish() throws IOException {
+                        super.finish();
+                        def.end();
+                    }
+                };
+            }
+        };
+
+        private static final int BUFFER_SIZE = 8192;
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+
+        abstract DeflaterOutputStream open(OutputStream target) throws IOException;
+
+        /**
+         * Choisit l'encodage de plus forte qualité parmi ceux que le client accepte ({@code q > 0}), {@literal null}
+         * si aucun. Un encodage cité explicitement l'emporte sur {@code *} ; à qualité égale, {@code gzip} est préféré.
+         */
+        static Encoding negotiate(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return null;
+            }
+            double gzip = -1;
+            double deflate = -1;
+            double wildcard = -1;
+            for (String part : acceptEncoding.split(",")) {
+                String[] tokens = part.split(";");
+                String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+                double quality = tokens.length > 1 ? quality(tokens[1]) : 1.0;
+                if (GZIP.token.equals(name)) {
+                    gzip = Math.max(gzip, quality);
+                } else if (DEFLATE.token.equals(name)) {
+                    deflate = Math.max(deflate, quality);
+                } else if ("*".equals(name)) {
+                    wildcard = Math.max(wildcard, quality);
+                }
+            }
+            if (gzip < 0) {
+                gzip = wildcard;
+            }
+            if (deflate < 0) {
+                deflate = wildcard;
+            }
+            if (gzip <= 0 && deflate <= 0) {
+                return null;
+            }
+            return gzip >= deflate ? GZIP : DEFLATE;
+        }
+
+        /**
+         * Qualité portée par le paramètre {@code q}, 1 quand il est absent ou illisible.
+         */
+        private static double quality(String parameter) {
+            String param = parameter.trim();
+            if (!param.startsWith("q=")) {
+                return 1.0;
+            }
+            try {
+                return Double.parseDouble(param.substring(2));
+            } catch (NumberFormatException e) {
+                return 1.0;
+            }
+        }
+    }
+
+    /**
+     * Réponse dont le corps est compressé une fois la taille minimale atteinte.
+     */
+    private final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private final Encoding encoding;
+
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(properties.getMinResponseSize());
+
+        private State state = State.UNDECIDED;
+
+        private CompressingOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private DeflaterOutputStream deflater;
+
+        private CountingOutputStream compressedTarget;
+
+        /**
+         * Corps compressé conservé pour le cache, {@literal null} si la réponse n'est pas mise en cache.
+         */
+        private ByteArrayOutputStream cacheBuffer;
+
+        private String cacheKey;
+
+        /**
+         * Seuil de compression, résolu à la première écriture : l'attribut de route est posé par l'intercepteur, après
+         * l'entrée dans ce filtre.
+         */
+        private int minResponseSize = -1;
+
+        private long uncompressedBytes;
+
+        private long compressionNanos;
+
+        CompressingResponseWrapper(HttpServletRequest request, HttpServletResponse response, Encoding encoding) {
+            super(response);
+            this.request = request;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            if (state == State.IDENTITY) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (state == State.IDENTITY) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (state != State.UNDECIDED) {
+                getOutputStream().flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (state == State.UNDECIDED) {
+                pending.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (state == State.UNDECIDED) {
+                pending.reset();
+            }
+        }
+
+        /**
+         * Choisit entre écriture directe et compression, puis transmet le corps retenu.
+         */
+        private void decide(boolean complete) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            boolean compress = pending.size() >= minResponseSize()
+                    && response.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && !isExcluded(response.getContentType())
+                    && !response.isCommitted();
+
+            if (!compress) {
+                state = State.IDENTITY;
+                if (complete && !response.isCommitted()) {
+                    response.setContentLength(pending.size());
+                }
+                pending.writeTo(response.getOutputStream());
+                pending.reset();
+                return;
+            }
+
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null) {
+                response.setHeader(HttpHeaders.ETAG, EntityTags.withCoding(etag, encoding.token));
+            }
+            if (etag != null && request.getAttribute(CACHEABLE_ATTRIBUTE) != null) {
+                cacheKey = etag + '|' + response.getContentType() + '|' + encoding.token;
+                byte[] cached = cache.getIfPresent(cacheKey);
+                if (cached != null) {
+                    metrics.cacheHit();
+                    state = State.CACHED;
+                    response.setContentLength(cached.length);
+                    response.getOutputStream().write(cached);
+                    pending.reset();
+                    return;
+                }
+                metrics.cacheMiss();
+                cacheBuffer = new ByteArrayOutputStream();
+            }
+
+            state = State.COMPRESSING;
+            compressedTarget = new CountingOutputStream(response.getOutputStream(), cacheBuffer);
+            deflater = encoding.open(compressedTarget);
+            compress(pending.toByteArray(), 0, pending.size());
+            pending.reset();
+        }
+
+        private int minResponseSize() {
+            if (minResponseSize < 0) {
+                Object routeThreshold = request.getAttribute(MIN_RESPONSE_SIZE_ATTRIBUTE);
+                int threshold = routeThreshold instanceof Integer
+                        ? (Integer) routeThreshold : properties.getMinResponseSize();
+                // un corps vide n'est jamais compressé
+                minResponseSize = Math.max(1, threshold);
+            }
+            return minResponseSize;
+        }
+
+        private void compress(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            deflater.write(b, off, len);
+            compressionNanos += System.nanoTime() - start;
+            uncompressedBytes += len;
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (state == State.UNDECIDED) {
+                if (pending.size() == 0) {
+                    completeNotModified();
+                    return;
+                }
+                decide(true);
+            }
+            if (state == State.COMPRESSING) {
+                long start = System.nanoTime();
+                deflater.finish();
+                compressionNanos += System.nanoTime() - start;
+                metrics.compressed(uncompressedBytes, compressedTarget.count, compressionNanos);
+                if (cacheBuffer != null && cacheBuffer.size() <= properties.getCacheMaxEntrySize()) {
+                    cache.put(cacheKey, cacheBuffer.toByteArray());
+                }
+            }
+            getResponse().flushBuffer();
+        }
+
+        /**
+         * Un {@code 304} reprend l'ETag encodé quand c'est sous cette forme que le client l'a présenté.
+         */
+        private void completeNotModified() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (response.getStatus() != HttpServletResponse.SC_NOT_MODIFIED || etag == null || response.isCommitted()) {
+                return;
+            }
+            String encodedEtag = EntityTags.withCoding(etag, encoding.token);
+            if (EntityTags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), encodedEtag)) {
+                response.setHeader(HttpHeaders.ETAG, encodedEtag);
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+
+        /**
+         * Abandon sur exception : le corps retenu n'est pas écrit, la réponse reste à la disposition du traitement
+         * d'erreur. Si la compression a commencé, la réponse est déjà engagée ; le compresseur est terminé pour libérer
+         * sa mémoire native.
+         */
+        void abort() {
+            pending.reset();
+            if (state == State.COMPRESSING) {
+                try {
+                    deflater.finish();
+                } catch (IOException e) {
+                    // client déconnecté : la réponse est perdue de toute façon
+                }
+            }
+        }
+
+        private final class CompressingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                switch (state) {
+                    case UNDECIDED:
+                        pending.write(b, off, len);
+                        if (pending.size() >= minResponseSize()) {
+                            decide(false);
+                        }
+                        break;
+                    case IDENTITY:
+                        getResponse().getOutputStream().write(b, off, len);
+                        break;
+                    case COMPRESSING:
+                        compress(b, off, len);
+                        break;
+                    default:
+                        // corps déjà servi depuis le cache
+                        break;
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (state == State.COMPRESSING) {
+                    deflater.flush();
+                } else if (state == State.IDENTITY) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+
+            /**
+             * Tant que le corps est retenu ou servi depuis le cache, l'écriture ne bloque pas ; ensuite, c'est le flux
+             * du conteneur qui décide.
+             */
+            @Override
+            public boolean isReady() {
+                if (state != State.IDENTITY && state != State.COMPRESSING) {
+                    return true;
+                }
+                try {
+                    return getResponse().getOutputStream().isReady();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    getResponse().getOutputStream().setWriteListener(writeListener);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Présente aux filtres et contrôleurs internes l'en-tête {@code If-None-Match} sous la forme identité.
+     */
+    private static final class IdentityConditionalRequest extends HttpServletRequestWrapper {
+
+        private final Encoding encoding;
+
+        IdentityConditionalRequest(HttpServletRequest request, Encoding encoding) {
+            super(request);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) ? EntityTags.withoutCoding(value, encoding.token) : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            Enumeration<String> headers = super.getHeaders(name);
+            if (headers == null || !HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)) {
+                return headers;
+            }
+            List<String> values = Collections.list(headers);
+            values.replaceAll(value -> EntityTags.withoutCoding(value, encoding.token));
+            return Collections.enumeration(values);
+        }
+    }
+
+    private enum State {
+        UNDECIDED, IDENTITY, COMPRESSING, CACHED
+    }
+
+    /**
+     * Compte les octets compressés et en garde éventuellement une copie pour le cache.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream target;
+
+        private final OutputStream copy;
+
+        private long count;
+
+        CountingOutputStream(OutputStream target, OutputStream copy) {
+            this.target = target;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            if (copy != null) {
+                copy.write(b);
+            }
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+            }
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+    }
+}
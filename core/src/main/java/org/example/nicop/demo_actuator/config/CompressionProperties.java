@@ -0,0 +1,39 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Paramétrage de la compression des réponses du port principal, voir {@link CompressionFilter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "http.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Taille minimale, en octets, d'une réponse compressée.
+     */
+    private int minResponseSize = 2048;
+
+    /**
+     * Types de contenu jamais compressés ; un type terminé par {@code /*} exclut toute la famille.
+     */
+    private List<String> excludedMimeTypes = new ArrayList<>(Arrays.asList(
+            "image/*", "video/*", "audio/*", "application/zip", "application/gzip", "application/octet-stream"));
+
+    /**
+     * Nombre de réponses compressées conservées pour les endpoints marqués {@link CompressedCacheable}.
+     */
+    private int cacheSize = 256;
+
+    /**
+     * Taille maximale, en octets compressés, d'une réponse mise en cache.
+     */
+    private int cacheMaxEntrySize = 256 * 1024;
+}
@@ -0,0 +1,33 @@
+package org.example.nicop.demo_actuator.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Choisit le traitement appliqué par {@link ResponseEnricher} à la réponse d'un contrôleur.
+ * Portée sur une méthode, elle prend le pas sur celle portée par la classe.
+ *
+ * Destinée aux endpoints très sollicités dont la réponse n'a besoin ni de pagination, ni de réponse partielle.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Enrichment {
+
+    Mode value();
+
+    enum Mode {
+
+        /** Traitement complet par {@link org.example.nicop.demo_actuator.util.ResponseWrapperProcessor}. */
+        FULL,
+
+        /** Enveloppe {@code data} seule : ni métadonnées, ni réponse partielle, statut inchangé. */
+        MINIMAL,
+
+        /** Réponse écrite telle quelle, sans enveloppe. */
+        RAW
+    }
+}
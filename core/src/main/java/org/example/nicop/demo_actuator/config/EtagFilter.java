@@ -0,0 +1,288 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.util.EntityTags;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Calcule un ETag fort pour les réponses {@code GET}/{@code HEAD} et répond {@code 304} sans corps quand il correspond
+ * à l'en-tête {@code If-None-Match}.
+ *
+ * Contrairement au {@code ShallowEtagHeaderFilter} de Spring, l'empreinte MD5 est mise à jour au fil de l'écriture du
+ * corps : celui-ci n'est mis en mémoire qu'une fois, et n'est pas relu pour le hachage.
+ *
+ * Le filtre s'efface quand l'ETag a déjà été positionné (clé de version fournie par le contrôleur, voir
+ * {@link org.example.nicop.demo_actuator.util.Versioned}) et pour les réponses streamées, qui ne doivent pas être
+ * mises en mémoire (attribut {@link #STREAMING_ATTRIBUTE}).
+ */
+public class EtagFilter extends OncePerRequestFilter {
+
+    /**
+     * Attribut de requête positionné avant l'écriture d'une réponse streamée.
+     */
+    public static final String STREAMING_ATTRIBUTE = EtagFilter.class.getName() + ".STREAMING";
+
+    private static final String WRAPPER_ATTRIBUTE = EtagFilter.class.getName() + ".WRAPPER";
+
+    private static final String DIGEST_ALGORITHM = "MD5";
+
+    /**
+     * Préfixe de l'empreinte, repris du {@code ShallowEtagHeaderFilter} de Spring : les ETag ont le même format que
+     * ceux de ce filtre, et un ETag déjà détenu par un client reste valide si l'un remplace l'autre.
+     */
+    private static final String ETAG_PREFIX = "0";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (isAsyncDispatch(request)) {
+            resumeAsync(request, response, filterChain);
+            return;
+        }
+
+        if (!isEligible(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // en cas d'exception, le corps mis en mémoire est abandonné : la réponse n'est pas engagée et reste à la
+        // disposition du traitement d'erreur (Spring Security, page d'erreur)
+        DigestingResponseWrapper wrapper = new DigestingResponseWrapper(request, response);
+        filterChain.doFilter(request, wrapper);
+        if (isAsyncStarted(request)) {
+            request.setAttribute(WRAPPER_ATTRIBUTE, wrapper);
+        } else {
+            wrapper.complete();
+        }
+    }
+
+    /**
+     * Le corps d'une requête asynchrone est écrit lors du dispatch qui suit la fin du traitement : la réponse n'est
+     * terminée qu'à ce moment.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void resumeAsync(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DigestingResponseWrapper wrapper = (DigestingResponseWrapper) request.getAttribute(WRAPPER_ATTRIBUTE);
+        filterChain.doFilter(request, response);
+        if (wrapper != null && !isAsyncStarted(request)) {
+            request.removeAttribute(WRAPPER_ATTRIBUTE);
+            wrapper.complete();
+        }
+    }
+
+    private static boolean isEligible(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    private static String toHex(byte[] digest) {
+        char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            chars[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Réponse dont le corps est haché et mis en mémoire, sauf si la requête est marquée comme streamée au moment de la
+     * première écriture : le corps est alors transmis directement.
+     */
+    private static final class DigestingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+        private final MessageDigest digest;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        /**
+         * Décidé à la première écriture : {@literal null} tant que rien n'a été écrit.
+         */
+        private Boolean passThrough;
+
+        DigestingResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+            try {
+                this.digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DigestingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            if (isPassThrough()) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (isPassThrough()) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (isPassThrough()) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            resetBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            buffer.reset();
+            digest.reset();
+        }
+
+        private boolean isPassThrough() {
+            if (passThrough == null) {
+                passThrough = request.getAttribute(STREAMING_ATTRIBUTE) != null;
+            }
+            return passThrough;
+        }
+
+        /**
+         * Positionne l'ETag, répond {@code 304} si le client a déjà la représentation, sinon écrit le corps.
+         */
+        void complete() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (passThrough != null && passThrough) {
+                return;
+            }
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            int status = response.getStatus();
+            if (status >= 200 && status < 300 && buffer.size() > 0 && response.getHeader(HttpHeaders.ETAG) == null) {
+                String etag = EntityTags.strong(ETAG_PREFIX + toHex(digest.digest()));
+                response.setHeader(HttpHeaders.ETAG, etag);
+                if (EntityTags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return;
+                }
+            }
+            if (buffer.size() > 0 && !response.isCommitted()) {
+                response.setContentLength(buffer.size());
+            }
+            buffer.writeTo(response.getOutputStream());
+            response.flushBuffer();
+        }
+
+        private final class DigestingOutputStream extends ServletOutputStream {
+
+            private ServletOutputStream target() throws IOException {
+                return DigestingResponseWrapper.super.getOutputStream();
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                if (isPassThrough()) {
+                    target().write(b);
+                } else {
+                    buffer.write(b);
+                    digest.update((byte) b);
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (isPassThrough()) {
+                    target().write(b, off, len);
+                } else {
+                    buffer.write(b, off, len);
+                    digest.update(b, off, len);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (isPassThrough()) {
+                    target().flush();
+                }
+            }
+
+            /**
+             * Une écriture mise en mémoire ne bloque jamais ; la décision de transmettre le corps n'est pas avancée.
+             */
+            @Override
+            public boolean isReady() {
+                if (!Boolean.TRUE.equals(passThrough)) {
+                    return true;
+                }
+                try {
+                    return target().isReady();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            /**
+             * Les écritures non bloquantes sont enregistrées auprès du flux du conteneur, qui signale quand écrire ; le
+             * corps mis en mémoire y est écrit à la fin de la requête.
+             */
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    target().setWriteListener(writeListener);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
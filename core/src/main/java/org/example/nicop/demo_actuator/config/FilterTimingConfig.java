@@ -0,0 +1,110 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Context;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.servlet.Filter;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Mesure du temps propre de chaque filtre du port principal et de la chaîne Spring Security, activée par
+ * {@code http.filter-timing.enabled}. Les mesures sont publiées sous {@code /manage/filtertimings}.
+ */
+@Configuration
+@Slf4j
+@EnableConfigurationProperties(FilterTimingProperties.class)
+public class FilterTimingConfig {
+
+    @Bean
+    public FilterTimings filterTimings(FilterTimingProperties properties) {
+        return new FilterTimings(properties.isEnabled(), properties.getSignificantDigits());
+    }
+
+    /**
+     * Les filtres du conteneur sont enveloppés après leur déclaration par Spring Boot, quelle qu'en soit l'origine
+     * (bean {@link Filter}, {@code FilterRegistrationBean} ou auto-configuration).
+     */
+    @Bean
+    @ConditionalOnProperty(name = "http.filter-timing.enabled")
+    public EmbeddedServletContainerCustomizer filterTimingContainerCustomizer(FilterTimings filterTimings) {
+        log.info("Configuring per-filter timing of the servlet and security filter chains");
+        return container -> {
+            if (container instanceof TomcatEmbeddedServletContainerFactory) {
+                ((TomcatEmbeddedServletContainerFactory) container).addContextCustomizers(context ->
+                        // exécuté après l'initialisation de Spring Boot, qui déclare les filtres
+                        context.addServletContainerInitializer((classes, servletContext) -> wrapFilters(context, filterTimings), null));
+            }
+        };
+    }
+
+    private static void wrapFilters(Context context, FilterTimings filterTimings) {
+        for (FilterDef filterDef : context.findFilterDefs()) {
+            if (filterDef.getFilter() != null) {
+                filterDef.setFilter(new TimedFilter(filterDef.getFilter(),
+                        filterTimings.filter(FilterTimings.SERVLET, filterDef.getFilterName())));
+            }
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.filter-timing.enabled")
+    public static BeanPostProcessor securityFilterTimingPostProcessor() {
+        return new SecurityFilterTimingPostProcessor();
+    }
+
+    /**
+     * Enveloppe en place les filtres des chaînes du {@link FilterChainProxy} de Spring Security : le bean est conservé
+     * avec son pare-feu et son validateur. Le même bean sert au port de supervision, dont la chaîne de sécurité est donc
+     * aussi mesurée, sous son propre nom ({@link FilterTimings#securityChain(int)}).
+     */
+    private static final class SecurityFilterTimingPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+        private BeanFactory beanFactory;
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof FilterChainProxy)) {
+                return bean;
+            }
+            FilterTimings filterTimings = beanFactory.getBean(FilterTimings.class);
+            List<SecurityFilterChain> chains = ((FilterChainProxy) bean).getFilterChains();
+            for (int index = 0; index < chains.size(); index++) {
+                // seule DefaultSecurityFilterChain garantit une liste de filtres modifiable
+                if (!(chains.get(index) instanceof DefaultSecurityFilterChain)) {
+                    continue;
+                }
+                String chainName = FilterTimings.securityChain(index);
+                for (ListIterator<Filter> filters = chains.get(index).getFilters().listIterator(); filters.hasNext(); ) {
+                    Filter filter = filters.next();
+                    filters.set(new TimedFilter(filter, filterTimings.filter(chainName, filter.getClass().getSimpleName())));
+                }
+            }
+            return bean;
+        }
+    }
+}
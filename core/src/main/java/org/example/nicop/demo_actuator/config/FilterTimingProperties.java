@@ -0,0 +1,22 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramétrage de la mesure du temps passé dans chaque filtre, voir {@link FilterTimings}.
+ */
+@Data
+@ConfigurationProperties(prefix = "http.filter-timing")
+public class FilterTimingProperties {
+
+    /**
+     * Désactivée, aucun filtre n'est enveloppé et la mesure ne coûte rien.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Précision des histogrammes, en chiffres significatifs.
+     */
+    private int significantDigits = 2;
+}
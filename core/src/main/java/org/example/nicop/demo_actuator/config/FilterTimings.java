@@ -0,0 +1,101 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.util.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogrammes du temps propre de chaque filtre, par chaîne ({@link #SERVLET} pour les filtres du conteneur,
+ * {@link #securityChain(int)} pour chacune des chaînes de Spring Security) et par motif de chemin du contrôleur appelé.
+ *
+ * Le temps propre d'un filtre exclut la suite de la chaîne. Le filtre {@code springSecurityFilterChain} de la chaîne
+ * {@link #SERVLET} inclut donc le temps des filtres des chaînes de sécurité.
+ */
+public class FilterTimings {
+
+    public static final String SERVLET = "servlet";
+
+    public static final String SECURITY = "security";
+
+    /**
+     * Motif des requêtes non traitées par un contrôleur (rejet d'un filtre, ressource absente).
+     */
+    public static final String UNMATCHED = "(unmatched)";
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+
+    private final int significantDigits;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, FilterTiming>> chains = new ConcurrentHashMap<>();
+
+    public FilterTimings(boolean enabled, int significantDigits) {
+        this.enabled = enabled;
+        this.significantDigits = significantDigits;
+    }
+
+    /**
+     * Nom d'une chaîne de Spring Security, {@code security[index]} : une même classe de filtre présente dans la chaîne
+     * de supervision et dans celle de l'application est mesurée séparément.
+     *
+     * @param index position de la chaîne dans le {@code FilterChainProxy}
+     */
+    public static String securityChain(int index) {
+        return SECURITY + "[" + index + "]";
+    }
+
+    /**
+     * @return les mesures d'un filtre, créées au premier appel
+     */
+    public FilterTiming filter(String chain, String name) {
+        return chains.computeIfAbsent(chain, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, key -> new FilterTiming());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return les mesures par chaîne puis par nom de filtre
+     */
+    public Map<String, ? extends Map<String, FilterTiming>> getChains() {
+        return Collections.unmodifiableMap(chains);
+    }
+
+    private LatencyHistogram newHistogram() {
+        return new LatencyHistogram(HIGHEST_TRACKABLE_NANOS, significantDigits);
+    }
+
+    /**
+     * Mesures d'un filtre : histogramme global et histogrammes par motif de chemin, en nanosecondes.
+     */
+    public final class FilterTiming {
+
+        private final LatencyHistogram all = newHistogram();
+
+        private final ConcurrentMap<String, LatencyHistogram> patterns = new ConcurrentHashMap<>();
+
+        public void record(String pattern, long nanos) {
+            all.record(nanos);
+            LatencyHistogram histogram = patterns.get(pattern);
+            if (histogram == null) {
+                histogram = patterns.computeIfAbsent(pattern, key -> newHistogram());
+            }
+            histogram.record(nanos);
+        }
+
+        public LatencyHistogram getAll() {
+            return all;
+        }
+
+        public Map<String, LatencyHistogram> getPatterns() {
+            return Collections.unmodifiableMap(patterns);
+        }
+    }
+}
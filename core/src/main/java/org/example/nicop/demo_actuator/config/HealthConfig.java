@@ -0,0 +1,35 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.management.BackgroundHealthIndicators;
+import org.example.nicop.demo_actuator.management.BackgroundHealthProperties;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.actuate.health.HealthAggregator;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * {@code /manage/health} servi depuis le dernier résultat de chaque indicateur, vérifié en tâche de fond, au lieu
+ * d'exécuter tous les indicateurs l'un après l'autre à chaque appel.
+ */
+@Configuration
+@ConditionalOnProperty(name = "management.health.background.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(BackgroundHealthProperties.class)
+public class HealthConfig {
+
+    @Bean
+    public BackgroundHealthIndicators backgroundHealthIndicators(Map<String, HealthIndicator> healthIndicators,
+                                                                 BackgroundHealthProperties properties) {
+        return new BackgroundHealthIndicators(healthIndicators, properties);
+    }
+
+    @Bean
+    public HealthEndpoint healthEndpoint(HealthAggregator healthAggregator,
+                                         BackgroundHealthIndicators backgroundHealthIndicators) {
+        return new HealthEndpoint(healthAggregator, backgroundHealthIndicators.getIndicators());
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.apache.catalina.connector.Connector;
+import org.example.nicop.demo_actuator.management.JmxSnapshotProperties;
+import org.example.nicop.demo_actuator.management.JmxSnapshots;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerInitializedEvent;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Instantanés JMX agrégés (requêtes, pools de threads, JVM) servis à Jolokia sans parcourir les MBeans à chaque
+ * lecture.
+ */
+@Configuration
+@ConditionalOnProperty(name = "management.jmx.snapshot.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(JmxSnapshotProperties.class)
+public class JmxSnapshotConfig {
+
+    @Autowired
+    private ObjectProvider<JmxSnapshots> jmxSnapshots;
+
+    /**
+     * Exporté par l'{@code MBeanExporter} de Spring Boot, dans le serveur MBean que lit Jolokia ; absent quand
+     * {@code spring.jmx.enabled} est faux.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.jmx", name = "enabled", matchIfMissing = true)
+    public JmxSnapshots jmxSnapshots(MBeanExporter mbeanExporter,
+                                     @Value("${spring.jmx.unique-names:false}") boolean uniqueNames,
+                                     JmxSnapshotProperties properties, RouteLatencies routeLatencies,
+                                     Map<String, ThreadPoolTaskExecutor> taskExecutors) {
+        JmxSnapshots snapshots = new JmxSnapshots(mbeanExporter, uniqueNames, properties, routeLatencies);
+        for (Map.Entry<String, ThreadPoolTaskExecutor> executor : taskExecutors.entrySet()) {
+            snapshots.addPool(executor.getKey(), executor.getValue()::getThreadPoolExecutor);
+        }
+        return snapshots;
+    }
+
+    /**
+     * Ajoute le pool de chaque connecteur Tomcat, port principal et port de management, une fois démarré.
+     */
+    @EventListener
+    public void addConnectorPools(EmbeddedServletContainerInitializedEvent event) {
+        JmxSnapshots snapshots = jmxSnapshots.getIfAvailable();
+        if (snapshots == null || !(event.getEmbeddedServletContainer() instanceof TomcatEmbeddedServletContainer)) {
+            return;
+        }
+        TomcatEmbeddedServletContainer container = (TomcatEmbeddedServletContainer) event.getEmbeddedServletContainer();
+        for (Connector connector : container.getTomcat().getService().findConnectors()) {
+            Executor executor = connector.getProtocolHandler().getExecutor();
+            if (executor instanceof ThreadPoolExecutor) {
+                snapshots.addPool("tomcat-" + connector.getPort(), () -> (ThreadPoolExecutor) executor);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Paramétrage des histogrammes de latence par méthode de contrôleur, voir {@link RouteLatencies}.
+ */
+@Data
+@ConfigurationProperties(prefix = "management.latency")
+public class LatencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Précision des histogrammes, en chiffres significatifs.
+     */
+    private int significantDigits = 2;
+
+    /**
+     * Latence maximale distinguée, en millisecondes ; les valeurs supérieures sont comptées à ce maximum.
+     */
+    private long highestTrackable = 60000;
+
+    /**
+     * Durée, en secondes, d'une tranche des histogrammes glissants.
+     */
+    private long slot = 15;
+
+    /**
+     * Fenêtres glissantes publiées, en secondes ; la plus longue détermine le nombre de tranches conservées.
+     */
+    private List<Long> windows = new ArrayList<>(Arrays.asList(60L, 300L));
+}
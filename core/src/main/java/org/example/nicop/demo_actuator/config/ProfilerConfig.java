@@ -0,0 +1,29 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.management.ProfileEndpoint;
+import org.example.nicop.demo_actuator.management.ProfilerProperties;
+import org.example.nicop.demo_actuator.management.StackSampler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Profileur par échantillonnage de piles, à activer ponctuellement ({@code management.profiler.enabled}) sur une
+ * instance à examiner, et son endpoint {@code /manage/profile}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "management.profiler.enabled")
+@EnableConfigurationProperties(ProfilerProperties.class)
+public class ProfilerConfig {
+
+    @Bean
+    public StackSampler stackSampler(ProfilerProperties properties) {
+        return new StackSampler(properties);
+    }
+
+    @Bean
+    public ProfileEndpoint profileEndpoint(StackSampler stackSampler) {
+        return new ProfileEndpoint(stackSampler);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.nicop.demo_actuator.config;
+
+import javax.servlet.ServletRequest;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Repères temporels d'une requête, posés par les étapes du traitement et conservés en attribut de requête.
+ *
+ * Poser un repère coûte un appel à {@link System#nanoTime()} et une écriture dans un tableau : les repères restent
+ * actifs pour toutes les requêtes, seules les requêtes lentes sont ensuite décomposées en phases (voir
+ * {@link #getPhases()}).
+ */
+public final class RequestTimeline {
+
+    public static final String ATTRIBUTE = RequestTimeline.class.getName();
+
+    public enum Mark {
+        START, SECURITY_START, SECURITY_END, ARGUMENTS_START, CONTROLLER_START, CONTROLLER_END, ASYNC_RESUME,
+        PROCESSING_START, PROCESSING_END, HANDLER_END, END
+    }
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private static final int MARK_COUNT = Mark.values().length;
+
+    private final long[] marks = new long[MARK_COUNT];
+
+    private volatile Method handler;
+
+    public RequestTimeline() {
+        Arrays.fill(marks, UNSET);
+        marks[Mark.START.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * @return la frise de la requête, {@literal null} si elle n'est pas suivie
+     */
+    public static RequestTimeline of(ServletRequest request) {
+        return (RequestTimeline) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Pose le repère sur la frise de la requête, si elle est suivie.
+     */
+    public static void mark(ServletRequest request, Mark mark) {
+        RequestTimeline timeline = of(request);
+        if (timeline != null) {
+            timeline.mark(mark);
+        }
+    }
+
+    public void mark(Mark mark) {
+        mark(mark, System.nanoTime());
+    }
+
+    void mark(Mark mark, long nanoTime) {
+        marks[mark.ordinal()] = nanoTime;
+    }
+
+    /**
+     * Pose le repère s'il ne l'a pas déjà été, pour les étapes rejouées par un dispatch asynchrone ou d'erreur.
+     */
+    public void markFirst(Mark mark) {
+        markFirst(mark, System.nanoTime());
+    }
+
+    void markFirst(Mark mark, long nanoTime) {
+        if (marks[mark.ordinal()] == UNSET) {
+            mark(mark, nanoTime);
+        }
+    }
+
+    /**
+     * @return la durée totale en nanosecondes, jusqu'au repère {@link Mark#END}
+     */
+    public long getDuration() {
+        return marks[Mark.END.ordinal()] - marks[Mark.START.ordinal()];
+    }
+
+    /**
+     * @return la méthode de contrôleur appelée, {@literal null} si aucune ; son nom n'est formaté que pour les requêtes
+     * conservées, voir {@link RouteLatencies#routeName(Method)}
+     */
+    public Method getHandler() {
+        return handler;
+    }
+
+    public void setHandler(Method handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Décompose la requête, terminée, en phases : {@code security}, {@code arguments}, {@code controller},
+     * {@code async} (attente du résultat asynchrone), {@code processing} (enrichissement de la réponse),
+     * {@code serialization}, {@code write} (filtres en sortie et écriture finale), et {@code other} pour le reste
+     * (filtres en entrée, dispatch). Une phase non traversée est absente.
+     *
+     * @return la durée de chaque phase en nanosecondes
+     */
+    public Map<String, Long> getPhases() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        if (isSet(Mark.SECURITY_START)) {
+            // une requête rejetée ne sort pas de la chaîne de sécurité
+            phases.put("security", between(Mark.SECURITY_START, isSet(Mark.SECURITY_END) ? Mark.SECURITY_END : Mark.END));
+        }
+        putBetween(phases, "arguments", Mark.ARGUMENTS_START, Mark.CONTROLLER_START);
+        putBetween(phases, "controller", Mark.CONTROLLER_START, Mark.CONTROLLER_END);
+        putBetween(phases, "async", Mark.CONTROLLER_END, Mark.ASYNC_RESUME);
+        putBetween(phases, "processing", Mark.PROCESSING_START, Mark.PROCESSING_END);
+        Mark serializationStart = isSet(Mark.PROCESSING_END) ? Mark.PROCESSING_END
+                : isSet(Mark.ASYNC_RESUME) ? Mark.ASYNC_RESUME : Mark.CONTROLLER_END;
+        putBetween(phases, "serialization", serializationStart, Mark.HANDLER_END);
+        putBetween(phases, "write", Mark.HANDLER_END, Mark.END);
+        long accounted = 0;
+        for (long phase : phases.values()) {
+            accounted += phase;
+        }
+        phases.put("other", Math.max(0, getDuration() - accounted));
+        return phases;
+    }
+
+    private void putBetween(Map<String, Long> phases, String phase, Mark from, Mark to) {
+        if (isSet(from) && isSet(to)) {
+            phases.put(phase, between(from, to));
+        }
+    }
+
+    private boolean isSet(Mark mark) {
+        return marks[mark.ordinal()] != UNSET;
+    }
+
+    private long between(Mark from, Mark to) {
+        return Math.max(0, marks[to.ordinal()] - marks[from.ordinal()]);
+    }
+}
@@ -1,34 +1,75 @@
 package org.example.nicop.demo_actuator.config;
 
 
+import org.example.nicop.demo_actuator.util.EntityTags;
+import org.example.nicop.demo_actuator.util.RequestParameters;
+import org.example.nicop.demo_actuator.util.ResponseWrapper;
 import org.example.nicop.demo_actuator.util.ResponseWrapperProcessor;
+import org.example.nicop.demo_actuator.util.Versioned;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.actuate.endpoint.mvc.HealthMvcEndpoint;
+import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import static org.example.nicop.demo_actuator.util.UriUtils.splitQuery;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @Slf4j
 @ControllerAdvice
 public class ResponseEnricher implements ResponseBodyAdvice<Object> {
 
+    private static final String ACTUATOR_PACKAGE = "org.springframework.boot.actuate";
+
+    static final String FULL_COUNTER = "response.enrichment.full";
+    static final String MINIMAL_COUNTER = "response.enrichment.minimal";
+    static final String RAW_COUNTER = "response.enrichment.raw";
+
+    /**
+     * Résultat de {@link #unwrapVersioned} quand le client possède déjà la version : aucun corps n'est écrit.
+     */
+    private static final Object NOT_MODIFIED = new Object();
+
+    /**
+     * Décision d'enrichissement par méthode de contrôleur, calculée au premier appel.
+     */
+    private final ConcurrentMap<Method, Decision> decisions = new ConcurrentHashMap<>();
+
+    private final CounterService counterService;
+
+    public ResponseEnricher(CounterService counterService) {
+        this.counterService = counterService;
+    }
+
+    /**
+     * Les réponses {@link Enrichment.Mode#RAW} passent aussi par {@link #beforeBodyWrite}, uniquement pour déballer un
+     * {@link Versioned}.
+     */
     @Override
     public boolean supports(MethodParameter methodParameter, Class<? extends HttpMessageConverter<?>> aClass) {
-        if(methodParameter.getContainingClass().getName().startsWith("org.springframework.boot.actuate")){
-            return false;
+        Decision decision = decisionFor(methodParameter);
+        if(decision == Decision.RAW) {
+            counterService.increment(RAW_COUNTER);
         }
-        return true;
+        return decision != Decision.ACTUATOR;
     }
 
     @Override
@@ -37,7 +78,46 @@ public class ResponseEnricher implements ResponseBodyAdvice<Object> {
                                   ServerHttpResponse serverHttpResponse) {
 
         ServletServerHttpRequest sshr = (ServletServerHttpRequest) serverHttpRequest;
-        Map<String, String> params = splitQuery(sshr.getURI());
+        if(decisionFor(returnType) == Decision.RAW) {
+            if(!isVersioned(body)) {
+                return body;
+            }
+            // l'ETag d'une version dépend du format négocié, comme pour l'enveloppe
+            ((ServletServerHttpResponse) serverHttpResponse).getServletResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            Object unwrapped = unwrapVersioned(body, mediaType, sshr, serverHttpResponse);
+            return unwrapped == NOT_MODIFIED ? null : unwrapped;
+        }
+        RequestTimeline timeline = RequestTimeline.of(sshr.getServletRequest());
+        if(timeline == null) {
+            return enrich(body, returnType, mediaType, sshr, serverHttpResponse);
+        }
+        timeline.mark(RequestTimeline.Mark.PROCESSING_START);
+        try {
+            return enrich(body, returnType, mediaType, sshr, serverHttpResponse);
+        } finally {
+            timeline.mark(RequestTimeline.Mark.PROCESSING_END);
+        }
+    }
+
+    private Object enrich(Object body, MethodParameter returnType, MediaType mediaType, ServletServerHttpRequest sshr,
+                          ServerHttpResponse serverHttpResponse) {
+
+        // l'enveloppe est négociée sur l'en-tête Accept (JSON ou format binaire) : les caches doivent en tenir compte,
+        // y compris pour un 304, d'où l'écriture directe sur la réponse servlet
+        ((ServletServerHttpResponse) serverHttpResponse).getServletResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        body = unwrapVersioned(body, mediaType, sshr, serverHttpResponse);
+        if(body == NOT_MODIFIED) {
+            return null;
+        }
+
+        if(decisionFor(returnType) == Decision.MINIMAL) {
+            counterService.increment(MINIMAL_COUNTER);
+            return new ResponseWrapper(body, null, null);
+        }
+        counterService.increment(FULL_COUNTER);
+
+        RequestParameters params = RequestParameters.of(sshr.getServletRequest());
 
         ResponseWrapperProcessor processor = new ResponseWrapperProcessor(body, params);
 
@@ -52,11 +132,96 @@ public class ResponseEnricher implements ResponseBodyAdvice<Object> {
         // positionnement du statut
         serverHttpResponse.setStatusCode(processor.getStatus());
 
+        // une réponse streamée ne doit pas être mise en mémoire pour le calcul de l'ETag
+        if(processor.isStreamed()) {
+            sshr.getServletRequest().setAttribute(EtagFilter.STREAMING_ATTRIBUTE, Boolean.TRUE);
+            sshr.getServletRequest().setAttribute(StreamingDataInterceptor.STREAMING_DATA_ATTRIBUTE, processor.getStreamingData());
+        }
+
         return processor.getMappingJacksonValue();
     }
 
+    /**
+     * Remplace un {@link Versioned}, renvoyé directement ou dans une {@link ResponseEntity}, par son corps.
+     *
+     * @return le corps à écrire, ou {@link #NOT_MODIFIED} si le client possède déjà cette version
+     */
+    private static Object unwrapVersioned(Object body, MediaType mediaType, ServletServerHttpRequest sshr,
+                                          ServerHttpResponse serverHttpResponse) {
+        if(!isVersioned(body)) {
+            return body;
+        }
+        ResponseEntity<?> entity = body instanceof ResponseEntity ? (ResponseEntity<?>) body : null;
+        Versioned<?> versioned = (Versioned<?>) (entity != null ? entity.getBody() : body);
+        HttpServletResponse servletResponse = ((ServletServerHttpResponse) serverHttpResponse).getServletResponse();
+        if(isNotModified(sshr.getServletRequest(), servletResponse, versioned, mediaType)) {
+            return NOT_MODIFIED;
+        }
+        return entity == null ? versioned.getBody()
+                : new ResponseEntity<>(versioned.getBody(), entity.getHeaders(), entity.getStatusCode());
+    }
+
+    private static boolean isVersioned(Object body) {
+        return body instanceof Versioned
+                || body instanceof ResponseEntity && ((ResponseEntity<?>) body).getBody() instanceof Versioned;
+    }
+
+    /**
+     * Positionne l'ETag dérivé de la clé de version et indique si le client possède déjà cette représentation.
+     * La chaîne de requête et le format négocié entrent dans l'ETag, la réponse dépendant des paramètres (pagination,
+     * réponse partielle...) et de l'en-tête {@code Accept} (JSON, Smile, CBOR, MessagePack).
+     */
+    private static boolean isNotModified(HttpServletRequest request, HttpServletResponse response, Versioned<?> versioned,
+                                         MediaType mediaType) {
+        String query = request.getQueryString();
+        String variant = query == null ? mediaType.toString() : mediaType + "?" + query;
+        String etag = EntityTags.strong(versioned.getVersion() + "-" + DigestUtils.md5DigestAsHex(variant.getBytes(UTF_8)));
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if(EntityTags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return true;
+        }
+        return false;
+    }
 
+    private Decision decisionFor(MethodParameter methodParameter) {
+        Method method = methodParameter.getMethod();
+        if(method == null) {
+            return Decision.FULL;
+        }
+        Decision decision = decisions.get(method);
+        if(decision == null) {
+            decision = decisions.computeIfAbsent(method, m -> decide(methodParameter.getContainingClass(), m));
+        }
+        return decision;
+    }
 
+    private static Decision decide(Class<?> containingClass, Method method) {
+        if(containingClass.getName().startsWith(ACTUATOR_PACKAGE)) {
+            return Decision.ACTUATOR;
+        }
+        Enrichment enrichment = AnnotatedElementUtils.findMergedAnnotation(method, Enrichment.class);
+        if(enrichment == null) {
+            enrichment = AnnotatedElementUtils.findMergedAnnotation(containingClass, Enrichment.class);
+        }
+        if(enrichment == null) {
+            return Decision.FULL;
+        }
+        switch (enrichment.value()) {
+            case MINIMAL:
+                return Decision.MINIMAL;
+            case RAW:
+                return Decision.RAW;
+            default:
+                return Decision.FULL;
+        }
+    }
 
+    /**
+     * {@link Enrichment.Mode} résolu, plus le cas des endpoints Actuator qui ne sont jamais enrichis ni comptés.
+     */
+    private enum Decision {
+        FULL, MINIMAL, RAW, ACTUATOR
+    }
 
 }
@@ -0,0 +1,146 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.EqualsAndHashCode;
+import org.example.nicop.demo_actuator.util.ResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Écrit une enveloppe {@link ResponseWrapper} hors de Spring MVC (filtres, handlers Spring Security), dans le format
+ * négocié sur l'en-tête {@code Accept} avec les mêmes convertisseurs que les contrôleurs.
+ *
+ * Le premier convertisseur est le format par défaut : sans en-tête {@code Accept}, avec {@code *}{@code /*} ou un type
+ * non supporté.
+ */
+public class ResponseWrapperWriter {
+
+    private final List<HttpMessageConverter<Object>> converters = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    public ResponseWrapperWriter(List<? extends HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            this.converters.add((HttpMessageConverter<Object>) converter);
+        }
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, int status, ResponseWrapper body)
+            throws IOException {
+        response.setStatus(status);
+        negotiate(request).write(body, response);
+    }
+
+    /**
+     * @return le format de réponse accepté par le client, ou le format par défaut
+     */
+    public Format negotiate(HttpServletRequest request) {
+        for (MediaType mediaType : acceptedMediaTypes(request)) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (HttpMessageConverter<Object> converter : converters) {
+                if (converter.canWrite(ResponseWrapper.class, mediaType)) {
+                    return new Format(converter, mediaType.isConcrete() ? mediaType : null);
+                }
+            }
+        }
+        return new Format(converters.get(0), null);
+    }
+
+    private static List<MediaType> acceptedMediaTypes(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            return mediaTypes;
+        } catch (InvalidMediaTypeException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Résultat de la négociation : convertisseur et type de contenu demandé ({@literal null} pour le type par défaut
+     * du convertisseur). Deux formats égaux produisent les mêmes octets pour une même enveloppe.
+     */
+    @EqualsAndHashCode
+    public static final class Format {
+
+        private final HttpMessageConverter<Object> converter;
+
+        private final MediaType contentType;
+
+        private Format(HttpMessageConverter<Object> converter, MediaType contentType) {
+            this.converter = converter;
+            this.contentType = contentType;
+        }
+
+        public void write(ResponseWrapper body, HttpServletResponse response) throws IOException {
+            ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
+            converter.write(body, contentType, outputMessage);
+            outputMessage.flush();
+        }
+
+        /**
+         * Sérialise l'enveloppe en mémoire, pour une écriture ultérieure sans conversion.
+         */
+        public Serialized serialize(ResponseWrapper body) throws IOException {
+            BufferedOutputMessage outputMessage = new BufferedOutputMessage();
+            converter.write(body, contentType, outputMessage);
+            return new Serialized(outputMessage.body.toByteArray(), outputMessage.headers.getContentType());
+        }
+    }
+
+    /**
+     * Enveloppe sérialisée, prête à être écrite telle quelle.
+     */
+    public static final class Serialized {
+
+        private final byte[] body;
+
+        private final MediaType contentType;
+
+        private Serialized(byte[] body, MediaType contentType) {
+            this.body = body;
+            this.contentType = contentType;
+        }
+
+        public void write(HttpServletResponse response) throws IOException {
+            response.setContentType(contentType.toString());
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            response.flushBuffer();
+        }
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
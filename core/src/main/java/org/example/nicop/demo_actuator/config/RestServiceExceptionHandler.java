@@ -1,11 +1,19 @@
 package org.example.nicop.demo_actuator.config;
 
 
+import org.example.nicop.demo_actuator.util.ErrorMessage;
 import org.example.nicop.demo_actuator.util.RestServiceException;
 import org.example.nicop.demo_actuator.util.RestErrorList;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @ControllerAdvice
 public class RestServiceExceptionHandler {
@@ -16,4 +24,50 @@ public class RestServiceExceptionHandler {
 
            return ex.getErrors();
        }
+
+     /**
+      * Une requête asynchrone ({@code Callable}, {@code DeferredResult}, {@code CompletableFuture}) qui dépasse le délai
+      * configuré (http.async.timeout) est terminée avec l'enveloppe d'erreur standard.
+      */
+     @ExceptionHandler
+       @ResponseBody
+       public RestErrorList handleAsyncTimeout(AsyncRequestTimeoutException ex) {
+
+           return new RestErrorList(SERVICE_UNAVAILABLE, new ErrorMessage("Délai de traitement dépassé", "E003",
+                   "the request did not complete within the configured timeout"));
+       }
+
+     /**
+      * Un {@code Callable} refusé par l'exécuteur asynchrone saturé (http.async.queue-capacity atteinte) est terminé avec
+      * l'enveloppe d'erreur standard.
+      */
+     @ExceptionHandler
+       @ResponseBody
+       public RestErrorList handleTaskRejected(TaskRejectedException ex) {
+
+           return new RestErrorList(SERVICE_UNAVAILABLE, new ErrorMessage("Service saturé", "E005",
+                   "the request could not be queued for asynchronous processing"));
+       }
+
+     /**
+      * Un {@code CompletableFuture} ou un {@code ListenableFuture} en échec transmet l'exception enveloppée : une
+      * {@link RestServiceException} retrouve son statut et son enveloppe d'erreur, les autres causes suivent le
+      * traitement par défaut.
+      */
+     @ExceptionHandler({CompletionException.class, ExecutionException.class})
+       @ResponseBody
+       public RestErrorList handleAsyncFailure(Exception ex) throws Exception {
+
+           Throwable cause = ex;
+           while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+               cause = cause.getCause();
+           }
+           if (cause instanceof RestServiceException) {
+               return handleException((RestServiceException) cause);
+           }
+           if (cause instanceof TaskRejectedException) {
+               return handleTaskRejected((TaskRejectedException) cause);
+           }
+           throw ex;
+       }
 }
@@ -0,0 +1,84 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mesure les octets alloués et le temps CPU du thread de requête pendant le traitement par un contrôleur, de la
+ * résolution des arguments à l'écriture de la réponse, et les enregistre dans {@link RouteCosts}.
+ *
+ * Pour une requête asynchrone, seuls les dispatchs sur les threads du conteneur sont comptés, pas le travail effectué
+ * entre-temps sur un autre pool.
+ */
+public class RouteCostInterceptor extends HandlerInterceptorAdapter {
+
+    private static final String USAGE_ATTRIBUTE = RouteCostInterceptor.class.getName() + ".USAGE";
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final RouteCosts routeCosts;
+
+    /**
+     * @param routeCosts à n'utiliser que si {@link RouteCosts#isSupported()}
+     */
+    public RouteCostInterceptor(RouteCosts routeCosts) {
+        this.routeCosts = routeCosts;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            Usage usage = (Usage) request.getAttribute(USAGE_ATTRIBUTE);
+            if (usage == null) {
+                usage = new Usage();
+                request.setAttribute(USAGE_ATTRIBUTE, usage);
+            }
+            usage.startBytes = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            usage.startCpuNanos = threadMXBean.getCurrentThreadCpuTime();
+        }
+        return true;
+    }
+
+    /**
+     * Le thread du conteneur est libéré : sa part est cumulée, le dispatch final mesurera la sienne.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Usage usage = (Usage) request.getAttribute(USAGE_ATTRIBUTE);
+        if (handler instanceof HandlerMethod && usage != null) {
+            usage.accumulate();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Usage usage = (Usage) request.getAttribute(USAGE_ATTRIBUTE);
+        if (handler instanceof HandlerMethod && usage != null) {
+            usage.accumulate();
+            routeCosts.record((HandlerMethod) handler, usage.bytes, usage.cpuNanos);
+            // un dispatch d'erreur qui suit part de zéro, sous sa propre route
+            request.removeAttribute(USAGE_ATTRIBUTE);
+        }
+    }
+
+    private final class Usage {
+
+        private long startBytes;
+
+        private long startCpuNanos;
+
+        private long bytes;
+
+        private long cpuNanos;
+
+        void accumulate() {
+            bytes += threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - startBytes;
+            cpuNanos += threadMXBean.getCurrentThreadCpuTime() - startCpuNanos;
+        }
+    }
+}
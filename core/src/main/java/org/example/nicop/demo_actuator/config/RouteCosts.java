@@ -0,0 +1,103 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Octets alloués et temps CPU consommés par le thread de requête, cumulés par méthode de contrôleur, nommée comme dans
+ * {@link RouteLatencies}.
+ *
+ * Les mesures s'appuient sur {@link com.sun.management.ThreadMXBean}, propre aux JVM HotSpot : voir
+ * {@link #isSupported()}.
+ */
+public class RouteCosts {
+
+    /**
+     * Active la mesure, désactivée par défaut : chaque dispatch vers un contrôleur lit deux fois les compteurs du thread,
+     * à l'entrée et à la sortie. La mesure sert à une campagne d'optimisation ponctuelle, pas au suivi permanent que
+     * couvrent déjà les histogrammes de latence.
+     */
+    public static final String ENABLED_PROPERTY = "management.route-cost.enabled";
+
+    private final ConcurrentMap<Method, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @return {@literal true} si la JVM mesure les allocations et le temps CPU de chaque thread
+     */
+    public static boolean isSupported() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled()
+                && threadMXBean.isCurrentThreadCpuTimeSupported()
+                && threadMXBean.isThreadCpuTimeEnabled();
+    }
+
+    public void record(HandlerMethod handlerMethod, long bytes, long cpuNanos) {
+        Route route = routes.get(handlerMethod.getMethod());
+        if (route == null) {
+            route = routes.computeIfAbsent(handlerMethod.getMethod(), method -> new Route(RouteLatencies.routeName(method)));
+        }
+        route.count.increment();
+        route.bytes.add(bytes);
+        route.maxBytes.accumulate(bytes);
+        route.cpuNanos.add(cpuNanos);
+        route.maxCpuNanos.accumulate(cpuNanos);
+    }
+
+    public Collection<Route> getRoutes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    public static final class Route {
+
+        private final String name;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder cpuNanos = new LongAdder();
+
+        private final LongAccumulator maxCpuNanos = new LongAccumulator(Math::max, 0);
+
+        private Route(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public long getMaxBytes() {
+            return maxBytes.get();
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos.sum();
+        }
+
+        public long getMaxCpuNanos() {
+            return maxCpuNanos.get();
+        }
+    }
+}
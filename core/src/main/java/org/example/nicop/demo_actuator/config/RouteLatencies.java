@@ -0,0 +1,87 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.util.RollingLatencyHistogram;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogrammes de latence, en microsecondes, par méthode de contrôleur, cumulés et sur des fenêtres glissantes.
+ * Chaque route est nommée par {@link #routeName(Method)}.
+ */
+public class RouteLatencies {
+
+    private final LatencyProperties properties;
+
+    private final long highestTrackableMicros;
+
+    private final int slotCount;
+
+    private final ConcurrentMap<Method, Route> routes = new ConcurrentHashMap<>();
+
+    public RouteLatencies(LatencyProperties properties) {
+        this.properties = properties;
+        this.highestTrackableMicros = TimeUnit.MILLISECONDS.toMicros(properties.getHighestTrackable());
+        long longestWindow = properties.getWindows().stream().mapToLong(Long::longValue).max().orElse(properties.getSlot());
+        this.slotCount = (int) Math.max(1, (longestWindow + properties.getSlot() - 1) / properties.getSlot());
+    }
+
+    public void record(HandlerMethod handlerMethod, long nanos) {
+        Route route = routes.get(handlerMethod.getMethod());
+        if (route == null) {
+            route = routes.computeIfAbsent(handlerMethod.getMethod(), method -> new Route(routeName(method)));
+        }
+        route.histogram.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Nom unique d'une méthode de contrôleur, {@code paquet.Classe.méthode(TypeParamètre,...)} : les surcharges et les
+     * contrôleurs homonymes de paquets différents restent des routes distinctes, y compris comme libellé Prometheus.
+     */
+    public static String routeName(Method method) {
+        StringJoiner name = new StringJoiner(",", method.getDeclaringClass().getName() + "." + method.getName() + "(", ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            name.add(parameterType.getTypeName());
+        }
+        return name.toString();
+    }
+
+    public Collection<Route> getRoutes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    /**
+     * @return les fenêtres glissantes publiées, en secondes
+     */
+    public List<Long> getWindows() {
+        return properties.getWindows();
+    }
+
+    public final class Route {
+
+        private final String name;
+
+        private final RollingLatencyHistogram histogram;
+
+        private Route(String name) {
+            this.name = name;
+            this.histogram = new RollingLatencyHistogram(highestTrackableMicros, properties.getSignificantDigits(),
+                    TimeUnit.SECONDS.toMillis(properties.getSlot()), slotCount);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public RollingLatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+}
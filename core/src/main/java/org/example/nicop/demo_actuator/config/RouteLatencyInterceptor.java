@@ -0,0 +1,42 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Mesure la durée de traitement de chaque requête par un contrôleur, de la résolution des arguments à l'écriture de la
+ * réponse, et l'enregistre dans {@link RouteLatencies}.
+ *
+ * Pour une requête asynchrone, le début est celui du premier dispatch et la fin celle du dispatch final.
+ */
+public class RouteLatencyInterceptor extends HandlerInterceptorAdapter {
+
+    private static final String START_ATTRIBUTE = RouteLatencyInterceptor.class.getName() + ".START";
+
+    private final RouteLatencies routeLatencies;
+
+    public RouteLatencyInterceptor(RouteLatencies routeLatencies) {
+        this.routeLatencies = routeLatencies;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (handler instanceof HandlerMethod && start != null) {
+            routeLatencies.record((HandlerMethod) handler, System.nanoTime() - (Long) start);
+            // un dispatch d'erreur qui suit mesure sa propre durée, sous sa propre route
+            request.removeAttribute(START_ATTRIBUTE);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.boot.actuate.trace.TraceProperties;
+import org.springframework.boot.actuate.trace.TraceRepository;
+import org.springframework.boot.actuate.trace.WebRequestTraceFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link WebRequestTraceFilter} n'enregistrant qu'une fraction des requêtes. Le tirage a lieu avant la construction de
+ * la trace : une requête écartée ne coûte ni copie d'en-têtes ni écriture dans le dépôt.
+ */
+public class SamplingWebRequestTraceFilter extends WebRequestTraceFilter {
+
+    private final double samplingRate;
+
+    /**
+     * @param samplingRate fraction des requêtes tracées, de 0 à 1
+     */
+    public SamplingWebRequestTraceFilter(TraceRepository repository, TraceProperties properties, double samplingRate) {
+        super(repository, properties);
+        this.samplingRate = samplingRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return samplingRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= samplingRate;
+    }
+}
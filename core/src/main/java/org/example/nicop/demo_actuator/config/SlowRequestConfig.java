@@ -0,0 +1,67 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nicop.demo_actuator.management.SlowRequestEndpoint;
+import org.example.nicop.demo_actuator.management.SlowRequestProperties;
+import org.example.nicop.demo_actuator.management.SlowRequestRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.web.WebMvcRegistrations;
+import org.springframework.boot.autoconfigure.web.WebMvcRegistrationsAdapter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Enregistrement des requêtes lentes du port principal avec leur décomposition par phase, publiées sous
+ * {@code /manage/slowrequests}.
+ *
+ * Les repères de {@link RequestTimeline} sont posés par un premier filtre, un filtre en entrée de la chaîne de sécurité
+ * et un en sortie (voir {@code SecurityConfig}), l'adaptateur des contrôleurs et {@link ResponseEnricher}.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "management.slow-requests.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(SlowRequestProperties.class)
+public class SlowRequestConfig {
+
+    @Bean
+    public SlowRequestRecorder slowRequestRecorder(SlowRequestProperties properties) {
+        log.info("Recording requests slower than {} ms, keeping the last {}",
+                properties.getThreshold(), properties.getCapacity());
+        return new SlowRequestRecorder(properties.getThreshold(), properties.getCapacity());
+    }
+
+    @Bean
+    public FilterRegistrationBean slowRequestFilter(SlowRequestRecorder slowRequestRecorder) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new SlowRequestFilter(slowRequestRecorder));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean securityStartMarkFilter() {
+        FilterRegistrationBean registration =
+                new FilterRegistrationBean(new TimelineMarkFilter(RequestTimeline.Mark.SECURITY_START));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public WebMvcRegistrations timedHandlerAdapterRegistrations() {
+        return new WebMvcRegistrationsAdapter() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new TimedRequestMappingHandlerAdapter();
+            }
+        };
+    }
+
+    @Bean
+    public SlowRequestEndpoint slowRequestEndpoint(SlowRequestRecorder slowRequestRecorder) {
+        return new SlowRequestEndpoint(slowRequestRecorder);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.management.SlowRequestRecorder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Premier filtre de la chaîne : ouvre la {@link RequestTimeline} de chaque requête et, la requête terminée, la transmet
+ * à {@link SlowRequestRecorder}. Une requête asynchrone est transmise à la fin de son traitement asynchrone.
+ */
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowRequestRecorder recorder;
+
+    public SlowRequestFilter(SlowRequestRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimeline timeline = new RequestTimeline();
+        request.setAttribute(RequestTimeline.ATTRIBUTE, timeline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, timeline));
+            } else {
+                timeline.mark(RequestTimeline.Mark.END);
+                recorder.record(request, response, timeline);
+            }
+        }
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+
+        private final HttpServletResponse response;
+
+        private final RequestTimeline timeline;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, RequestTimeline timeline) {
+            this.request = request;
+            this.response = response;
+            this.timeline = timeline;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            timeline.mark(RequestTimeline.Mark.END);
+            recorder.record(request, response, timeline);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.util.StreamingData;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Libère la source d'une réponse streamée une fois la réponse écrite, que le bloc {@code data} ait été sérialisé ou
+ * non (réponse partielle, erreur de conversion...).
+ */
+public class StreamingDataInterceptor extends HandlerInterceptorAdapter {
+
+    static final String STREAMING_DATA_ATTRIBUTE = StreamingDataInterceptor.class.getName() + ".STREAMING_DATA";
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object streamingData = request.getAttribute(STREAMING_DATA_ATTRIBUTE);
+        if (streamingData != null) {
+            request.removeAttribute(STREAMING_DATA_ATTRIBUTE);
+            ((StreamingData) streamingData).close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+
+/**
+ * Enveloppe un filtre pour mesurer son temps propre : la durée de son {@code doFilter} moins celle de la suite de la
+ * chaîne. Le motif de chemin n'est connu qu'au retour de la chaîne, une fois le contrôleur résolu.
+ */
+class TimedFilter implements Filter {
+
+    private final Filter delegate;
+
+    private final FilterTimings.FilterTiming timing;
+
+    TimedFilter(Filter delegate, FilterTimings.FilterTiming timing) {
+        this.delegate = delegate;
+        this.timing = timing;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        delegate.init(filterConfig);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        DownstreamChain downstream = new DownstreamChain(chain);
+        long start = System.nanoTime();
+        try {
+            delegate.doFilter(request, response, downstream);
+        } finally {
+            long elapsed = System.nanoTime() - start - downstream.nanos;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            timing.record(pattern != null ? pattern.toString() : FilterTimings.UNMATCHED, elapsed);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        delegate.destroy();
+    }
+
+    /**
+     * Suite de la chaîne, dont la durée est retranchée de celle du filtre.
+     */
+    private static final class DownstreamChain implements FilterChain {
+
+        private final FilterChain chain;
+
+        private long nanos;
+
+        private DownstreamChain(FilterChain chain) {
+            this.chain = chain;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+            long start = System.nanoTime();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
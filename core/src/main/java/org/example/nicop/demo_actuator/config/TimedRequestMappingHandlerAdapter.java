@@ -0,0 +1,75 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * {@link RequestMappingHandlerAdapter} posant les repères de la {@link RequestTimeline} autour de la résolution des
+ * arguments, de l'appel du contrôleur et du traitement complet, écriture de la réponse comprise, ainsi qu'à la reprise
+ * d'un traitement asynchrone.
+ */
+public class TimedRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    @Override
+    protected ModelAndView invokeHandlerMethod(HttpServletRequest request, HttpServletResponse response,
+                                               HandlerMethod handlerMethod) throws Exception {
+        if (WebAsyncUtils.getAsyncManager(request).hasConcurrentResult()) {
+            RequestTimeline.mark(request, RequestTimeline.Mark.ASYNC_RESUME);
+        }
+        try {
+            return super.invokeHandlerMethod(request, response, handlerMethod);
+        } finally {
+            RequestTimeline.mark(request, RequestTimeline.Mark.HANDLER_END);
+        }
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return new TimedInvocableHandlerMethod(handlerMethod);
+    }
+
+    /**
+     * Instancié pour chaque requête : la frise peut être conservée entre la résolution des arguments et l'appel.
+     */
+    private static final class TimedInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private RequestTimeline timeline;
+
+        private TimedInvocableHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer,
+                                       Object... providedArgs) throws Exception {
+            HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+            timeline = servletRequest != null ? RequestTimeline.of(servletRequest) : null;
+            if (timeline != null) {
+                timeline.setHandler(getMethod());
+                timeline.mark(RequestTimeline.Mark.ARGUMENTS_START);
+            }
+            return super.invokeForRequest(request, mavContainer, providedArgs);
+        }
+
+        @Override
+        protected Object doInvoke(Object... args) throws Exception {
+            if (timeline == null) {
+                return super.doInvoke(args);
+            }
+            timeline.mark(RequestTimeline.Mark.CONTROLLER_START);
+            try {
+                return super.doInvoke(args);
+            } finally {
+                timeline.mark(RequestTimeline.Mark.CONTROLLER_END);
+            }
+        }
+    }
+}
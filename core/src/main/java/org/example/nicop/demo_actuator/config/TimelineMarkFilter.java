@@ -0,0 +1,32 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+
+/**
+ * Pose un repère de la {@link RequestTimeline} au passage de la requête, par exemple en entrée et en sortie de la
+ * chaîne de sécurité. Seul le premier passage compte.
+ */
+public class TimelineMarkFilter extends GenericFilterBean {
+
+    private final RequestTimeline.Mark mark;
+
+    public TimelineMarkFilter(RequestTimeline.Mark mark) {
+        this.mark = mark;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        RequestTimeline timeline = RequestTimeline.of(request);
+        if (timeline != null) {
+            timeline.markFirst(mark);
+        }
+        chain.doFilter(request, response);
+    }
+}
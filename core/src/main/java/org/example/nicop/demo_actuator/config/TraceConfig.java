@@ -0,0 +1,49 @@
+package org.example.nicop.demo_actuator.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nicop.demo_actuator.management.RingBufferTraceRepository;
+import org.example.nicop.demo_actuator.management.TraceBufferProperties;
+import org.example.nicop.demo_actuator.management.TraceMvcEndpoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.TraceEndpoint;
+import org.springframework.boot.actuate.trace.TraceProperties;
+import org.springframework.boot.autoconfigure.web.ErrorAttributes;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Traces HTTP ({@code /manage/trace}) conservées dans un anneau sans verrou, échantillonnées et filtrables, à la place
+ * du dépôt en mémoire synchronisé de Spring Boot.
+ */
+@Configuration
+@Slf4j
+@EnableConfigurationProperties({TraceBufferProperties.class, TraceProperties.class})
+public class TraceConfig {
+
+    @Bean
+    public RingBufferTraceRepository traceRepository(TraceBufferProperties properties) {
+        return new RingBufferTraceRepository(properties.getCapacity());
+    }
+
+    /**
+     * Même nom de bean que le filtre de Spring Boot, qu'il remplace.
+     */
+    @Bean
+    public SamplingWebRequestTraceFilter webRequestLoggingFilter(RingBufferTraceRepository traceRepository,
+                                                                 TraceProperties traceProperties,
+                                                                 TraceBufferProperties properties,
+                                                                 ObjectProvider<ErrorAttributes> errorAttributes) {
+        log.info("Configuring HTTP traces for {} of requests, keeping the last {}",
+                properties.getSamplingRate(), properties.getCapacity());
+        SamplingWebRequestTraceFilter filter =
+                new SamplingWebRequestTraceFilter(traceRepository, traceProperties, properties.getSamplingRate());
+        filter.setErrorAttributes(errorAttributes.getIfAvailable());
+        return filter;
+    }
+
+    @Bean
+    public TraceMvcEndpoint traceMvcEndpoint(TraceEndpoint traceEndpoint, RingBufferTraceRepository traceRepository) {
+        return new TraceMvcEndpoint(traceEndpoint, traceRepository);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.nicop.demo_actuator.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Le générateur MessagePack ne tient pas à jour son contexte d'écriture : {@code getOutputContext()} reste à la racine,
+ * et la réponse partielle ({@link org.example.nicop.demo_actuator.util.FieldProjection}), qui s'appuie sur ce contexte
+ * pour situer chaque propriété, ne filtrerait rien. Cette fabrique enveloppe le générateur pour suivre les objets,
+ * tableaux et noms de champs ouverts.
+ */
+class TrackingMessagePackFactory extends MessagePackFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public JsonGenerator createGenerator(OutputStream out, JsonEncoding enc) throws IOException {
+        return new TrackingGenerator(super.createGenerator(out, enc));
+    }
+
+    @Override
+    public JsonFactory copy() {
+        return new TrackingMessagePackFactory();
+    }
+
+    private static final class TrackingGenerator extends JsonGeneratorDelegate {
+
+        private Context context = new Context(null, Context.ROOT);
+
+        TrackingGenerator(JsonGenerator delegate) {
+            // les writeObject/writeTree repassent par ce générateur, et non par le générateur enveloppé
+            super(delegate, false);
+        }
+
+        @Override
+        public JsonStreamContext getOutputContext() {
+            return context;
+        }
+
+        @Override
+        public void writeStartObject() throws IOException {
+            super.writeStartObject();
+            context = new Context(context, Context.OBJECT);
+        }
+
+        @Override
+        public void writeStartObject(Object forValue) throws IOException {
+            super.writeStartObject(forValue);
+            context = new Context(context, Context.OBJECT);
+        }
+
+        @Override
+        public void writeStartArray() throws IOException {
+            super.writeStartArray();
+            context = new Context(context, Context.ARRAY);
+        }
+
+        @Override
+        public void writeStartArray(int size) throws IOException {
+            super.writeStartArray(size);
+            context = new Context(context, Context.ARRAY);
+        }
+
+        @Override
+        public void writeEndObject() throws IOException {
+            super.writeEndObject();
+            context = context.parent;
+        }
+
+        @Override
+        public void writeEndArray() throws IOException {
+            super.writeEndArray();
+            context = context.parent;
+        }
+
+        @Override
+        public void writeFieldName(String name) throws IOException {
+            super.writeFieldName(name);
+            context.currentName = name;
+        }
+
+        @Override
+        public void writeFieldName(SerializableString name) throws IOException {
+            super.writeFieldName(name);
+            context.currentName = name.getValue();
+        }
+    }
+
+    private static final class Context extends JsonStreamContext {
+
+        static final int ROOT = TYPE_ROOT;
+        static final int OBJECT = TYPE_OBJECT;
+        static final int ARRAY = TYPE_ARRAY;
+
+        private final Context parent;
+
+        private String currentName;
+
+        Context(Context parent, int type) {
+            this.parent = parent;
+            this._type = type;
+            this._index = -1;
+        }
+
+        @Override
+        public Context getParent() {
+            return parent;
+        }
+
+        @Override
+        public String getCurrentName() {
+            return currentName;
+        }
+    }
+}
@@ -1,20 +1,71 @@
 package org.example.nicop.demo_actuator.config;
 
+import com.fasterxml.jackson.databind.Module;
+import org.example.nicop.demo_actuator.management.CompressionMetrics;
+import org.example.nicop.demo_actuator.management.LatencyEndpoint;
+import org.example.nicop.demo_actuator.util.CursorCodec;
+import org.example.nicop.demo_actuator.util.CursorHandlerMethodArgumentResolver;
+import org.example.nicop.demo_actuator.util.FieldProjection;
+import org.example.nicop.demo_actuator.util.FieldProjectionModule;
 import org.example.nicop.demo_actuator.util.PageHandlerMethodArgumentResolver;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 @Configuration
 @Slf4j
+@EnableConfigurationProperties({CompressionProperties.class, AsyncProperties.class, LatencyProperties.class})
 public class WebConfig extends WebMvcConfigurerAdapter {
 
+    /**
+     * Clé de signature des curseurs de pagination, commune à toutes les instances. Sans clé, une clé aléatoire est
+     * générée au démarrage : les curseurs ne sont alors valides que sur l'instance qui les a émis.
+     */
+    @Value("${pagination.cursor.secret:}")
+    private String cursorSecret;
+
+    private final AsyncProperties asyncProperties;
+
+    private final LatencyProperties latencyProperties;
+
+    /**
+     * Présent quand la mesure des latences est activée : l'intercepteur n'alimente que des routes publiées.
+     */
+    private final ObjectProvider<LatencyEndpoint> latencyEndpointProvider;
+
+    /**
+     * Présent quand la mesure par méthode de contrôleur est activée, voir {@link #routeCosts()}.
+     */
+    private final ObjectProvider<RouteCosts> routeCostsProvider;
+
+    public WebConfig(AsyncProperties asyncProperties, LatencyProperties latencyProperties,
+                     ObjectProvider<LatencyEndpoint> latencyEndpointProvider,
+                     ObjectProvider<RouteCosts> routeCostsProvider) {
+        this.asyncProperties = asyncProperties;
+        this.latencyProperties = latencyProperties;
+        this.latencyEndpointProvider = latencyEndpointProvider;
+        this.routeCostsProvider = routeCostsProvider;
+    }
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
         log.info("Configuring default argument resolver for page and size");
@@ -23,6 +74,19 @@ public class WebConfig extends WebMvcConfigurerAdapter {
         pageResolver.setFallbackPageable(new PageRequest(0, 25));
 
         argumentResolvers.add(pageResolver);
+
+        log.info("Configuring cursor argument resolver for cursor, size and sort");
+        CursorHandlerMethodArgumentResolver cursorResolver = new CursorHandlerMethodArgumentResolver(cursorCodec(), null);
+        cursorResolver.setDefaultSize(25);
+        argumentResolvers.add(cursorResolver);
+    }
+
+    private CursorCodec cursorCodec() {
+        if(cursorSecret.isEmpty()) {
+            log.warn("No pagination.cursor.secret configured, cursors will only be valid on this instance until restart");
+            return CursorCodec.withGeneratedSecret();
+        }
+        return new CursorCodec(cursorSecret.getBytes(UTF_8));
     }
 
     @Override
@@ -30,4 +94,101 @@ public class WebConfig extends WebMvcConfigurerAdapter {
         log.info("Configuring default content type negotiation to JSON");
         configurer.defaultContentType(MediaType.APPLICATION_JSON);
     }
+
+    /**
+     * Affecte le filtre de réponse partielle à l'enveloppe. Sans projection demandée, le fournisseur de filtres par
+     * défaut de l'ObjectMapper ne retourne aucun filtre : l'enveloppe est sérialisée comme tout autre bean.
+     */
+    @Bean
+    public Module fieldProjectionModule() {
+        return new FieldProjectionModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldProjectionDefaultFilter() {
+        return builder -> builder.filters(FieldProjection.NONE);
+    }
+
+    /**
+     * Les {@code Callable} s'exécutent sur un pool dédié borné, et non plus sur un thread créé par requête ; le délai
+     * s'applique à tous les types de retour asynchrones.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        log.info("Configuring async request processing with a {} ms timeout", asyncProperties.getTimeout());
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        configurer.setDefaultTimeout(asyncProperties.getTimeout());
+    }
+
+    /**
+     * Pool des traitements asynchrones, également utilisable par les contrôleurs pour leurs {@code CompletableFuture}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncProperties.getCorePoolSize());
+        executor.setMaxPoolSize(asyncProperties.getMaxPoolSize());
+        executor.setQueueCapacity(asyncProperties.getQueueCapacity());
+        executor.setThreadNamePrefix(asyncProperties.getThreadNamePrefix());
+        return executor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CompressedCacheableInterceptor());
+        registry.addInterceptor(new StreamingDataInterceptor());
+        if (latencyEndpointProvider.getIfAvailable() != null) {
+            log.info("Configuring latency histograms per handler method over {} s windows", latencyProperties.getWindows());
+            registry.addInterceptor(new RouteLatencyInterceptor(routeLatencies()));
+        }
+        RouteCosts costs = routeCostsProvider.getIfAvailable();
+        if (costs != null) {
+            if (RouteCosts.isSupported()) {
+                log.info("Configuring allocation and CPU accounting per handler method");
+                registry.addInterceptor(new RouteCostInterceptor(costs));
+            } else {
+                log.warn("This JVM does not measure per-thread allocations and CPU time, route costs are disabled");
+            }
+        }
+    }
+
+    @Bean
+    public RouteLatencies routeLatencies() {
+        return new RouteLatencies(latencyProperties);
+    }
+
+    /**
+     * Mesure des octets alloués et du temps CPU par méthode de contrôleur, à activer le temps d'une analyse.
+     */
+    @Bean
+    @ConditionalOnProperty(RouteCosts.ENABLED_PROPERTY)
+    public RouteCosts routeCosts() {
+        return new RouteCosts();
+    }
+
+    /**
+     * Le calcul de l'ETag s'exécute à l'intérieur de la compression, qui s'appuie sur l'ETag pour son cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "http.etag.enabled", matchIfMissing = true)
+    public FilterRegistrationBean etagFilter() {
+        log.info("Configuring ETag computation for GET responses");
+        FilterRegistrationBean registration = new FilterRegistrationBean(new EtagFilter());
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public CompressionMetrics compressionMetrics() {
+        return new CompressionMetrics();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.compression.enabled", matchIfMissing = true)
+    public FilterRegistrationBean compressionFilter(CompressionProperties properties, CompressionMetrics compressionMetrics) {
+        log.info("Configuring gzip/deflate response compression above {} bytes", properties.getMinResponseSize());
+        FilterRegistrationBean registration = new FilterRegistrationBean(new CompressionFilter(properties, compressionMetrics));
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
 }
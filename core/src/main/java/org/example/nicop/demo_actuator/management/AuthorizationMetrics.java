@@ -0,0 +1,70 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques des autorisations {@code @PreAuthorize}, publiées sous {@code /manage/metrics} : nombre et durée des
+ * évaluations par méthode ({@code security.authorization.<Classe>.<méthode>.*}), et part des décisions prises sans SpEL.
+ */
+public class AuthorizationMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "security.authorization.";
+
+    private final ConcurrentMap<String, Timing> timings = new ConcurrentHashMap<>();
+
+    private final LongAdder directDecisions = new LongAdder();
+    private final LongAdder expressionDecisions = new LongAdder();
+
+    /**
+     * @param method nom de la méthode protégée, {@code Classe.méthode}
+     * @param nanos durée de l'évaluation
+     */
+    public void evaluated(String method, long nanos) {
+        Timing timing = timings.get(method);
+        if (timing == null) {
+            timing = timings.computeIfAbsent(method, key -> new Timing());
+        }
+        timing.count.increment();
+        timing.nanos.add(nanos);
+        timing.max.accumulate(nanos);
+    }
+
+    public void directDecision() {
+        directDecisions.increment();
+    }
+
+    public void expressionDecision() {
+        expressionDecisions.increment();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(PREFIX + "decisions.direct", directDecisions.sum()));
+        metrics.add(new Metric<>(PREFIX + "decisions.expression", expressionDecisions.sum()));
+        for (Map.Entry<String, Timing> entry : timings.entrySet()) {
+            Timing timing = entry.getValue();
+            long count = timing.count.sum();
+            metrics.add(new Metric<>(PREFIX + entry.getKey() + ".count", count));
+            metrics.add(new Metric<>(PREFIX + entry.getKey() + ".mean.us", count == 0 ? 0.0 : timing.nanos.sum() / 1000.0 / count));
+            metrics.add(new Metric<>(PREFIX + entry.getKey() + ".max.us", timing.max.get() / 1000.0));
+        }
+        return metrics;
+    }
+
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exécute les indicateurs de santé en tâche de fond et conserve leur dernier résultat.
+ *
+ * Chaque indicateur est vérifié selon son propre intervalle et avec son propre délai, sur un pool borné partagé : les indicateurs s'exécutent
+ * en parallèle et un indicateur lent ne retarde pas les autres. Une vérification qui dépasse le délai est publiée
+ * {@code DOWN} et interrompue ; tant qu'elle n'est pas terminée, l'indicateur n'est pas relancé, ce qui borne le nombre
+ * de threads occupés par une dépendance bloquée. Chaque résultat porte le numéro de la vérification qui l'a produit et
+ * seul le premier publié pour une vérification est retenu : le {@code DOWN} du délai dépassé ne remplace pas un résultat
+ * arrivé à temps, et le résultat d'une vérification interrompue ne remplace pas ce {@code DOWN}.
+ *
+ * Les indicateurs publiés par {@link #getIndicators()} renvoient le dernier résultat sans rien exécuter, complété de
+ * son ancienneté ({@code staleness_ms}) et de la durée de la vérification ({@code last_check_duration_ms}).
+ */
+@Slf4j
+public class BackgroundHealthIndicators implements Closeable {
+
+    private static final String HEALTH_INDICATOR_SUFFIX = "HealthIndicator";
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService workers;
+
+    private final Map<String, HealthIndicator> indicators = new LinkedHashMap<>();
+
+    /**
+     * @param delegates indicateurs par nom de bean
+     */
+    public BackgroundHealthIndicators(Map<String, HealthIndicator> delegates, BackgroundHealthProperties properties) {
+        CustomizableThreadFactory schedulerThreads = new CustomizableThreadFactory("health-scheduler-");
+        schedulerThreads.setDaemon(true);
+        CustomizableThreadFactory workerThreads = new CustomizableThreadFactory("health-check-");
+        workerThreads.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(schedulerThreads);
+        this.workers = Executors.newFixedThreadPool(properties.getThreads(), workerThreads);
+
+        for (Map.Entry<String, HealthIndicator> entry : delegates.entrySet()) {
+            String name = indicatorName(entry.getKey());
+            long interval = properties.getIntervals().getOrDefault(name, properties.getInterval());
+            long timeout = properties.getTimeouts().getOrDefault(name, properties.getTimeout());
+            BackgroundIndicator indicator = new BackgroundIndicator(name, entry.getValue(), timeout);
+            indicators.put(entry.getKey(), indicator);
+            scheduler.scheduleWithFixedDelay(indicator::refresh, 0, interval, TimeUnit.MILLISECONDS);
+            log.info("Checking health indicator {} every {} ms in background, timeout {} ms", name, interval, timeout);
+        }
+    }
+
+    /**
+     * Même nommage que {@code HealthEndpoint} : nom du bean sans le suffixe {@code HealthIndicator}.
+     */
+    private static String indicatorName(String beanName) {
+        int index = beanName.toLowerCase(Locale.ROOT).indexOf(HEALTH_INDICATOR_SUFFIX.toLowerCase(Locale.ROOT));
+        return index > 0 ? beanName.substring(0, index) : beanName;
+    }
+
+    /**
+     * @return les indicateurs servant le dernier résultat, par nom de bean
+     */
+    public Map<String, HealthIndicator> getIndicators() {
+        return Collections.unmodifiableMap(indicators);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static final class Snapshot {
+
+        /**
+         * Numéro de la vérification, 0 avant la première.
+         */
+        private final long generation;
+
+        private final Health health;
+
+        private final long checkedAt;
+
+        private final long durationNanos;
+
+        private Snapshot(long generation, Health health, long checkedAt, long durationNanos) {
+            this.generation = generation;
+            this.health = health;
+            this.checkedAt = checkedAt;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    private final class BackgroundIndicator implements HealthIndicator {
+
+        private final String name;
+
+        private final HealthIndicator delegate;
+
+        private final long timeout;
+
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        private final AtomicLong generations = new AtomicLong();
+
+        private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(
+                new Snapshot(0, Health.unknown().withDetail("error", "Not checked yet").build(), -1, 0));
+
+        private BackgroundIndicator(String name, HealthIndicator delegate, long timeout) {
+            this.name = name;
+            this.delegate = delegate;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public Health health() {
+            Snapshot current = snapshot.get();
+            Health.Builder builder = Health.status(current.health.getStatus());
+            for (Map.Entry<String, Object> detail : current.health.getDetails().entrySet()) {
+                builder.withDetail(detail.getKey(), detail.getValue());
+            }
+            if (current.checkedAt >= 0) {
+                builder.withDetail("staleness_ms", System.currentTimeMillis() - current.checkedAt)
+                        .withDetail("last_check_duration_ms", TimeUnit.NANOSECONDS.toMillis(current.durationNanos));
+            }
+            return builder.build();
+        }
+
+        /**
+         * Lance une vérification, sauf si la précédente est toujours en cours.
+         */
+        void refresh() {
+            if (!running.compareAndSet(false, true)) {
+                log.debug("Health indicator {} is still being checked, skipping", name);
+                return;
+            }
+            long generation = generations.incrementAndGet();
+            AtomicBoolean started = new AtomicBoolean();
+            long start = System.nanoTime();
+            Future<?> check = workers.submit(() -> {
+                started.set(true);
+                try {
+                    publish(generation, delegate.health(), start);
+                } catch (Exception e) {
+                    publish(generation, Health.down(e).build(), start);
+                } finally {
+                    running.set(false);
+                }
+            });
+            scheduler.schedule(() -> {
+                Health timedOut = Health.down().withDetail("error", "Timed out after " + timeout + " ms").build();
+                if (!publish(generation, timedOut, start)) {
+                    // la vérification a publié son résultat
+                    return;
+                }
+                log.warn("Health indicator {} did not answer within {} ms", name, timeout);
+                // une vérification annulée avant d'avoir démarré ne libérera jamais l'indicateur
+                if (check.cancel(true) && !started.get()) {
+                    running.set(false);
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Publie un résultat de la vérification {@code generation}, sauf si elle ou une plus récente en a déjà publié un.
+         *
+         * @return {@literal true} si le résultat a été publié
+         */
+        private boolean publish(long generation, Health health, long start) {
+            Snapshot next = new Snapshot(generation, health, System.currentTimeMillis(), System.nanoTime() - start);
+            while (true) {
+                Snapshot current = snapshot.get();
+                if (current.generation >= generation) {
+                    return false;
+                }
+                if (snapshot.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
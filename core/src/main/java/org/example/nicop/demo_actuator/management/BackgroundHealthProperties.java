@@ -0,0 +1,44 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Paramétrage du rafraîchissement en tâche de fond des indicateurs de santé, voir {@link BackgroundHealthIndicators}.
+ */
+@Data
+@ConfigurationProperties(prefix = "management.health.background")
+public class BackgroundHealthProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Intervalle, en millisecondes, entre deux vérifications d'un même indicateur.
+     */
+    private long interval = 10000;
+
+    /**
+     * Délai par indicateur, en millisecondes, remplaçant {@code interval} ; la clé est le nom de l'indicateur tel
+     * qu'affiché par {@code /manage/health} (par exemple {@code customIndicator}, {@code diskSpace}).
+     */
+    private Map<String, Long> intervals = new HashMap<>();
+
+    /**
+     * Durée maximale, en millisecondes, d'une vérification ; au-delà, l'indicateur est publié {@code DOWN}.
+     */
+    private long timeout = 2000;
+
+    /**
+     * Délai maximal par indicateur, en millisecondes, remplaçant {@code timeout} ; les clés sont celles de
+     * {@code intervals}.
+     */
+    private Map<String, Long> timeouts = new HashMap<>();
+
+    /**
+     * Nombre de vérifications exécutées en parallèle.
+     */
+    private int threads = 4;
+}
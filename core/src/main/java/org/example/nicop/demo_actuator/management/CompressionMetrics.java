@@ -0,0 +1,60 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques de compression des réponses, publiées sous {@code /manage/metrics}.
+ */
+public class CompressionMetrics implements PublicMetrics {
+
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /**
+     * Enregistre une réponse compressée.
+     *
+     * @param uncompressed taille du corps avant compression
+     * @param compressed taille du corps compressé
+     * @param nanos temps passé dans le compresseur
+     */
+    public void compressed(long uncompressed, long compressed, long nanos) {
+        responses.increment();
+        bytesIn.add(uncompressed);
+        bytesOut.add(compressed);
+        compressionNanos.add(nanos);
+    }
+
+    public void cacheHit() {
+        cacheHits.increment();
+    }
+
+    public void cacheMiss() {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        long in = bytesIn.sum();
+        long out = bytesOut.sum();
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("compression.responses", responses.sum()));
+        metrics.add(new Metric<>("compression.bytes.in", in));
+        metrics.add(new Metric<>("compression.bytes.out", out));
+        metrics.add(new Metric<>("compression.ratio", out == 0 ? 0.0 : (double) in / out));
+        metrics.add(new Metric<>("compression.time.ms", TimeUnit.NANOSECONDS.toMillis(compressionNanos.sum())));
+        metrics.add(new Metric<>("compression.cache.hits", cacheHits.sum()));
+        metrics.add(new Metric<>("compression.cache.misses", cacheMisses.sum()));
+        return metrics;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques des requêtes CORS de pré-vérification ({@code OPTIONS}) traitées hors de la chaîne de sécurité, publiées
+ * sous {@code /manage/metrics}.
+ */
+public class CorsMetrics implements PublicMetrics {
+
+    private final LongAdder preflights = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+    private final LongAdder preflightNanos = new LongAdder();
+    private final LongAccumulator preflightMaxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Enregistre une pré-vérification traitée.
+     *
+     * @param accepted {@literal false} si l'origine, la méthode ou les en-têtes demandés ont été refusés
+     * @param nanos temps de traitement
+     */
+    public void preflight(boolean accepted, long nanos) {
+        preflights.increment();
+        if (!accepted) {
+            rejected.increment();
+        }
+        preflightNanos.add(nanos);
+        preflightMaxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Enregistre une pré-vérification sans configuration CORS pour son chemin, laissée à la chaîne de filtres.
+     */
+    public void unmatched() {
+        unmatched.increment();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        long count = preflights.sum();
+        long nanos = preflightNanos.sum();
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("cors.preflight.count", count));
+        metrics.add(new Metric<>("cors.preflight.rejected", rejected.sum()));
+        metrics.add(new Metric<>("cors.preflight.unmatched", unmatched.sum()));
+        metrics.add(new Metric<>("cors.preflight.time.ms", TimeUnit.NANOSECONDS.toMillis(nanos)));
+        metrics.add(new Metric<>("cors.preflight.mean.us", count == 0 ? 0.0 : nanos / 1000.0 / count));
+        metrics.add(new Metric<>("cors.preflight.max.us", preflightMaxNanos.get() / 1000.0));
+        return metrics;
+    }
+}
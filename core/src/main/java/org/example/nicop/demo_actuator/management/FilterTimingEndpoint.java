@@ -0,0 +1,57 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.config.FilterTimings;
+import org.example.nicop.demo_actuator.util.LatencyHistogram;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Temps propre de chaque filtre, publié sous {@code /manage/filtertimings} : par chaîne, par filtre, puis par motif de
+ * chemin, en microsecondes. Vide tant que {@code http.filter-timing.enabled} n'est pas activé.
+ */
+@Component
+public class FilterTimingEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private final FilterTimings filterTimings;
+
+    public FilterTimingEndpoint(FilterTimings filterTimings) {
+        super("filtertimings");
+        this.filterTimings = filterTimings;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", filterTimings.isEnabled());
+        for (Map.Entry<String, ? extends Map<String, FilterTimings.FilterTiming>> chain : filterTimings.getChains().entrySet()) {
+            Map<String, Object> filters = new TreeMap<>();
+            for (Map.Entry<String, FilterTimings.FilterTiming> filter : chain.getValue().entrySet()) {
+                Map<String, Object> patterns = new TreeMap<>();
+                for (Map.Entry<String, LatencyHistogram> pattern : filter.getValue().getPatterns().entrySet()) {
+                    patterns.put(pattern.getKey(), describe(pattern.getValue()));
+                }
+                Map<String, Object> description = describe(filter.getValue().getAll());
+                description.put("patterns", patterns);
+                filters.put(filter.getKey(), description);
+            }
+            result.put(chain.getKey(), filters);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> describe(LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("count", snapshot.getCount());
+        description.put("mean_us", snapshot.getMean() / 1000.0);
+        description.put("p50_us", snapshot.getValueAtPercentile(50) / 1000.0);
+        description.put("p90_us", snapshot.getValueAtPercentile(90) / 1000.0);
+        description.put("p99_us", snapshot.getValueAtPercentile(99) / 1000.0);
+        description.put("max_us", snapshot.getMax() / 1000.0);
+        return description;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramétrage des MBeans d'instantanés lus par Jolokia, voir {@link JmxSnapshots}.
+ */
+@Data
+@ConfigurationProperties(prefix = "management.jmx.snapshot")
+public class JmxSnapshotProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Intervalle, en millisecondes, entre deux rafraîchissements des instantanés.
+     */
+    private long interval = 1000;
+
+    /**
+     * Domaine JMX des MBeans publiés.
+     */
+    private String domain = "org.example.nicop.demo_actuator";
+}
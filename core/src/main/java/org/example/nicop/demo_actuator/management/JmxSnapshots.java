@@ -0,0 +1,212 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nicop.demo_actuator.config.RouteLatencies;
+import org.example.nicop.demo_actuator.util.LatencyHistogram;
+import org.springframework.jmx.export.MBeanExportOperations;
+import org.springframework.jmx.support.JmxUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * MBeans d'instantanés agrégés, rafraîchis à intervalle fixe par un thread dédié, pour que les lectures Jolokia
+ * répétées ne parcourent ni les MBeans du conteneur ni ceux de la JVM :
+ * <ul>
+ * <li>{@code type=Snapshot,name=Requests} : requêtes traitées par les contrôleurs, depuis le démarrage et sur la plus
+ * courte fenêtre glissante de {@code management.latency.windows} ;</li>
+ * <li>{@code type=Snapshot,name=Pools} : occupation des pools de threads ({@code tomcat-8180.Active},
+ * {@code mvcAsyncExecutor.Queued}...) ;</li>
+ * <li>{@code type=Snapshot,name=Jvm} : mémoire, pools mémoire, ramasse-miettes et threads.</li>
+ * </ul>
+ * Chaque MBean porte l'heure de son instantané ({@code SnapshotTime}, en millisecondes depuis l'époque). Jolokia lit
+ * les attributs un par un : une même réponse peut mêler deux instantanés successifs d'un MBean, voir
+ * {@link SnapshotMBean}.
+ *
+ * Les MBeans sont exportés par l'{@code MBeanExporter} du contexte : comme ceux de Spring Boot, ils suivent
+ * {@code spring.jmx.unique-names}, qui ajoute aux noms l'identité de l'instance quand plusieurs contextes partagent le
+ * serveur MBean.
+ */
+@Slf4j
+public class JmxSnapshots implements Closeable {
+
+    private final MBeanExportOperations exporter;
+
+    private final boolean uniqueNames;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final RouteLatencies routeLatencies;
+
+    private final Map<String, Supplier<ThreadPoolExecutor>> pools = new ConcurrentSkipListMap<>();
+
+    private final List<ObjectName> objectNames = new ArrayList<>();
+
+    private final SnapshotMBean requests = new SnapshotMBean("Requests handled by controllers");
+
+    private final SnapshotMBean poolUsage = new SnapshotMBean("Thread pool usage");
+
+    private final SnapshotMBean jvm = new SnapshotMBean("JVM memory, garbage collection and threads");
+
+    /**
+     * @param uniqueNames valeur de {@code spring.jmx.unique-names}
+     */
+    public JmxSnapshots(MBeanExportOperations exporter, boolean uniqueNames, JmxSnapshotProperties properties,
+                        RouteLatencies routeLatencies) {
+        this.exporter = exporter;
+        this.uniqueNames = uniqueNames;
+        this.routeLatencies = routeLatencies;
+        register(properties.getDomain(), "Requests", requests);
+        register(properties.getDomain(), "Pools", poolUsage);
+        register(properties.getDomain(), "Jvm", jvm);
+
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("jmx-snapshot-");
+        threads.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threads);
+        scheduler.scheduleAtFixedRate(this::refresh, 0, properties.getInterval(), TimeUnit.MILLISECONDS);
+        log.info("Publishing JMX snapshots under {} every {} ms", properties.getDomain(), properties.getInterval());
+    }
+
+    private void register(String domain, String name, SnapshotMBean mbean) {
+        ObjectName objectName;
+        try {
+            objectName = new ObjectName(domain + ":type=Snapshot,name=" + name);
+            if (uniqueNames) {
+                objectName = JmxUtils.appendIdentityToObjectName(objectName, mbean);
+            }
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException("Invalid JMX domain " + domain, e);
+        }
+        exporter.registerManagedResource(mbean, objectName);
+        objectNames.add(objectName);
+    }
+
+    /**
+     * Ajoute un pool de threads à l'instantané {@code Pools}.
+     *
+     * @param executor lu à chaque rafraîchissement, pour les pools initialisés après leur déclaration
+     */
+    public void addPool(String name, Supplier<ThreadPoolExecutor> executor) {
+        pools.put(name, executor);
+    }
+
+    void refresh() {
+        long now = System.currentTimeMillis();
+        try {
+            requests.update(requestAttributes(now));
+            poolUsage.update(poolAttributes(now));
+            jvm.update(jvmAttributes(now));
+        } catch (RuntimeException e) {
+            // une exception arrêterait les rafraîchissements suivants
+            log.warn("Cannot refresh JMX snapshots", e);
+        }
+    }
+
+    private Map<String, Object> requestAttributes(long now) {
+        long window = routeLatencies.getWindows().stream().mapToLong(Long::longValue).min().orElse(0);
+        LatencyHistogram.Snapshot all = null;
+        LatencyHistogram.Snapshot recent = null;
+        for (RouteLatencies.Route route : routeLatencies.getRoutes()) {
+            LatencyHistogram.Snapshot routeAll = route.getHistogram().snapshot();
+            LatencyHistogram.Snapshot routeRecent =
+                    window > 0 ? route.getHistogram().snapshot(TimeUnit.SECONDS.toMillis(window)) : routeAll;
+            all = all == null ? routeAll : all.merge(routeAll);
+            recent = recent == null ? routeRecent : recent.merge(routeRecent);
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("SnapshotTime", now);
+        attributes.put("Count", all == null ? 0L : all.getCount());
+        attributes.put("MeanMs", all == null ? 0.0 : all.getMean() / 1000.0);
+        attributes.put("WindowSeconds", window);
+        attributes.put("WindowCount", recent == null ? 0L : recent.getCount());
+        attributes.put("WindowMeanMs", recent == null ? 0.0 : recent.getMean() / 1000.0);
+        attributes.put("WindowP50Ms", recent == null ? 0.0 : recent.getValueAtPercentile(50) / 1000.0);
+        attributes.put("WindowP99Ms", recent == null ? 0.0 : recent.getValueAtPercentile(99) / 1000.0);
+        attributes.put("WindowMaxMs", recent == null ? 0.0 : recent.getMax() / 1000.0);
+        return attributes;
+    }
+
+    private Map<String, Object> poolAttributes(long now) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("SnapshotTime", now);
+        for (Map.Entry<String, Supplier<ThreadPoolExecutor>> pool : pools.entrySet()) {
+            ThreadPoolExecutor executor;
+            try {
+                executor = pool.getValue().get();
+            } catch (IllegalStateException e) {
+                // pool pas encore initialisé
+                continue;
+            }
+            String prefix = pool.getKey() + ".";
+            attributes.put(prefix + "Active", executor.getActiveCount());
+            attributes.put(prefix + "Size", executor.getPoolSize());
+            attributes.put(prefix + "Max", executor.getMaximumPoolSize());
+            attributes.put(prefix + "Queued", executor.getQueue().size());
+            attributes.put(prefix + "Completed", executor.getCompletedTaskCount());
+        }
+        return attributes;
+    }
+
+    private static Map<String, Object> jvmAttributes(long now) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("SnapshotTime", now);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        putUsage(attributes, "Heap.", memory.getHeapMemoryUsage());
+        putUsage(attributes, "NonHeap.", memory.getNonHeapMemoryUsage());
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getUsage();
+            if (usage != null) {
+                putUsage(attributes, "MemoryPool." + compact(pool.getName()) + ".", usage);
+            }
+        }
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String prefix = "Gc." + compact(collector.getName()) + ".";
+            attributes.put(prefix + "Count", collector.getCollectionCount());
+            attributes.put(prefix + "TimeMs", collector.getCollectionTime());
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        attributes.put("Threads.Live", threads.getThreadCount());
+        attributes.put("Threads.Daemon", threads.getDaemonThreadCount());
+        attributes.put("Threads.Peak", threads.getPeakThreadCount());
+        return attributes;
+    }
+
+    private static void putUsage(Map<String, Object> attributes, String prefix, MemoryUsage usage) {
+        attributes.put(prefix + "Used", usage.getUsed());
+        attributes.put(prefix + "Committed", usage.getCommitted());
+        attributes.put(prefix + "Max", usage.getMax());
+    }
+
+    /**
+     * {@code PS Eden Space} devient {@code PSEdenSpace}.
+     */
+    private static String compact(String name) {
+        return name.replace(" ", "");
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (ObjectName objectName : objectNames) {
+            exporter.unregisterManagedResource(objectName);
+        }
+    }
+}
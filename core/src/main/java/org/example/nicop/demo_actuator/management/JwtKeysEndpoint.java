@@ -0,0 +1,41 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.security.authentication.JwtKeySet;
+import org.example.nicop.demo_actuator.security.authentication.JwtKeySource;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clés de vérification JWT en service, publiées sous {@code /manage/jwtkeys} : identifiant, algorithme imposé, origine
+ * et date de chargement. Aucune donnée de clé n'est exposée.
+ */
+@Component
+public class JwtKeysEndpoint extends AbstractEndpoint<List<Map<String, Object>>> {
+
+    private final JwtKeySource keySource;
+
+    public JwtKeysEndpoint(JwtKeySource keySource) {
+        super("jwtkeys");
+        this.keySource = keySource;
+    }
+
+    @Override
+    public List<Map<String, Object>> invoke() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (JwtKeySet.Key key : keySource.getKeySet().getKeys()) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("kid", key.getId());
+            description.put("alg", key.getAlgorithm() != null ? key.getAlgorithm().getName() : null);
+            description.put("source", key.getSource());
+            description.put("loaded_at", Instant.ofEpochMilli(key.getLoadedAt()).toString());
+            keys.add(description);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Métriques d'authentification JWT, publiées sous {@code /manage/metrics} : efficacité du cache de jetons vérifiés et
+ * coût des vérifications de signature.
+ */
+public class JwtMetrics implements PublicMetrics {
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+
+    private volatile IntSupplier cacheSize = () -> 0;
+
+    public void cacheHit() {
+        cacheHits.increment();
+    }
+
+    public void cacheMiss() {
+        cacheMisses.increment();
+    }
+
+    /**
+     * Enregistre une vérification complète d'un jeton (signature et claims).
+     *
+     * @param nanos durée de la vérification
+     * @param success {@literal false} si le jeton a été rejeté
+     */
+    public void verified(long nanos, boolean success) {
+        verifications.increment();
+        verificationNanos.add(nanos);
+        if (!success) {
+            failures.increment();
+        }
+    }
+
+    public void setCacheSize(IntSupplier cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        long hits = cacheHits.sum();
+        long lookups = hits + cacheMisses.sum();
+        long count = verifications.sum();
+        long nanos = verificationNanos.sum();
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("jwt.cache.hits", hits));
+        metrics.add(new Metric<>("jwt.cache.misses", lookups - hits));
+        metrics.add(new Metric<>("jwt.cache.hit.ratio", lookups == 0 ? 0.0 : (double) hits / lookups));
+        metrics.add(new Metric<>("jwt.cache.size", cacheSize.getAsInt()));
+        metrics.add(new Metric<>("jwt.verifications", count));
+        metrics.add(new Metric<>("jwt.verifications.failed", failures.sum()));
+        metrics.add(new Metric<>("jwt.verification.time.ms", TimeUnit.NANOSECONDS.toMillis(nanos)));
+        metrics.add(new Metric<>("jwt.verification.mean.us", count == 0 ? 0.0 : nanos / 1000.0 / count));
+        return metrics;
+    }
+}
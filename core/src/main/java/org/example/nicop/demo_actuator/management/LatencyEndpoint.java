@@ -0,0 +1,59 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.config.RouteLatencies;
+import org.example.nicop.demo_actuator.util.LatencyHistogram;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latences par méthode de contrôleur, publiées sous {@code /manage/latency} : centiles depuis le démarrage
+ * ({@code all}) et sur chaque fenêtre glissante ({@code 1m}, {@code 5m}...), en millisecondes. Absent quand la mesure
+ * est désactivée, voir {@link org.example.nicop.demo_actuator.config.LatencyProperties}.
+ */
+@Component
+@ConditionalOnProperty(name = "management.latency.enabled", matchIfMissing = true)
+public class LatencyEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private final RouteLatencies routeLatencies;
+
+    public LatencyEndpoint(RouteLatencies routeLatencies) {
+        super("latency");
+        this.routeLatencies = routeLatencies;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        Map<String, Object> routes = new TreeMap<>();
+        for (RouteLatencies.Route route : routeLatencies.getRoutes()) {
+            Map<String, Object> windows = new LinkedHashMap<>();
+            windows.put("all", describe(route.getHistogram().snapshot()));
+            for (Long window : routeLatencies.getWindows()) {
+                windows.put(windowName(window), describe(route.getHistogram().snapshot(TimeUnit.SECONDS.toMillis(window))));
+            }
+            routes.put(route.getName(), windows);
+        }
+        return routes;
+    }
+
+    private static String windowName(long seconds) {
+        return seconds % 60 == 0 ? seconds / 60 + "m" : seconds + "s";
+    }
+
+    private static Map<String, Object> describe(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("count", snapshot.getCount());
+        description.put("mean_ms", snapshot.getMean() / 1000.0);
+        description.put("p50_ms", snapshot.getValueAtPercentile(50) / 1000.0);
+        description.put("p90_ms", snapshot.getValueAtPercentile(90) / 1000.0);
+        description.put("p99_ms", snapshot.getValueAtPercentile(99) / 1000.0);
+        description.put("p999_ms", snapshot.getValueAtPercentile(99.9) / 1000.0);
+        description.put("max_ms", snapshot.getMax() / 1000.0);
+        return description;
+    }
+}
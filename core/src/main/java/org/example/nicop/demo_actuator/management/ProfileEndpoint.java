@@ -0,0 +1,41 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.springframework.boot.actuate.endpoint.mvc.AbstractNamedMvcEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Piles échantillonnées par {@link StackSampler}, publiées sous {@code /manage/profile} au format « collapsed stacks »
+ * directement exploitable par {@code flamegraph.pl} ou speedscope. Le paramètre {@code seconds} limite la période,
+ * par défaut tout l'historique.
+ */
+@ConfigurationProperties(prefix = "endpoints.profile")
+public class ProfileEndpoint extends AbstractNamedMvcEndpoint {
+
+    private static final String CONTENT_TYPE = "text/plain; charset=utf-8";
+
+    private final StackSampler sampler;
+
+    public ProfileEndpoint(StackSampler sampler) {
+        super("profile", "/profile", true);
+        this.sampler = sampler;
+    }
+
+    @GetMapping
+    public void invoke(@RequestParam(required = false) Long seconds, HttpServletResponse response) throws IOException {
+        if (!isEnabled()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        response.setContentType(CONTENT_TYPE);
+        StringBuilder collapsed = new StringBuilder(8192);
+        long samples = sampler.writeCollapsed(seconds != null ? seconds : sampler.getHistory(), collapsed);
+        response.setHeader("X-Profile-Samples", Long.toString(samples));
+        response.getWriter().append(collapsed).flush();
+    }
+}
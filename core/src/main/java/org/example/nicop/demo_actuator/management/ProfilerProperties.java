@@ -0,0 +1,69 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+
+/**
+ * Paramétrage du profileur par échantillonnage de piles, voir {@link StackSampler}.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "management.profiler")
+public class ProfilerProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Intervalle visé, en millisecondes, entre deux échantillons.
+     */
+    @Min(1)
+    private long interval = 20;
+
+    /**
+     * Part maximale du temps que le thread d'échantillonnage peut occuper, strictement positive et au plus 1 ;
+     * l'intervalle est allongé d'autant si un échantillon coûte plus cher.
+     */
+    @DecimalMin(value = "0", inclusive = false)
+    @DecimalMax("1")
+    private double maxOverhead = 0.01;
+
+    /**
+     * Limite l'échantillonnage aux threads de requêtes de Tomcat ({@code http-nio-8180-exec-1}...).
+     */
+    private boolean requestThreadsOnly = false;
+
+    /**
+     * Ignore les threads qui ne sont pas {@code RUNNABLE} (attente de verrou, d'I/O, de tâche).
+     */
+    private boolean runnableOnly = true;
+
+    /**
+     * Nombre maximal de frames relevées par pile.
+     */
+    @Min(1)
+    private int maxDepth = 128;
+
+    /**
+     * Durée, en secondes, d'échantillons conservés.
+     */
+    @Min(1)
+    private long history = 300;
+
+    /**
+     * Durée, en secondes, d'une tranche de l'historique : les fenêtres demandées y sont arrondies.
+     */
+    @Min(1)
+    private long slot = 10;
+
+    /**
+     * Nombre maximal de nœuds d'arbre d'appels, pour l'ensemble de l'historique ; une fois atteint, les tranches les
+     * plus anciennes sont libérées.
+     */
+    @Min(1)
+    private int maxNodes = 50000;
+}
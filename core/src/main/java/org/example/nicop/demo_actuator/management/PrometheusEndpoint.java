@@ -0,0 +1,189 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nicop.demo_actuator.config.FilterTimings;
+import org.example.nicop.demo_actuator.config.RouteLatencies;
+import org.example.nicop.demo_actuator.util.LatencyHistogram;
+import org.example.nicop.demo_actuator.util.PrometheusTextWriter;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.endpoint.mvc.AbstractNamedMvcEndpoint;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toutes les métriques au format texte de Prometheus, publiées sous {@code /manage/prometheus} pour être collectées
+ * directement.
+ *
+ * Chaque {@link PublicMetrics} est rendu tel quel, le nom ramené aux caractères admis ({@code counter.status.200.x}
+ * devient {@code counter_status_200_x}) ; les préfixes {@code counter.} et {@code gauge.} de Spring Boot donnent le
+ * type. Deux métriques ramenées au même nom ({@code gauge.response.a-b} et {@code gauge.response.a_b}) produiraient une
+ * série en double, que Prometheus rejette avec toute la collecte : seule la première est publiée, les suivantes sont
+ * ignorées et signalées une fois dans les logs.
+ *
+ * Les latences par contrôleur et le temps propre des filtres sont rendus en {@code summary}, en secondes : centiles
+ * sur la plus courte fenêtre glissante, somme et nombre depuis le démarrage.
+ *
+ * Le rendu passe par un tampon d'octets propre à chaque thread, vidé dans la réponse au fil de l'écriture.
+ */
+@Component
+@ConfigurationProperties(prefix = "endpoints.prometheus")
+@Slf4j
+public class PrometheusEndpoint extends AbstractNamedMvcEndpoint {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+
+    private static final String HANDLER_LATENCY = "http_handler_latency_seconds";
+
+    private static final String FILTER_TIME = "http_filter_exclusive_seconds";
+
+    /**
+     * Noms des familles {@code summary} rendues après les métriques publiques, qui ne peuvent donc pas les reprendre.
+     */
+    private static final Set<String> RESERVED_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            HANDLER_LATENCY, HANDLER_LATENCY + "_sum", HANDLER_LATENCY + "_count",
+            FILTER_TIME, FILTER_TIME + "_sum", FILTER_TIME + "_count")));
+
+    /**
+     * Au-delà, les noms sont recalculés à chaque collecte plutôt que mémorisés.
+     */
+    private static final int MAX_CACHED_NAMES = 4096;
+
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final List<PublicMetrics> publicMetrics;
+
+    private final RouteLatencies routeLatencies;
+
+    private final FilterTimings filterTimings;
+
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Métriques déjà signalées comme ignorées pour cause de nom en double.
+     */
+    private final Set<String> collisions = ConcurrentHashMap.newKeySet();
+
+    public PrometheusEndpoint(List<PublicMetrics> publicMetrics, RouteLatencies routeLatencies,
+                              FilterTimings filterTimings) {
+        super("prometheus", "/prometheus", true);
+        this.publicMetrics = new ArrayList<>(publicMetrics);
+        AnnotationAwareOrderComparator.sort(this.publicMetrics);
+        this.routeLatencies = routeLatencies;
+        this.filterTimings = filterTimings;
+    }
+
+    @GetMapping
+    public void invoke(HttpServletResponse response) throws IOException {
+        if (!isEnabled()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        response.setContentType(CONTENT_TYPE);
+        PrometheusTextWriter writer = new PrometheusTextWriter(response.getOutputStream(), BUFFERS.get());
+        Set<String> written = new HashSet<>(RESERVED_NAMES);
+        for (PublicMetrics source : publicMetrics) {
+            for (Metric<?> metric : source.metrics()) {
+                writeMetric(writer, metric, written);
+            }
+        }
+        writeHandlerLatencies(writer);
+        writeFilterTimes(writer);
+        writer.flush();
+    }
+
+    /**
+     * @param written noms déjà publiés par cette collecte
+     */
+    private void writeMetric(PrometheusTextWriter writer, Metric<?> metric, Set<String> written) throws IOException {
+        if (metric.getValue() == null) {
+            return;
+        }
+        String name = name(metric.getName());
+        if (!written.add(name)) {
+            if (collisions.size() < MAX_CACHED_NAMES && collisions.add(metric.getName())) {
+                log.warn("Skipping metric {} in Prometheus output: name {} is already used", metric.getName(), name);
+            }
+            return;
+        }
+        if (metric.getName().startsWith("counter.")) {
+            writer.type(name, "counter");
+        } else if (metric.getName().startsWith("gauge.")) {
+            writer.type(name, "gauge");
+        }
+        writer.name(name).value(metric.getValue());
+    }
+
+    private String name(String metricName) {
+        String name = names.get(metricName);
+        if (name == null) {
+            name = PrometheusTextWriter.sanitize(metricName);
+            if (names.size() < MAX_CACHED_NAMES) {
+                names.putIfAbsent(metricName, name);
+            }
+        }
+        return name;
+    }
+
+    private void writeHandlerLatencies(PrometheusTextWriter writer) throws IOException {
+        if (routeLatencies.getRoutes().isEmpty()) {
+            return;
+        }
+        long window = routeLatencies.getWindows().stream().mapToLong(Long::longValue).min().orElse(0);
+        writer.type(HANDLER_LATENCY, "summary");
+        for (RouteLatencies.Route route : routeLatencies.getRoutes()) {
+            LatencyHistogram.Snapshot all = route.getHistogram().snapshot();
+            LatencyHistogram.Snapshot recent =
+                    window > 0 ? route.getHistogram().snapshot(TimeUnit.SECONDS.toMillis(window)) : all;
+            for (int i = 0; i < QUANTILES.length; i++) {
+                writer.name(HANDLER_LATENCY).label("handler", route.getName()).label("quantile", QUANTILE_LABELS[i])
+                        .value(recent.getValueAtPercentile(QUANTILES[i] * 100), 6);
+            }
+            writer.name(HANDLER_LATENCY, "_sum").label("handler", route.getName()).value(all.getSum(), 6);
+            writer.name(HANDLER_LATENCY, "_count").label("handler", route.getName()).value(all.getCount());
+        }
+    }
+
+    private void writeFilterTimes(PrometheusTextWriter writer) throws IOException {
+        if (!filterTimings.isEnabled() || filterTimings.getChains().isEmpty()) {
+            return;
+        }
+        writer.type(FILTER_TIME, "summary");
+        for (Map.Entry<String, ? extends Map<String, FilterTimings.FilterTiming>> chain : filterTimings.getChains().entrySet()) {
+            for (Map.Entry<String, FilterTimings.FilterTiming> filter : chain.getValue().entrySet()) {
+                for (Map.Entry<String, LatencyHistogram> pattern : filter.getValue().getPatterns().entrySet()) {
+                    LatencyHistogram.Snapshot snapshot = pattern.getValue().snapshot();
+                    for (int i = 0; i < QUANTILES.length; i++) {
+                        writer.name(FILTER_TIME).label("chain", chain.getKey()).label("filter", filter.getKey())
+                                .label("pattern", pattern.getKey()).label("quantile", QUANTILE_LABELS[i])
+                                .value(snapshot.getValueAtPercentile(QUANTILES[i] * 100), 9);
+                    }
+                    writer.name(FILTER_TIME, "_sum").label("chain", chain.getKey()).label("filter", filter.getKey())
+                            .label("pattern", pattern.getKey()).value(snapshot.getSum(), 9);
+                    writer.name(FILTER_TIME, "_count").label("chain", chain.getKey()).label("filter", filter.getKey())
+                            .label("pattern", pattern.getKey()).value(snapshot.getCount());
+                }
+            }
+        }
+    }
+}
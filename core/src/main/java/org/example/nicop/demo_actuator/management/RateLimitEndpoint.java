@@ -0,0 +1,57 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.security.authentication.RateLimiter;
+import org.example.nicop.demo_actuator.security.config.RateLimitProperties;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * État de la limitation de débit, publié sous {@code /manage/ratelimit} : paramètres, totaux de requêtes acceptées et
+ * refusées, et clients les plus consommateurs parmi les seaux actifs. Publié seulement quand la limitation est activée.
+ */
+@Component
+@ConditionalOnProperty("security.rate-limit.enabled")
+public class RateLimitEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private static final int TOP_CONSUMERS = 20;
+
+    private final RateLimiter rateLimiter;
+
+    private final RateLimitProperties properties;
+
+    public RateLimitEndpoint(RateLimiter rateLimiter, RateLimitProperties properties) {
+        super("ratelimit");
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("enabled", properties.isEnabled());
+        state.put("capacity", rateLimiter.getCapacity());
+        state.put("refill_per_second", rateLimiter.getRefillPerSecond());
+        state.put("clients", rateLimiter.getClients());
+        state.put("max_clients", rateLimiter.getMaxClients());
+        state.put("allowed", rateLimiter.getAllowed());
+        state.put("rejected", rateLimiter.getRejected());
+
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (RateLimiter.Usage usage : rateLimiter.topConsumers(TOP_CONSUMERS)) {
+            Map<String, Object> consumer = new LinkedHashMap<>();
+            consumer.put("client", usage.getClient());
+            consumer.put("allowed", usage.getAllowed());
+            consumer.put("rejected", usage.getRejected());
+            consumer.put("available_tokens", usage.getAvailableTokens());
+            top.add(consumer);
+        }
+        state.put("top_consumers", top);
+        return state;
+    }
+}
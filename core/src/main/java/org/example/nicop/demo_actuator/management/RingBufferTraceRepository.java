@@ -0,0 +1,109 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.util.RingBuffer;
+import org.springframework.boot.actuate.trace.Trace;
+import org.springframework.boot.actuate.trace.TraceRepository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Dépôt des traces HTTP ({@code /manage/trace}) dans un {@link RingBuffer} : les plus anciennes traces sont écrasées,
+ * sans verrou. Le statut et la durée de chaque trace sont extraits à l'ajout pour le filtrage.
+ */
+public class RingBufferTraceRepository implements TraceRepository {
+
+    private final RingBuffer<Entry> entries;
+
+    /**
+     * @param capacity nombre de traces conservées, arrondi à la puissance de deux supérieure
+     */
+    public RingBufferTraceRepository(int capacity) {
+        this.entries = new RingBuffer<>(capacity);
+    }
+
+    @Override
+    public void add(Map<String, Object> traceInfo) {
+        entries.add(new Entry(new Trace(new Date(), traceInfo)));
+    }
+
+    @Override
+    public List<Trace> findAll() {
+        return find(entry -> true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param status statut exact ({@code 404}) ou classe de statut ({@code 5xx}), {@literal null} pour tous
+     * @param minDuration durée minimale en millisecondes, {@literal null} pour toutes
+     * @return les traces correspondantes, de la plus récente à la plus ancienne
+     */
+    public List<Trace> find(String status, Long minDuration, int limit) {
+        Predicate<Entry> filter = entry -> true;
+        if (status != null && !status.isEmpty()) {
+            filter = filter.and(statusFilter(status));
+        }
+        if (minDuration != null) {
+            filter = filter.and(entry -> entry.timeTaken >= minDuration);
+        }
+        return find(filter, limit);
+    }
+
+    private static Predicate<Entry> statusFilter(String status) {
+        if (status.length() == 3 && status.regionMatches(true, 1, "xx", 0, 2)) {
+            int statusClass = Character.digit(status.charAt(0), 10);
+            return entry -> entry.status / 100 == statusClass;
+        }
+        int exact = Entry.parse(status, -1);
+        return entry -> entry.status == exact;
+    }
+
+    private List<Trace> find(Predicate<Entry> filter, int limit) {
+        List<Entry> found = entries.find(filter, limit);
+        List<Trace> traces = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            traces.add(entry.trace);
+        }
+        return traces;
+    }
+
+    private static final class Entry {
+
+        private final Trace trace;
+
+        private final int status;
+
+        private final long timeTaken;
+
+        private Entry(Trace trace) {
+            this.trace = trace;
+            this.status = status(trace.getInfo());
+            this.timeTaken = timeTaken(trace.getInfo());
+        }
+
+        /**
+         * Statut de réponse tel que renseigné par {@code WebRequestTraceFilter} ({@code headers.response.status}).
+         */
+        private static int status(Map<String, Object> info) {
+            Object headers = info.get("headers");
+            Object response = headers instanceof Map ? ((Map<?, ?>) headers).get("response") : null;
+            Object status = response instanceof Map ? ((Map<?, ?>) response).get("status") : null;
+            return status != null ? parse(status.toString(), 0) : 0;
+        }
+
+        private static long timeTaken(Map<String, Object> info) {
+            Object timeTaken = info.get("timeTaken");
+            return timeTaken != null ? parse(timeTaken.toString(), -1) : -1;
+        }
+
+        private static int parse(String value, int defaultValue) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+    }
+}
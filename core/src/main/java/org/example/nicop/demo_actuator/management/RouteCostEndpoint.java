@@ -0,0 +1,89 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.config.RouteCosts;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des méthodes de contrôleur, publié sous {@code /manage/routecost} : octets alloués et temps CPU du thread de
+ * requête, classés par total décroissant ({@code by_bytes}, {@code by_cpu}) pour prioriser les optimisations. Publié
+ * seulement quand la mesure est activée, voir {@link RouteCosts#ENABLED_PROPERTY}.
+ */
+@Component
+@ConditionalOnProperty(RouteCosts.ENABLED_PROPERTY)
+public class RouteCostEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private final RouteCosts routeCosts;
+
+    public RouteCostEndpoint(RouteCosts routeCosts) {
+        super("routecost");
+        this.routeCosts = routeCosts;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        List<Cost> costs = new ArrayList<>();
+        for (RouteCosts.Route route : routeCosts.getRoutes()) {
+            costs.add(new Cost(route));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("supported", RouteCosts.isSupported());
+        result.put("by_bytes", describe(costs, Comparator.comparingLong((Cost cost) -> cost.bytes).reversed()));
+        result.put("by_cpu", describe(costs, Comparator.comparingLong((Cost cost) -> cost.cpuNanos).reversed()));
+        return result;
+    }
+
+    private static List<Map<String, Object>> describe(List<Cost> costs, Comparator<Cost> order) {
+        List<Cost> sorted = new ArrayList<>(costs);
+        sorted.sort(order);
+        List<Map<String, Object>> descriptions = new ArrayList<>(sorted.size());
+        for (Cost cost : sorted) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("route", cost.name);
+            description.put("count", cost.count);
+            description.put("bytes_total", cost.bytes);
+            description.put("bytes_mean", cost.count == 0 ? 0 : cost.bytes / cost.count);
+            description.put("bytes_max", cost.maxBytes);
+            description.put("cpu_ms_total", TimeUnit.NANOSECONDS.toMillis(cost.cpuNanos));
+            description.put("cpu_mean_us", cost.count == 0 ? 0.0 : cost.cpuNanos / 1000.0 / cost.count);
+            description.put("cpu_max_us", cost.maxCpuNanos / 1000.0);
+            descriptions.add(description);
+        }
+        return descriptions;
+    }
+
+    /**
+     * Valeurs d'une route lues une seule fois, pour que les deux classements portent sur les mêmes chiffres.
+     */
+    private static final class Cost {
+
+        private final String name;
+
+        private final long count;
+
+        private final long bytes;
+
+        private final long maxBytes;
+
+        private final long cpuNanos;
+
+        private final long maxCpuNanos;
+
+        private Cost(RouteCosts.Route route) {
+            this.name = route.getName();
+            this.count = route.getCount();
+            this.bytes = route.getBytes();
+            this.maxBytes = route.getMaxBytes();
+            this.cpuNanos = route.getCpuNanos();
+            this.maxCpuNanos = route.getMaxCpuNanos();
+        }
+    }
+}
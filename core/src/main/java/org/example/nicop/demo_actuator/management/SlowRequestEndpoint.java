@@ -0,0 +1,34 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.springframework.boot.actuate.endpoint.mvc.AbstractNamedMvcEndpoint;
+import org.springframework.boot.actuate.endpoint.mvc.ActuatorMediaTypes;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Requêtes lentes enregistrées par {@link SlowRequestRecorder}, publiées sous {@code /manage/slowrequests} de la plus
+ * récente à la plus ancienne, avec filtrage : {@code min_duration} en millisecondes et {@code limit}.
+ */
+@ConfigurationProperties(prefix = "endpoints.slowrequests")
+public class SlowRequestEndpoint extends AbstractNamedMvcEndpoint {
+
+    private final SlowRequestRecorder recorder;
+
+    public SlowRequestEndpoint(SlowRequestRecorder recorder) {
+        super("slowrequests", "/slowrequests", true);
+        this.recorder = recorder;
+    }
+
+    @GetMapping(produces = {ActuatorMediaTypes.APPLICATION_ACTUATOR_V1_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    public Object invoke(@RequestParam(name = "min_duration", required = false) Long minDuration,
+                         @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        if (!isEnabled()) {
+            return DISABLED_RESPONSE;
+        }
+        return recorder.find(minDuration, limit);
+    }
+}
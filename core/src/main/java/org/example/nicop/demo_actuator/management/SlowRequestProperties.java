@@ -0,0 +1,24 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramétrage de l'enregistrement des requêtes lentes, voir {@link SlowRequestRecorder}.
+ */
+@Data
+@ConfigurationProperties(prefix = "management.slow-requests")
+public class SlowRequestProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Durée, en millisecondes, à partir de laquelle une requête est enregistrée.
+     */
+    private long threshold = 500;
+
+    /**
+     * Nombre de requêtes lentes conservées, arrondi à la puissance de deux supérieure.
+     */
+    private int capacity = 256;
+}
@@ -0,0 +1,128 @@
+package org.example.nicop.demo_actuator.management;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.example.nicop.demo_actuator.config.RequestTimeline;
+import org.example.nicop.demo_actuator.config.RouteLatencies;
+import org.example.nicop.demo_actuator.util.RingBuffer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conserve les dernières requêtes dépassant le seuil, avec la décomposition de leur durée par phase, dans un
+ * {@link RingBuffer} sans verrou.
+ */
+public class SlowRequestRecorder {
+
+    private final long thresholdNanos;
+
+    private final RingBuffer<SlowRequest> entries;
+
+    /**
+     * @param capacity nombre de requêtes conservées, arrondi à la puissance de deux supérieure
+     */
+    public SlowRequestRecorder(long thresholdMillis, int capacity) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.entries = new RingBuffer<>(capacity);
+    }
+
+    /**
+     * Enregistre la requête terminée si elle a dépassé le seuil ; sinon ne coûte qu'une comparaison.
+     */
+    public void record(HttpServletRequest request, HttpServletResponse response, RequestTimeline timeline) {
+        long duration = timeline.getDuration();
+        if (duration < thresholdNanos) {
+            return;
+        }
+        Method handler = timeline.getHandler();
+        entries.add(new SlowRequest(System.currentTimeMillis(), request.getMethod(), request.getRequestURI(),
+                response.getStatus(), handler != null ? RouteLatencies.routeName(handler) : null, duration,
+                timeline.getPhases()));
+    }
+
+    /**
+     * @param minDuration durée minimale en millisecondes, {@literal null} pour toutes
+     * @return les requêtes lentes, de la plus récente à la plus ancienne
+     */
+    public List<SlowRequest> find(Long minDuration, int limit) {
+        long minNanos = minDuration != null ? TimeUnit.MILLISECONDS.toNanos(minDuration) : 0;
+        return entries.find(entry -> entry.durationNanos >= minNanos, limit);
+    }
+
+    /**
+     * Requête lente, sérialisée telle quelle par {@code /manage/slowrequests} ; durées en millisecondes.
+     */
+    @JsonPropertyOrder({"timestamp", "method", "path", "status", "handler", "duration_ms", "phases_ms"})
+    public static final class SlowRequest {
+
+        private final long timestamp;
+
+        private final String method;
+
+        private final String path;
+
+        private final int status;
+
+        private final String handler;
+
+        private final long durationNanos;
+
+        private final Map<String, Double> phases;
+
+        private SlowRequest(long timestamp, String method, String path, int status, String handler,
+                            long durationNanos, Map<String, Long> phaseNanos) {
+            this.timestamp = timestamp;
+            this.method = method;
+            this.path = path;
+            this.status = status;
+            this.handler = handler;
+            this.durationNanos = durationNanos;
+            Map<String, Double> phases = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+                phases.put(phase.getKey(), toMillis(phase.getValue()));
+            }
+            this.phases = Collections.unmodifiableMap(phases);
+        }
+
+        private static double toMillis(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getHandler() {
+            return handler;
+        }
+
+        @JsonProperty("duration_ms")
+        public double getDurationMs() {
+            return toMillis(durationNanos);
+        }
+
+        @JsonProperty("phases_ms")
+        public Map<String, Double> getPhasesMs() {
+            return phases;
+        }
+    }
+}
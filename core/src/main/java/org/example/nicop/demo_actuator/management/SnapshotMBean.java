@@ -0,0 +1,134 @@
+package org.example.nicop.demo_actuator.management;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ReflectionException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MBean en lecture seule dont les attributs sont lus dans un instantané immuable, remplacé d'un bloc par
+ * {@link #update(Map)}.
+ *
+ * Une lecture ne parcourt aucune source : elle se réduit à une recherche dans une table. Seule une lecture groupée
+ * ({@link #getAttributes(String[])}) voit un seul et même instantané : Jolokia lit chaque attribut par
+ * {@link #getAttribute(String)}, et une lecture Jolokia de plusieurs attributs peut donc mêler deux instantanés
+ * successifs, que {@code SnapshotTime} ne permet pas de distinguer.
+ *
+ * Les attributs déclarés ne font que s'ajouter : un nom obtenu par {@link #getMBeanInfo()} reste lisible tant que le
+ * MBean existe, et vaut {@literal null} lorsque le dernier instantané ne le contient pas (pool de threads pas encore
+ * démarré...).
+ */
+public final class SnapshotMBean implements DynamicMBean {
+
+    private final String description;
+
+    private volatile Snapshot snapshot;
+
+    public SnapshotMBean(String description) {
+        this.description = description;
+        this.snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap(),
+                info(description, Collections.emptyMap()));
+    }
+
+    /**
+     * Publie un nouvel instantané. La description des attributs n'est reconstruite que si un nom apparaît ou si un type
+     * change ; un seul thread publie.
+     *
+     * @param attributes valeurs par nom d'attribut, dans l'ordre de publication ; la table ne doit plus être modifiée
+     */
+    public void update(Map<String, Object> attributes) {
+        Snapshot current = snapshot;
+        Map<String, String> types = current.types;
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            String type = typeOf(entry.getValue());
+            if (!type.equals(types.get(entry.getKey()))) {
+                if (types == current.types) {
+                    types = new LinkedHashMap<>(current.types);
+                }
+                types.put(entry.getKey(), type);
+            }
+        }
+        snapshot = types == current.types
+                ? new Snapshot(Collections.unmodifiableMap(attributes), current.types, current.info)
+                : new Snapshot(Collections.unmodifiableMap(attributes), Collections.unmodifiableMap(types),
+                info(description, types));
+    }
+
+    private static String typeOf(Object value) {
+        return value == null ? Object.class.getName() : value.getClass().getName();
+    }
+
+    private static MBeanInfo info(String description, Map<String, String> types) {
+        MBeanAttributeInfo[] attributeInfos = new MBeanAttributeInfo[types.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : types.entrySet()) {
+            attributeInfos[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue(), entry.getKey(), true, false, false);
+        }
+        return new MBeanInfo(SnapshotMBean.class.getName(), description, attributeInfos, null, null, null);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Snapshot current = snapshot;
+        if (!current.types.containsKey(attribute)) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return current.attributes.get(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        Snapshot current = snapshot;
+        AttributeList list = new AttributeList(names.length);
+        for (String name : names) {
+            if (current.types.containsKey(name)) {
+                list.add(new Attribute(name, current.attributes.get(name)));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Attribute " + attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return snapshot.info;
+    }
+
+    private static final class Snapshot {
+
+        private final Map<String, Object> attributes;
+
+        /**
+         * Type de chaque attribut déclaré, y compris ceux absents de cet instantané.
+         */
+        private final Map<String, String> types;
+
+        private final MBeanInfo info;
+
+        private Snapshot(Map<String, Object> attributes, Map<String, String> types, MBeanInfo info) {
+            this.attributes = attributes;
+            this.types = types;
+            this.info = info;
+        }
+    }
+}
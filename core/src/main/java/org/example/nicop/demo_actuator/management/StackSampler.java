@@ -0,0 +1,264 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nicop.demo_actuator.util.CallTree;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Profileur par échantillonnage : un thread dédié relève périodiquement les piles des threads via {@link ThreadMXBean}
+ * et les agrège en arbres d'appels, un par tranche de temps, conservés dans un anneau.
+ *
+ * Le coût est borné : chaque échantillon est chronométré et le délai avant le suivant est allongé pour que le thread
+ * d'échantillonnage n'occupe pas plus de {@code max-overhead} du temps. La mémoire l'est aussi : les tranches partagent
+ * un budget de {@code max-nodes} nœuds, et lorsqu'il ne suffit plus pour une pile, les tranches les plus anciennes sont
+ * vidées. Ce coût est publié sous {@code /manage/metrics} ({@code profiler.*}).
+ */
+@Slf4j
+public class StackSampler implements Closeable, PublicMetrics {
+
+    private static final Pattern REQUEST_THREAD = Pattern.compile("http-.+-exec-\\d+");
+
+    private static final long THREAD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int MAX_CACHED_FRAMES = 65536;
+
+    private final ProfilerProperties properties;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final long intervalNanos;
+
+    private final long slotMillis;
+
+    private final Slot[] slots;
+
+    private final CallTree.Budget budget;
+
+    private final Map<StackTraceElement, String> frameNames = new HashMap<>();
+
+    private long[] threadIds = new long[0];
+
+    private long nextThreadRefresh;
+
+    private final long startNanos = System.nanoTime();
+
+    private volatile long samples;
+
+    private volatile long ticks;
+
+    private volatile long tickNanos;
+
+    private volatile long maxTickNanos;
+
+    private volatile long delayNanos;
+
+    private volatile long evictedSlots;
+
+    public StackSampler(ProfilerProperties properties) {
+        this.properties = properties;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getInterval());
+        this.delayNanos = intervalNanos;
+        this.nextThreadRefresh = startNanos;
+        this.slotMillis = TimeUnit.SECONDS.toMillis(properties.getSlot());
+        int slotCount = (int) ((properties.getHistory() + properties.getSlot() - 1) / properties.getSlot()) + 1;
+        this.slots = new Slot[slotCount];
+        this.budget = new CallTree.Budget(properties.getMaxNodes());
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot(new CallTree(budget));
+        }
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("profiler-");
+        threads.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threads);
+        scheduler.schedule(this::tick, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Sampling {} stacks every {} ms, keeping {} s",
+                properties.isRequestThreadsOnly() ? "request thread" : "thread", properties.getInterval(),
+                properties.getHistory());
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        try {
+            sample(start);
+        } catch (RuntimeException e) {
+            log.warn("Cannot sample thread stacks", e);
+        }
+        long elapsed = System.nanoTime() - start;
+        long delay = Math.max(intervalNanos, (long) (elapsed / properties.getMaxOverhead()));
+        ticks++;
+        tickNanos += elapsed;
+        maxTickNanos = Math.max(maxTickNanos, elapsed);
+        delayNanos = delay;
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::tick, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sample(long now) {
+        if (now - nextThreadRefresh >= 0) {
+            threadIds = sampledThreads();
+            nextThreadRefresh = now + THREAD_REFRESH_NANOS;
+        }
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(threadIds, properties.getMaxDepth());
+        List<String> frames = new ArrayList<>(properties.getMaxDepth());
+        long epoch = System.currentTimeMillis() / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        int sampled = 0;
+        synchronized (this) {
+            if (slot.epoch != epoch) {
+                slot.tree.clear();
+                slot.epoch = epoch;
+            }
+            for (ThreadInfo info : infos) {
+                if (info == null || properties.isRunnableOnly() && info.getThreadState() != Thread.State.RUNNABLE) {
+                    continue;
+                }
+                StackTraceElement[] stack = info.getStackTrace();
+                if (stack.length == 0) {
+                    continue;
+                }
+                frames.clear();
+                for (int i = stack.length - 1; i >= 0; i--) {
+                    frames.add(frameName(stack[i]));
+                }
+                // estimation haute : une pile déjà connue ne crée aucun nœud
+                while (budget.getRemaining() < frames.size() && evictOldest(epoch)) {
+                    evictedSlots++;
+                }
+                slot.tree.add(frames);
+                sampled++;
+            }
+        }
+        samples += sampled;
+    }
+
+    /**
+     * Vide la plus ancienne tranche non vide autre que la tranche courante.
+     *
+     * @return {@literal false} s'il n'y en a aucune
+     */
+    private boolean evictOldest(long epoch) {
+        Slot oldest = null;
+        for (Slot candidate : slots) {
+            if (candidate.epoch != epoch && candidate.tree.getNodes() > 0
+                    && (oldest == null || candidate.epoch < oldest.epoch)) {
+                oldest = candidate;
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+        oldest.tree.clear();
+        return true;
+    }
+
+    /**
+     * Threads à échantillonner, hors thread d'échantillonnage ; réévalués périodiquement pour suivre les créations.
+     */
+    private long[] sampledThreads() {
+        long self = Thread.currentThread().getId();
+        long[] ids = threadMXBean.getAllThreadIds();
+        ThreadInfo[] infos = properties.isRequestThreadsOnly() ? threadMXBean.getThreadInfo(ids) : null;
+        long[] selected = new long[ids.length];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == self || infos != null
+                    && (infos[i] == null || !REQUEST_THREAD.matcher(infos[i].getThreadName()).matches())) {
+                continue;
+            }
+            selected[count++] = ids[i];
+        }
+        long[] result = new long[count];
+        System.arraycopy(selected, 0, result, 0, count);
+        return result;
+    }
+
+    private String frameName(StackTraceElement element) {
+        String name = frameNames.get(element);
+        if (name == null) {
+            if (frameNames.size() >= MAX_CACHED_FRAMES) {
+                frameNames.clear();
+            }
+            name = element.getClassName() + "." + element.getMethodName();
+            frameNames.put(element, name);
+        }
+        return name;
+    }
+
+    /**
+     * Écrit les piles échantillonnées sur la période demandée au format « collapsed stacks ».
+     *
+     * @param seconds durée de la période, arrondie à la tranche supérieure et bornée par l'historique
+     * @return le nombre d'échantillons écrits
+     */
+    public long writeCollapsed(long seconds, Appendable out) throws IOException {
+        long epoch = System.currentTimeMillis() / slotMillis;
+        long windowSlots = Math.min(slots.length, (TimeUnit.SECONDS.toMillis(seconds) + slotMillis - 1) / slotMillis);
+        CallTree merged = new CallTree(properties.getMaxNodes());
+        synchronized (this) {
+            for (Slot slot : slots) {
+                if (slot.epoch > epoch - windowSlots && slot.epoch <= epoch) {
+                    merged.merge(slot.tree);
+                }
+            }
+        }
+        merged.writeCollapsed(out);
+        return merged.getSamples();
+    }
+
+    public long getHistory() {
+        return properties.getHistory();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        long tickCount = ticks;
+        long elapsed = System.nanoTime() - startNanos;
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("profiler.samples", samples));
+        metrics.add(new Metric<>("profiler.ticks", tickCount));
+        metrics.add(new Metric<>("profiler.interval.ms", delayNanos / 1e6));
+        metrics.add(new Metric<>("profiler.tick.mean.us", tickCount == 0 ? 0.0 : tickNanos / 1000.0 / tickCount));
+        metrics.add(new Metric<>("profiler.tick.max.us", maxTickNanos / 1000.0));
+        metrics.add(new Metric<>("profiler.overhead.ratio", elapsed == 0 ? 0.0 : (double) tickNanos / elapsed));
+        synchronized (this) {
+            metrics.add(new Metric<>("profiler.nodes", budget.getUsed()));
+        }
+        metrics.add(new Metric<>("profiler.evicted.slots", evictedSlots));
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class Slot {
+
+        private final CallTree tree;
+
+        private long epoch = -1;
+
+        private Slot(CallTree tree) {
+            this.tree = tree;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.nicop.demo_actuator.management;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramétrage du dépôt de traces HTTP, voir {@link RingBufferTraceRepository}.
+ */
+@Data
+@ConfigurationProperties(prefix = "management.trace.buffer")
+public class TraceBufferProperties {
+
+    /**
+     * Nombre de traces conservées, arrondi à la puissance de deux supérieure.
+     */
+    private int capacity = 1024;
+
+    /**
+     * Fraction des requêtes tracées, de 0 à 1.
+     */
+    private double samplingRate = 1.0;
+}
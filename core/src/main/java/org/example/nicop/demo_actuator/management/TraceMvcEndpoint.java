@@ -0,0 +1,34 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.springframework.boot.actuate.endpoint.TraceEndpoint;
+import org.springframework.boot.actuate.endpoint.mvc.AbstractEndpointMvcAdapter;
+import org.springframework.boot.actuate.endpoint.mvc.ActuatorMediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * {@code /manage/trace} avec filtrage : {@code status} (exact ou classe, {@code 5xx}), {@code min_duration} en
+ * millisecondes et {@code limit}.
+ */
+public class TraceMvcEndpoint extends AbstractEndpointMvcAdapter<TraceEndpoint> {
+
+    private final RingBufferTraceRepository repository;
+
+    public TraceMvcEndpoint(TraceEndpoint delegate, RingBufferTraceRepository repository) {
+        super(delegate);
+        this.repository = repository;
+    }
+
+    @GetMapping(produces = {ActuatorMediaTypes.APPLICATION_ACTUATOR_V1_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    public Object invoke(@RequestParam(required = false) String status,
+                         @RequestParam(name = "min_duration", required = false) Long minDuration,
+                         @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        if (!getDelegate().isEnabled()) {
+            return getDisabledResponse();
+        }
+        return repository.find(status, minDuration, limit);
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.example.nicop.demo_actuator.management.AuthorizationMetrics;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdvice;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Évaluation des {@code @PreAuthorize}, directe pour les formes simples.
+ *
+ * L'expression déjà analysée par Spring Security (attribut transmis à {@link #before}) est examinée une fois par
+ * méthode. Un appel unique à {@code hasAuthority}, {@code hasAnyAuthority}, {@code hasRole} ou {@code hasAnyRole} dont
+ * les arguments sont des chaînes littérales ne dépend que des autorisations de l'appelant : il est ramené à un ensemble
+ * d'autorisations acceptées, comparé sans SpEL aux autorisations de l'appelant, étendues par la hiérarchie de rôles
+ * comme le fait {@code SecurityExpressionRoot}. Les autres expressions, et les méthodes portant un {@code @PreFilter},
+ * sont évaluées par SpEL à chaque appel.
+ *
+ * La durée de chaque évaluation est mesurée par méthode, quel que soit le chemin suivi.
+ */
+public class CachingPreInvocationAdvice implements PreInvocationAuthorizationAdvice {
+
+    /**
+     * Accesseurs de {@code PreInvocationExpressionAttribute}, attribut produit pour {@code @PreAuthorize} et
+     * {@code @PreFilter}, non publics dans Spring Security 4.
+     */
+    private static final Method AUTHORIZE_EXPRESSION = accessor("getAuthorizeExpression");
+
+    private static final Method FILTER_EXPRESSION = accessor("getFilterExpression");
+
+    private final PreInvocationAuthorizationAdvice delegate;
+
+    private final AuthorizationMetrics metrics;
+
+    private final boolean directDecisions;
+
+    private final String rolePrefix;
+
+    private final RoleHierarchy roleHierarchy;
+
+    private final ConcurrentMap<MethodClassKey, Rule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate évaluation SpEL standard
+     * @param directDecisions {@literal false} pour toujours évaluer par SpEL (mesure seule)
+     * @param rolePrefix préfixe ajouté par {@code hasRole}, celui du gestionnaire d'expressions
+     * @param roleHierarchy hiérarchie de rôles du gestionnaire d'expressions, ou {@literal null}
+     */
+    public CachingPreInvocationAdvice(PreInvocationAuthorizationAdvice delegate, AuthorizationMetrics metrics,
+                                      boolean directDecisions, String rolePrefix, RoleHierarchy roleHierarchy) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.directDecisions = directDecisions;
+        this.rolePrefix = rolePrefix;
+        this.roleHierarchy = roleHierarchy;
+    }
+
+    @Override
+    public boolean before(Authentication authentication, MethodInvocation mi, PreInvocationAttribute preInvocationAttribute) {
+        long start = System.nanoTime();
+        Class<?> targetClass = mi.getThis() != null ? AopUtils.getTargetClass(mi.getThis()) : mi.getMethod().getDeclaringClass();
+        Rule rule = rules.computeIfAbsent(new MethodClassKey(mi.getMethod(), targetClass),
+                key -> Rule.of(targetClass.getSimpleName() + "." + mi.getMethod().getName(), preInvocationAttribute,
+                        rolePrefix));
+        try {
+            if (!directDecisions || rule.authorities == null) {
+                metrics.expressionDecision();
+                return delegate.before(authentication, mi, preInvocationAttribute);
+            }
+            metrics.directDecision();
+            return rule.grants(roleHierarchy != null
+                    ? roleHierarchy.getReachableGrantedAuthorities(authentication.getAuthorities())
+                    : authentication.getAuthorities());
+        } finally {
+            metrics.evaluated(rule.name, System.nanoTime() - start);
+        }
+    }
+
+    private static Method accessor(String name) {
+        Class<?> attributeClass = ClassUtils.resolveClassName(
+                "org.springframework.security.access.expression.method.PreInvocationExpressionAttribute",
+                PreInvocationAttribute.class.getClassLoader());
+        Method method = ReflectionUtils.findMethod(attributeClass, name);
+        ReflectionUtils.makeAccessible(method);
+        return method;
+    }
+
+    /**
+     * Règle d'une méthode : ensemble des autorisations acceptées, ou {@literal null} si l'expression doit être évaluée.
+     */
+    private static final class Rule {
+
+        private final String name;
+
+        private final Set<String> authorities;
+
+        private Rule(String name, Set<String> authorities) {
+            this.name = name;
+            this.authorities = authorities;
+        }
+
+        static Rule of(String name, PreInvocationAttribute attribute, String rolePrefix) {
+            if (!AUTHORIZE_EXPRESSION.getDeclaringClass().isInstance(attribute)
+                    || ReflectionUtils.invokeMethod(FILTER_EXPRESSION, attribute) != null) {
+                return new Rule(name, null);
+            }
+            Expression expression = (Expression) ReflectionUtils.invokeMethod(AUTHORIZE_EXPRESSION, attribute);
+            return new Rule(name, expression instanceof SpelExpression
+                    ? authorities(((SpelExpression) expression).getAST(), rolePrefix) : null);
+        }
+
+        /**
+         * Mêmes règles que {@code SecurityExpressionRoot} : {@code hasAuthority} et {@code hasRole} n'acceptent qu'un
+         * argument, le préfixe de rôle n'est ajouté qu'aux noms qui ne le portent pas déjà.
+         */
+        private static Set<String> authorities(SpelNode node, String rolePrefix) {
+            if (!(node instanceof MethodReference) || node.getChildCount() == 0) {
+                return null;
+            }
+            boolean role;
+            switch (((MethodReference) node).getName()) {
+                case "hasAuthority":
+                case "hasRole":
+                    if (node.getChildCount() != 1) {
+                        return null;
+                    }
+                    role = ((MethodReference) node).getName().equals("hasRole");
+                    break;
+                case "hasAnyAuthority":
+                    role = false;
+                    break;
+                case "hasAnyRole":
+                    role = true;
+                    break;
+                default:
+                    return null;
+            }
+            Set<String> authorities = new HashSet<>();
+            for (int i = 0; i < node.getChildCount(); i++) {
+                SpelNode argument = node.getChild(i);
+                if (!(argument instanceof StringLiteral)) {
+                    return null;
+                }
+                String authority = (String) ((StringLiteral) argument).getLiteralValue().getValue();
+                authorities.add(role && rolePrefix != null && !authority.startsWith(rolePrefix)
+                        ? rolePrefix + authority : authority);
+            }
+            return Collections.unmodifiableSet(authorities);
+        }
+
+        boolean grants(Collection<? extends GrantedAuthority> granted) {
+            for (GrantedAuthority authority : granted) {
+                if (authorities.contains(authority.getAuthority())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import org.example.nicop.demo_actuator.security.config.JwtProperties;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Clés déclarées dans la configuration ({@code security.jwt.keys}) : secrets HMAC et clés publiques RSA/EC au format
+ * PEM. Les vérificateurs sont construits une fois au démarrage ; une clé invalide empêche le démarrage.
+ */
+public class ConfiguredJwtKeySource implements JwtKeySource {
+
+    static final String SOURCE = "configuration";
+
+    private final JwtKeySet keySet;
+
+    public ConfiguredJwtKeySource(List<JwtProperties.Key> keys) {
+        long now = System.currentTimeMillis();
+        List<JwtKeySet.Key> loaded = new ArrayList<>();
+        int index = 0;
+        for (JwtProperties.Key key : keys) {
+            String id = key.getId() != null ? key.getId() : "key-" + index;
+            loaded.add(new JwtKeySet.Key(id, null, verifier(id, key), SOURCE, now));
+            index++;
+        }
+        this.keySet = new JwtKeySet(loaded);
+    }
+
+    @Override
+    public JwtKeySet getKeySet() {
+        return keySet;
+    }
+
+    private static JWSVerifier verifier(String id, JwtProperties.Key key) {
+        try {
+            if (key.getSecret() != null) {
+                return new MACVerifier(key.getSecret().getBytes(UTF_8));
+            }
+            if (key.getPublicKey() != null) {
+                PublicKey publicKey = parsePublicKey(key.getPublicKey());
+                if (publicKey instanceof RSAPublicKey) {
+                    return new RSASSAVerifier((RSAPublicKey) publicKey);
+                }
+                return new ECDSAVerifier((ECPublicKey) publicKey);
+            }
+        } catch (JOSEException | GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWT key " + id + ": " + e.getMessage(), e);
+        }
+        throw new IllegalStateException("JWT key " + id + " has neither a secret nor a public key");
+    }
+
+    private static PublicKey parsePublicKey(String pem) throws GeneralSecurityException {
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(Base64.getDecoder().decode(base64));
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(spec);
+        } catch (GeneralSecurityException e) {
+            return KeyFactory.getInstance("EC").generatePublic(spec);
+        }
+    }
+}
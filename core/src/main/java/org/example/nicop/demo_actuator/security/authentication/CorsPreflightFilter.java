@@ -0,0 +1,208 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import org.example.nicop.demo_actuator.management.CorsMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Répond aux requêtes CORS de pré-vérification ({@code OPTIONS} avec {@code Access-Control-Request-Method}) avant la
+ * chaîne de sécurité, qui n'a rien à y contrôler.
+ *
+ * Les en-têtes de réponse de chaque motif de chemin sont calculés au démarrage à partir de la même
+ * {@link CorsConfiguration} que le {@link org.springframework.web.cors.DefaultCorsProcessor} : la réponse est identique,
+ * {@code Access-Control-Max-Age} compris. Une pré-vérification sans configuration pour son chemin poursuit la chaîne.
+ */
+public class CorsPreflightFilter extends OncePerRequestFilter {
+
+    private static final byte[] INVALID_CORS_REQUEST = "Invalid CORS request".getBytes(StandardCharsets.UTF_8);
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private final CorsMetrics metrics;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    /**
+     * @param configurations configurations CORS par motif de chemin, dans leur ordre de priorité
+     */
+    public CorsPreflightFilter(Map<String, CorsConfiguration> configurations, CorsMetrics metrics) {
+        for (Map.Entry<String, CorsConfiguration> entry : configurations.entrySet()) {
+            routes.add(new Route(entry.getKey(), new Preflight(entry.getValue())));
+        }
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !CorsUtils.isPreFlightRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        String lookupPath = urlPathHelper.getLookupPathForRequest(request);
+        for (Route route : routes) {
+            if (pathMatcher.match(route.pattern, lookupPath)) {
+                boolean accepted = route.preflight.write(request, response);
+                metrics.preflight(accepted, System.nanoTime() - start);
+                return;
+            }
+        }
+        metrics.unmatched();
+        filterChain.doFilter(request, response);
+    }
+
+    private static final class Route {
+
+        private final String pattern;
+
+        private final Preflight preflight;
+
+        private Route(String pattern, Preflight preflight) {
+            this.pattern = pattern;
+            this.preflight = preflight;
+        }
+    }
+
+    /**
+     * Réponse de pré-vérification précalculée d'une {@link CorsConfiguration}. Les ensembles sont vides lorsque la
+     * configuration accepte toute valeur ({@code *}).
+     */
+    private static final class Preflight {
+
+        private final boolean anyOrigin;
+
+        private final Set<String> origins = new HashSet<>();
+
+        private final boolean anyMethod;
+
+        private final Set<String> methods = new HashSet<>();
+
+        private final String allowMethods;
+
+        private final boolean anyHeader;
+
+        private final Set<String> headers = new HashSet<>();
+
+        private final boolean allowCredentials;
+
+        private final String maxAge;
+
+        private Preflight(CorsConfiguration configuration) {
+            List<String> allowedOrigins = nullToEmpty(configuration.getAllowedOrigins());
+            anyOrigin = allowedOrigins.contains(CorsConfiguration.ALL);
+            for (String origin : allowedOrigins) {
+                origins.add(origin.toLowerCase(Locale.ROOT));
+            }
+
+            // mêmes méthodes par défaut que CorsConfiguration
+            List<String> allowedMethods = configuration.getAllowedMethods() != null
+                    ? configuration.getAllowedMethods() : Arrays.asList("GET", "HEAD");
+            anyMethod = allowedMethods.contains(CorsConfiguration.ALL);
+            for (String method : allowedMethods) {
+                methods.add(method.toUpperCase(Locale.ROOT));
+            }
+            allowMethods = anyMethod ? null : StringUtils.collectionToCommaDelimitedString(methods);
+
+            List<String> allowedHeaders = nullToEmpty(configuration.getAllowedHeaders());
+            anyHeader = allowedHeaders.contains(CorsConfiguration.ALL);
+            for (String header : allowedHeaders) {
+                headers.add(header.toLowerCase(Locale.ROOT));
+            }
+
+            allowCredentials = Boolean.TRUE.equals(configuration.getAllowCredentials());
+            maxAge = configuration.getMaxAge() != null ? configuration.getMaxAge().toString() : null;
+        }
+
+        private static List<String> nullToEmpty(List<String> values) {
+            return values != null ? values : new ArrayList<>();
+        }
+
+        /**
+         * @return {@literal false} si la pré-vérification est refusée (réponse 403)
+         */
+        boolean write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            String origin = request.getHeader(HttpHeaders.ORIGIN);
+            String method = request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+            String requestHeaders = request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+
+            String allowOrigin = allowOrigin(origin);
+            String allowHeaders = allowHeaders(requestHeaders);
+            if (allowOrigin == null || !(anyMethod || methods.contains(method)) || allowHeaders == null) {
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                response.getOutputStream().write(INVALID_CORS_REQUEST);
+                response.flushBuffer();
+                return false;
+            }
+
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowOrigin);
+            if (!CorsConfiguration.ALL.equals(allowOrigin)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+            }
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, anyMethod ? method : allowMethods);
+            if (!allowHeaders.isEmpty()) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, allowHeaders);
+            }
+            if (allowCredentials) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+            if (maxAge != null) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+            }
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.flushBuffer();
+            return true;
+        }
+
+        private String allowOrigin(String origin) {
+            if (anyOrigin) {
+                return allowCredentials ? origin : CorsConfiguration.ALL;
+            }
+            return origins.contains(origin.toLowerCase(Locale.ROOT)) ? origin : null;
+        }
+
+        /**
+         * @return les en-têtes acceptés parmi ceux demandés, une chaîne vide s'il n'y en a pas, ou {@literal null} si
+         * aucun en-tête demandé n'est accepté
+         */
+        private String allowHeaders(String requestHeaders) {
+            if (!StringUtils.hasText(requestHeaders)) {
+                return "";
+            }
+            if (anyHeader) {
+                return requestHeaders;
+            }
+            List<String> allowed = new ArrayList<>();
+            for (String header : StringUtils.tokenizeToStringArray(requestHeaders, ",")) {
+                if (headers.contains(header.toLowerCase(Locale.ROOT))) {
+                    allowed.add(header);
+                }
+            }
+            return allowed.isEmpty() ? null : StringUtils.collectionToCommaDelimitedString(allowed);
+        }
+    }
+}
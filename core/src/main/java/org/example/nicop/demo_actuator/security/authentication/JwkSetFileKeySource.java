@@ -0,0 +1,186 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Clés lues dans un fichier au format JWK Set ({@code {"keys": [...]}}), rechargé à chaque modification sans
+ * redémarrage.
+ *
+ * Le répertoire du fichier est surveillé par un {@link WatchService} ; tout événement (écriture, remplacement par
+ * déplacement, bascule de lien symbolique) déclenche une relecture. Chaque clé est analysée une seule fois en un
+ * vérificateur, et le nouveau jeu remplace l'ancien par une affectation volatile : les requêtes en cours ne sont
+ * jamais bloquées et terminent avec le jeu qu'elles ont lu. Un fichier illisible ou invalide est ignoré, le jeu
+ * précédent reste en service.
+ *
+ * Les clés de la configuration ({@code security.jwt.keys}) sont conservées à chaque rechargement ; une clé du fichier
+ * de même identifiant les remplace.
+ */
+@Slf4j
+public class JwkSetFileKeySource implements JwtKeySource, Closeable {
+
+    /**
+     * Délai laissé à l'écrivain pour terminer avant relecture ; les événements reçus entre-temps sont regroupés.
+     */
+    private static final long SETTLE_DELAY_MILLIS = 100;
+
+    private final Path file;
+
+    private final Collection<JwtKeySet.Key> staticKeys;
+
+    private final WatchService watchService;
+
+    private final Thread watcher;
+
+    private volatile JwtKeySet keySet;
+
+    private byte[] content;
+
+    /**
+     * Charge le fichier et démarre sa surveillance.
+     *
+     * @throws IllegalStateException si le fichier est absent ou invalide au démarrage
+     */
+    public JwkSetFileKeySource(Path file, Collection<JwtKeySet.Key> staticKeys) {
+        this.file = file.toAbsolutePath();
+        this.staticKeys = staticKeys;
+        try {
+            if (!reload()) {
+                throw new IllegalStateException("Unable to load JWK set " + this.file);
+            }
+            this.watchService = this.file.getFileSystem().newWatchService();
+            this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to watch JWK set " + this.file, e);
+        }
+        this.watcher = new Thread(this::watch, "jwk-set-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    @Override
+    public JwtKeySet getKeySet() {
+        return keySet;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                TimeUnit.MILLISECONDS.sleep(SETTLE_DELAY_MILLIS);
+                key.pollEvents();
+                key.reset();
+                for (WatchKey pending = watchService.poll(); pending != null; pending = watchService.poll()) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Stopped watching JWK set {}", file);
+        }
+    }
+
+    /**
+     * Relit le fichier ; sans changement de contenu, le jeu courant est conservé.
+     *
+     * @return {@literal false} si le fichier n'a pu être chargé
+     */
+    synchronized boolean reload() {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            log.error("Unable to read JWK set {}, keeping the {} loaded key(s): {}", file, sizeOf(keySet), e.toString());
+            return false;
+        }
+        if (Arrays.equals(bytes, content)) {
+            return true;
+        }
+        try {
+            JwtKeySet loaded = parse(new String(bytes, UTF_8), System.currentTimeMillis());
+            keySet = loaded;
+            content = bytes;
+            log.info("Loaded {} JWT key(s) from {}", loaded.size(), file);
+            return true;
+        } catch (ParseException | JOSEException | IllegalArgumentException e) {
+            log.error("Invalid JWK set {}, keeping the {} loaded key(s): {}", file, sizeOf(keySet), e.getMessage());
+            return false;
+        }
+    }
+
+    private JwtKeySet parse(String json, long now) throws ParseException, JOSEException {
+        Map<String, JwtKeySet.Key> keys = new LinkedHashMap<>();
+        for (JwtKeySet.Key key : staticKeys) {
+            keys.put(key.getId(), key);
+        }
+        List<JWK> jwks = JWKSet.parse(json).getKeys();
+        for (int i = 0; i < jwks.size(); i++) {
+            JWK jwk = jwks.get(i);
+            if (KeyUse.ENCRYPTION.equals(jwk.getKeyUse())) {
+                continue;
+            }
+            String id = jwk.getKeyID() != null ? jwk.getKeyID() : file.getFileName() + "#" + i;
+            JWSAlgorithm algorithm = jwk.getAlgorithm() != null ? JWSAlgorithm.parse(jwk.getAlgorithm().getName()) : null;
+            keys.put(id, new JwtKeySet.Key(id, algorithm, verifier(jwk), file.toString(), now));
+        }
+        return new JwtKeySet(new ArrayList<>(keys.values()));
+    }
+
+    private static JWSVerifier verifier(JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey) {
+            return new RSASSAVerifier((RSAKey) jwk);
+        }
+        if (jwk instanceof ECKey) {
+            return new ECDSAVerifier((ECKey) jwk);
+        }
+        if (jwk instanceof OctetSequenceKey) {
+            return new MACVerifier((OctetSequenceKey) jwk);
+        }
+        throw new IllegalArgumentException("Unsupported key type " + jwk.getKeyType());
+    }
+
+    private static int sizeOf(JwtKeySet keySet) {
+        return keySet != null ? keySet.size() : 0;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authentifie les requêtes portant un en-tête {@code Authorization: Bearer <jwt>}.
+ *
+ * Sans en-tête, la requête poursuit anonymement et les règles d'accès s'appliquent. Un jeton présent mais rejeté
+ * interrompt la requête : la réponse est produite par {@link SecurityAuthenticationEntryPoint}.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenVerifier verifier;
+
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+
+    public JwtAuthenticationFilter(JwtTokenVerifier verifier, AuthenticationEntryPoint authenticationEntryPoint) {
+        this.verifier = verifier;
+        this.authenticationEntryPoint = authenticationEntryPoint;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            String token = header.substring(BEARER_PREFIX.length()).trim();
+            SecurityContextHolder.getContext().setAuthentication(verifier.verify(token));
+        } catch (AuthenticationException e) {
+            SecurityContextHolder.clearContext();
+            authenticationEntryPoint.commence(request, response, e);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
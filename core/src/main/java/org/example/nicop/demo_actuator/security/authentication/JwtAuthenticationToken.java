@@ -0,0 +1,52 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentification issue d'un jeton JWT vérifié, créée pour chaque requête. Les claims, immuables, sont partagés par
+ * les requêtes qui présentent le même jeton.
+ */
+public class JwtAuthenticationToken extends AbstractAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JWTClaimsSet claims;
+
+    public JwtAuthenticationToken(JWTClaimsSet claims, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.claims = claims;
+        super.setAuthenticated(true);
+    }
+
+    public JWTClaimsSet getClaims() {
+        return claims;
+    }
+
+    /**
+     * Le jeton n'est pas conservé.
+     */
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return claims.getSubject();
+    }
+
+    /**
+     * Seul le vérificateur peut authentifier : l'authentification peut être retirée, pas accordée.
+     */
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("A JWT authentication is only trusted when issued by JwtTokenVerifier");
+        }
+        super.setAuthenticated(false);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jeu de clés de vérification, immuable : chaque clé est analysée une fois en un vérificateur prêt à l'emploi, indexé
+ * par identifiant ({@code kid}). Un rechargement construit un nouveau jeu, qui remplace l'ancien en une seule
+ * affectation.
+ */
+public final class JwtKeySet {
+
+    private final Map<String, Key> keysById;
+
+    public JwtKeySet(Collection<Key> keys) {
+        Map<String, Key> byId = new LinkedHashMap<>();
+        for (Key key : keys) {
+            byId.put(key.getId(), key);
+        }
+        this.keysById = Collections.unmodifiableMap(byId);
+    }
+
+    /**
+     * @param header en-tête du jeton ({@code alg}, {@code kid})
+     * @return la clé désignée par {@code kid}, ou à défaut toutes les clés acceptant l'algorithme ; vide si aucune
+     */
+    public List<JWSVerifier> verifiers(JWSHeader header) {
+        if (header.getKeyID() != null) {
+            Key key = keysById.get(header.getKeyID());
+            return key != null && key.accepts(header.getAlgorithm())
+                    ? Collections.singletonList(key.getVerifier()) : Collections.<JWSVerifier>emptyList();
+        }
+        List<JWSVerifier> candidates = new ArrayList<>();
+        for (Key key : keysById.values()) {
+            if (key.accepts(header.getAlgorithm())) {
+                candidates.add(key.getVerifier());
+            }
+        }
+        return candidates;
+    }
+
+    public Collection<Key> getKeys() {
+        return keysById.values();
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    @Getter
+    public static final class Key {
+
+        private final String id;
+
+        /**
+         * Algorithme imposé par la clé, ou {@literal null} pour tous ceux du vérificateur.
+         */
+        private final JWSAlgorithm algorithm;
+
+        private final JWSVerifier verifier;
+
+        /**
+         * Origine de la clé : configuration ou fichier.
+         */
+        private final String source;
+
+        /**
+         * Date de chargement, en millisecondes depuis l'epoch.
+         */
+        private final long loadedAt;
+
+        public Key(String id, JWSAlgorithm algorithm, JWSVerifier verifier, String source, long loadedAt) {
+            this.id = id;
+            this.algorithm = algorithm;
+            this.verifier = verifier;
+            this.source = source;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean accepts(JWSAlgorithm headerAlgorithm) {
+            return (algorithm == null || algorithm.equals(headerAlgorithm))
+                    && verifier.supportedJWSAlgorithms().contains(headerAlgorithm);
+        }
+    }
+}
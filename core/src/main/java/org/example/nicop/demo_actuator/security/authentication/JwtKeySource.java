@@ -0,0 +1,12 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+/**
+ * Fournit le jeu de clés de vérification courant.
+ */
+public interface JwtKeySource {
+
+    /**
+     * @return le jeu courant ; un jeu rechargé est une nouvelle instance, l'ancienne n'est jamais modifiée
+     */
+    JwtKeySet getKeySet();
+}
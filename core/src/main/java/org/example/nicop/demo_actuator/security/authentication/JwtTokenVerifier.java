@@ -0,0 +1,184 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.example.nicop.demo_actuator.management.JwtMetrics;
+import org.example.nicop.demo_actuator.security.config.JwtProperties;
+import org.example.nicop.demo_actuator.util.LruCache;
+import org.springframework.security.authentication.AccountExpiredException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Vérifie les jetons JWT signés et construit l'authentification correspondante.
+ *
+ * Les jetons vérifiés sont conservés dans un cache LRU borné, indexé par l'empreinte SHA-256 du jeton (le jeton
+ * lui-même n'est pas conservé) : un appelant qui représente le même jeton n'en revérifie pas la signature. Une entrée
+ * n'est servie que jusqu'à l'expiration du jeton, et au plus {@code security.jwt.cache-ttl} secondes, et tant que le
+ * jeu de clés qui l'a vérifiée est en service : après un rechargement des clés, chaque jeton est revérifié une fois.
+ * Le cache conserve les claims vérifiés et les autorités ; chaque appel reçoit sa propre authentification, que la
+ * requête peut compléter ({@code setDetails}) sans effet sur les autres.
+ *
+ * Les jetons rejetés ne sont pas mis en cache.
+ */
+public class JwtTokenVerifier {
+
+    private final JwtKeySource keySource;
+
+    private final JwtProperties properties;
+
+    private final JwtMetrics metrics;
+
+    private final LruCache<String, Verified> cache;
+
+    public JwtTokenVerifier(JwtKeySource keySource, JwtProperties properties, JwtMetrics metrics) {
+        this.keySource = keySource;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.cache = new LruCache<>(properties.getCacheSize());
+        metrics.setCacheSize(cache::size);
+    }
+
+    /**
+     * @param token jeton compact, sans le préfixe {@code Bearer}
+     * @return l'authentification, à placer dans le contexte de sécurité
+     * @throws MalformedJwtException jeton illisible, non signé ou de signature invalide
+     * @throws AccountExpiredException jeton expiré
+     * @throws InvalidGrantException jeton pas encore valide, ou d'émetteur ou d'audience inattendus
+     */
+    public JwtAuthenticationToken verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        JwtKeySet keySet = keySource.getKeySet();
+        Verified verified = cache.getIfPresent(digest);
+        if (verified != null) {
+            if (now < verified.expiresAt && verified.keySet == keySet) {
+                metrics.cacheHit();
+                return new JwtAuthenticationToken(verified.claims, verified.authorities);
+            }
+            cache.remove(digest);
+        }
+        metrics.cacheMiss();
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            JWTClaimsSet claims = verifySignature(token, keySet);
+            verifyClaims(claims, now);
+            Collection<GrantedAuthority> authorities = authorities(claims);
+            cache.put(digest, new Verified(claims, authorities, keySet, cacheExpiry(claims, now)));
+            success = true;
+            return new JwtAuthenticationToken(claims, authorities);
+        } finally {
+            metrics.verified(System.nanoTime() - start, success);
+        }
+    }
+
+    private static JWTClaimsSet verifySignature(String token, JwtKeySet keySet) {
+        SignedJWT jwt;
+        JWTClaimsSet claims;
+        try {
+            jwt = SignedJWT.parse(token);
+            claims = jwt.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new MalformedJwtException("Token is malformed");
+        }
+        for (JWSVerifier verifier : keySet.verifiers(jwt.getHeader())) {
+            try {
+                if (jwt.verify(verifier)) {
+                    return claims;
+                }
+            } catch (JOSEException e) {
+                // clé inadaptée au jeton : la suivante est essayée
+            }
+        }
+        throw new MalformedJwtException("Token signature is invalid");
+    }
+
+    private void verifyClaims(JWTClaimsSet claims, long now) {
+        long skew = TimeUnit.SECONDS.toMillis(properties.getClockSkew());
+        Date expiration = claims.getExpirationTime();
+        if (expiration != null && now > expiration.getTime() + skew) {
+            throw new AccountExpiredException("Token has expired");
+        }
+        Date notBefore = claims.getNotBeforeTime();
+        if (notBefore != null && now < notBefore.getTime() - skew) {
+            throw new InvalidGrantException("Token is not valid yet");
+        }
+        if (properties.getIssuer() != null && !properties.getIssuer().equals(claims.getIssuer())) {
+            throw new InvalidGrantException("Token issuer is not accepted");
+        }
+        if (properties.getAudience() != null
+                && (claims.getAudience() == null || !claims.getAudience().contains(properties.getAudience()))) {
+            throw new InvalidGrantException("Token audience is not accepted");
+        }
+    }
+
+    private long cacheExpiry(JWTClaimsSet claims, long now) {
+        long expiry = now + TimeUnit.SECONDS.toMillis(properties.getCacheTtl());
+        Date expiration = claims.getExpirationTime();
+        if (expiration != null) {
+            expiry = Math.min(expiry, expiration.getTime() + TimeUnit.SECONDS.toMillis(properties.getClockSkew()));
+        }
+        return expiry;
+    }
+
+    private Collection<GrantedAuthority> authorities(JWTClaimsSet claims) {
+        Object value = claims.getClaim(properties.getAuthoritiesClaim());
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (value instanceof String) {
+            for (String authority : ((String) value).split(" ")) {
+                if (!authority.isEmpty()) {
+                    authorities.add(new SimpleGrantedAuthority(authority));
+                }
+            }
+        } else if (value instanceof Collection) {
+            for (Object authority : (Collection<?>) value) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(authority)));
+            }
+        }
+        return Collections.unmodifiableList(authorities);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Verified {
+
+        private final JWTClaimsSet claims;
+
+        private final Collection<GrantedAuthority> authorities;
+
+        private final JwtKeySet keySet;
+
+        private final long expiresAt;
+
+        Verified(JWTClaimsSet claims, Collection<GrantedAuthority> authorities, JwtKeySet keySet, long expiresAt) {
+            this.claims = claims;
+            this.authorities = authorities;
+            this.keySet = keySet;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import org.example.nicop.demo_actuator.util.ErrorMessage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * Applique le {@link RateLimiter} à chaque requête du port principal, par client : le sujet du jeton JWT lorsque la
+ * requête est authentifiée, l'adresse distante sinon. Placé après {@link JwtAuthenticationFilter}.
+ *
+ * Une requête refusée reçoit une réponse 429 avec l'en-tête {@code Retry-After}, en secondes. Les requêtes exclues (les
+ * endpoints de supervision) ne sont ni comptées ni limitées.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final ErrorMessage TOO_MANY_REQUESTS_ERROR =
+            new ErrorMessage("Trop de requêtes", "E004", "Limite de débit atteinte, voir l'en-tête Retry-After");
+
+    private final RateLimiter rateLimiter;
+
+    private final SecurityErrorWriter errorWriter;
+
+    private final RequestMatcher excluded;
+
+    public RateLimitFilter(RateLimiter rateLimiter, SecurityErrorWriter errorWriter, RequestMatcher excluded) {
+        this.rateLimiter = rateLimiter;
+        this.errorWriter = errorWriter;
+        this.excluded = excluded;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return excluded.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long wait = rateLimiter.acquire(client(request));
+        if (wait > 0) {
+            long retryAfter = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            errorWriter.write(request, response, TOO_MANY_REQUESTS, TOO_MANY_REQUESTS_ERROR);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken) {
+            return "sub:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
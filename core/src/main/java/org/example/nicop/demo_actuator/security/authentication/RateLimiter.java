@@ -0,0 +1,224 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitation de débit par client, par seau à jetons.
+ *
+ * Chaque seau est réduit à un seul instant théorique de prochaine disponibilité (algorithme GCRA, équivalent au seau à
+ * jetons) mis à jour par compare-and-set : aucune requête ne prend de verrou. Les seaux sont rangés dans une
+ * {@link ConcurrentHashMap}, dont les lectures ne se bloquent pas et les écritures sont réparties par case.
+ *
+ * Le nombre de seaux est borné par {@code maxClients} : une fois la borne atteinte, les nouveaux clients partagent un
+ * seau commun jusqu'à la purge suivante. La purge s'exécute sur un thread dédié, jamais sur celui d'une requête : toutes
+ * les {@code idleTimeout} secondes elle supprime les seaux restés pleins depuis ce délai, et dès que la borne est
+ * atteinte elle supprime tous les seaux pleins, qu'un client retrouverait à l'identique.
+ */
+public class RateLimiter implements Closeable {
+
+    /**
+     * Client du seau partagé par les clients refusés faute de place.
+     */
+    static final String OVERFLOW_CLIENT = "overflow";
+
+    private final int capacity;
+
+    private final double refillPerSecond;
+
+    /**
+     * Durée de régénération d'un jeton.
+     */
+    private final long intervalNanos;
+
+    /**
+     * Avance maximale de l'instant théorique sur l'horloge, soit la capacité du seau.
+     */
+    private final long burstNanos;
+
+    private final long idleNanos;
+
+    private final int maxClients;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Bucket overflow = new Bucket(System.nanoTime());
+
+    private final ScheduledExecutorService sweeper;
+
+    private final AtomicBoolean sweepRequested = new AtomicBoolean();
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(int capacity, double refillPerSecond, long idleTimeoutSeconds, int maxClients) {
+        if (capacity < 1 || refillPerSecond <= 0 || idleTimeoutSeconds < 1 || maxClients < 1) {
+            throw new IllegalArgumentException(
+                    "Rate limit capacity, refill rate, idle timeout and maximum clients must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        this.maxClients = maxClients;
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("rate-limit-sweep-");
+        threads.setDaemon(true);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(threads);
+        sweeper.scheduleAtFixedRate(() -> sweep(false), idleTimeoutSeconds, idleTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Consomme un jeton du client.
+     *
+     * @return 0 si la requête est acceptée, sinon le délai en nanosecondes avant qu'un jeton soit disponible
+     */
+    public long acquire(String client) {
+        long now = System.nanoTime();
+        Bucket bucket = bucket(client, now);
+        while (true) {
+            long tat = bucket.tat.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                bucket.rejected.increment();
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.tat.compareAndSet(tat, next)) {
+                bucket.allowed.increment();
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    private Bucket bucket(String client, long now) {
+        Bucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            // la borne peut être dépassée de quelques seaux par des insertions concurrentes, pas davantage
+            if (sweepRequested.compareAndSet(false, true)) {
+                sweeper.execute(() -> sweep(true));
+            }
+            return overflow;
+        }
+        return buckets.computeIfAbsent(client, key -> new Bucket(now));
+    }
+
+    /**
+     * Supprime les seaux restés pleins depuis {@code idleTimeout}, ou tous les seaux pleins si la borne est atteinte.
+     */
+    void sweep(boolean full) {
+        sweepRequested.set(false);
+        long now = System.nanoTime();
+        long threshold = full || buckets.size() >= maxClients ? 0 : idleNanos;
+        // un seau retiré pendant qu'une requête le consomme fait gagner au plus un jeton à son client
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            if (now - entry.getValue().tat.get() >= threshold) {
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return les clients ayant émis le plus de requêtes, acceptées ou refusées, parmi les seaux actifs et le seau partagé
+     */
+    public List<Usage> topConsumers(int limit) {
+        long now = System.nanoTime();
+        List<Usage> usages = new ArrayList<>();
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            usages.add(usage(entry.getKey(), entry.getValue(), now));
+        }
+        if (overflow.allowed.sum() + overflow.rejected.sum() > 0) {
+            usages.add(usage(OVERFLOW_CLIENT, overflow, now));
+        }
+        usages.sort(Comparator.comparingLong(Usage::getTotal).reversed());
+        return usages.size() > limit ? new ArrayList<>(usages.subList(0, limit)) : usages;
+    }
+
+    private Usage usage(String client, Bucket bucket, long now) {
+        long backlog = Math.max(0, bucket.tat.get() - now);
+        return new Usage(client, bucket.allowed.sum(), bucket.rejected.sum(), (int) ((burstNanos - backlog) / intervalNanos));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getRefillPerSecond() {
+        return refillPerSecond;
+    }
+
+    public int getClients() {
+        return buckets.size();
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private static final class Bucket {
+
+        /**
+         * Instant théorique auquel le seau sera de nouveau plein.
+         */
+        private final AtomicLong tat;
+
+        private final LongAdder allowed = new LongAdder();
+
+        private final LongAdder rejected = new LongAdder();
+
+        private Bucket(long now) {
+            this.tat = new AtomicLong(now);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Usage {
+
+        private final String client;
+
+        private final long allowed;
+
+        private final long rejected;
+
+        private final int availableTokens;
+
+        public long getTotal() {
+            return allowed + rejected;
+        }
+    }
+}
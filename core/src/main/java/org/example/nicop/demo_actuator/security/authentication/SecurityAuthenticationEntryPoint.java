@@ -1,9 +1,7 @@
 package org.example.nicop.demo_actuator.security.authentication;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.nicop.demo_actuator.util.ErrorMessage;
-import org.example.nicop.demo_actuator.util.ResponseWrapper;
-import org.example.nicop.demo_actuator.util.RestErrorList;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AccountExpiredException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
@@ -11,12 +9,9 @@ import org.springframework.security.web.AuthenticationEntryPoint;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 
-import static java.util.Collections.singletonMap;
-import static javax.servlet.http.HttpServletResponse.SC_UNAUTHORIZED;
-import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 /**
  * SecurityAuthenticationEntryPoint is called by ExceptionTranslationFilter to handle all AuthenticationException.
@@ -27,6 +22,12 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
  */
 public class SecurityAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private final SecurityErrorWriter errorWriter;
+
+    public SecurityAuthenticationEntryPoint(SecurityErrorWriter errorWriter) {
+        this.errorWriter = errorWriter;
+    }
+
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException) throws IOException, ServletException {
 
@@ -38,32 +39,24 @@ public class SecurityAuthenticationEntryPoint implements AuthenticationEntryPoin
             doInternal(request, response, (MalformedJwtException)authException);
         }
         else {
-            doGenericInternal(request, response, SC_UNAUTHORIZED, new ErrorMessage(authException.getMessage(),  "TOKEN_UNAVAILABLE", "Please provide an access Token to access this request"));
+            doGenericInternal(request, response, UNAUTHORIZED, new ErrorMessage(authException.getMessage(),  "TOKEN_UNAVAILABLE", "Please provide an access Token to access this request"));
         }
     }
 
     private void doInternal(HttpServletRequest request, HttpServletResponse response, InvalidGrantException authException)  throws IOException, ServletException {
-        doGenericInternal(request, response, SC_UNAUTHORIZED, new ErrorMessage(authException.getMessage(),  "INVALID_GRANT", "Token has invalid grant"));
+        doGenericInternal(request, response, UNAUTHORIZED, new ErrorMessage(authException.getMessage(),  "INVALID_GRANT", "Token has invalid grant"));
     }
 
     private void doInternal(HttpServletRequest request, HttpServletResponse response, AccountExpiredException authException)  throws IOException, ServletException {
-        doGenericInternal(request, response, SC_UNAUTHORIZED, new ErrorMessage(authException.getMessage(),  "TOKEN_EXPIRED", "Token has expired"));
+        doGenericInternal(request, response, UNAUTHORIZED, new ErrorMessage(authException.getMessage(),  "TOKEN_EXPIRED", "Token has expired"));
     }
 
     private void doInternal(HttpServletRequest request, HttpServletResponse response, MalformedJwtException authException)  throws IOException, ServletException {
-        doGenericInternal(request, response, SC_UNAUTHORIZED, new ErrorMessage(authException.getMessage(), "TOKEN_INVALID", "Token is invalid"));
+        doGenericInternal(request, response, UNAUTHORIZED, new ErrorMessage(authException.getMessage(), "TOKEN_INVALID", "Token is invalid"));
     }
 
-    private void doGenericInternal(HttpServletRequest request, HttpServletResponse response, int status, ErrorMessage message)  throws IOException, ServletException {
-        RestErrorList errorList = new RestErrorList(status, message);
-        ResponseWrapper responseWrapper = new ResponseWrapper(null, singletonMap("status", status), errorList);
-        ObjectMapper objMapper = new ObjectMapper();
-
-        HttpServletResponseWrapper wrapper = new HttpServletResponseWrapper(response);
-        wrapper.setStatus(status);
-        wrapper.setContentType(APPLICATION_JSON_VALUE);
-        wrapper.getWriter().println(objMapper.writeValueAsString(responseWrapper));
-        wrapper.getWriter().flush();
+    private void doGenericInternal(HttpServletRequest request, HttpServletResponse response, HttpStatus status, ErrorMessage message)  throws IOException, ServletException {
+        errorWriter.write(request, response, status, message);
     }
 
 
@@ -0,0 +1,80 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.example.nicop.demo_actuator.config.ResponseWrapperWriter;
+import org.example.nicop.demo_actuator.util.ErrorMessage;
+import org.example.nicop.demo_actuator.util.LruCache;
+import org.example.nicop.demo_actuator.util.ResponseMetadata;
+import org.example.nicop.demo_actuator.util.ResponseWrapper;
+import org.example.nicop.demo_actuator.util.RestErrorList;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Écriture des réponses d'erreur de sécurité (401, 403), partagée par {@link SecurityAuthenticationEntryPoint} et
+ * {@link RestAccessDeniedHandler}.
+ *
+ * Ces corps ne dépendent que du statut, du message d'erreur et du format négocié : ils sont sérialisés une fois puis
+ * écrits directement sur le flux de sortie, ce qui garde ce chemin peu coûteux lors d'une rafale de requêtes rejetées.
+ * Chaque rejet est compté par code d'erreur ({@code counter.security.rejection.<code>}).
+ */
+public class SecurityErrorWriter {
+
+    private static final String COUNTER_PREFIX = "security.rejection.";
+
+    private static final int CACHE_SIZE = 64;
+
+    private final ResponseWrapperWriter responseWrapperWriter;
+
+    private final CounterService counterService;
+
+    private final LruCache<Key, ResponseWrapperWriter.Serialized> bodies = new LruCache<>(CACHE_SIZE);
+
+    public SecurityErrorWriter(ResponseWrapperWriter responseWrapperWriter, CounterService counterService) {
+        this.responseWrapperWriter = responseWrapperWriter;
+        this.counterService = counterService;
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, HttpStatus status, ErrorMessage error)
+            throws IOException {
+        String code = error.getCode() == null || error.getCode().isEmpty() ? "unknown" : error.getCode();
+        counterService.increment(COUNTER_PREFIX + code.toLowerCase(Locale.ROOT));
+
+        Key key = new Key(responseWrapperWriter.negotiate(request), status, error);
+        ResponseWrapperWriter.Serialized body;
+        try {
+            body = bodies.get(key, SecurityErrorWriter::serialize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        response.setStatus(status.value());
+        body.write(response);
+    }
+
+    private static ResponseWrapperWriter.Serialized serialize(Key key) {
+        RestErrorList errors = new RestErrorList(key.status, key.error);
+        try {
+            return key.format.serialize(new ResponseWrapper(null, ResponseMetadata.error(key.status), errors));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+
+        private final ResponseWrapperWriter.Format format;
+
+        private final HttpStatus status;
+
+        private final ErrorMessage error;
+    }
+}
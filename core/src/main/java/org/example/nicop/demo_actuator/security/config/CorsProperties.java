@@ -0,0 +1,24 @@
+package org.example.nicop.demo_actuator.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramétrage CORS du port principal.
+ */
+@Data
+@ConfigurationProperties(prefix = "security.cors")
+public class CorsProperties {
+
+    /**
+     * Durée, en secondes, pendant laquelle le navigateur conserve le résultat d'une pré-vérification
+     * ({@code Access-Control-Max-Age}).
+     */
+    private long maxAge = 1800;
+
+    /**
+     * Répond aux pré-vérifications {@code OPTIONS} avant la chaîne de sécurité, voir
+     * {@link org.example.nicop.demo_actuator.security.authentication.CorsPreflightFilter}.
+     */
+    private boolean preflightFastPath = true;
+}
@@ -0,0 +1,74 @@
+package org.example.nicop.demo_actuator.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paramétrage de l'authentification par jeton JWT ({@code Authorization: Bearer ...}).
+ */
+@Data
+@ConfigurationProperties(prefix = "security.jwt")
+public class JwtProperties {
+
+    /**
+     * Clés de vérification des signatures.
+     */
+    private List<Key> keys = new ArrayList<>();
+
+    /**
+     * Fichier JWK Set de clés complémentaires, surveillé et rechargé à chaque modification.
+     */
+    private String jwkSetFile;
+
+    /**
+     * Émetteur attendu (claim {@code iss}) ; non vérifié si absent.
+     */
+    private String issuer;
+
+    /**
+     * Audience attendue (claim {@code aud}) ; non vérifiée si absente.
+     */
+    private String audience;
+
+    /**
+     * Claim portant les autorisations, sous forme de liste ou de chaîne séparée par des espaces.
+     */
+    private String authoritiesClaim = "authorities";
+
+    /**
+     * Tolérance, en secondes, sur les dates {@code exp} et {@code nbf}.
+     */
+    private long clockSkew = 60;
+
+    /**
+     * Nombre de jetons vérifiés conservés.
+     */
+    private int cacheSize = 10000;
+
+    /**
+     * Durée maximale, en secondes, de conservation d'un jeton vérifié, y compris sans claim {@code exp}.
+     */
+    private long cacheTtl = 300;
+
+    @Data
+    public static class Key {
+
+        /**
+         * Identifiant comparé à l'en-tête {@code kid} ; sans {@code kid}, toutes les clés compatibles sont essayées.
+         */
+        private String id;
+
+        /**
+         * Secret partagé HMAC (HS256, HS384, HS512), d'au moins 32 octets.
+         */
+        private String secret;
+
+        /**
+         * Clé publique RSA ou EC au format PEM ({@code -----BEGIN PUBLIC KEY-----}).
+         */
+        private String publicKey;
+    }
+}
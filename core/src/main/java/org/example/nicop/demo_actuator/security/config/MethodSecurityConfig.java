@@ -0,0 +1,71 @@
+package org.example.nicop.demo_actuator.security.config;
+
+import org.example.nicop.demo_actuator.management.AuthorizationMetrics;
+import org.example.nicop.demo_actuator.security.authentication.CachingPreInvocationAdvice;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.access.vote.AuthenticatedVoter;
+import org.springframework.security.access.vote.RoleVoter;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sécurité des méthodes ({@code @PreAuthorize}) : mêmes votants que la configuration par défaut, avec une évaluation
+ * des expressions mesurée par méthode et directe pour les formes simples (voir {@link CachingPreInvocationAdvice}).
+ *
+ * Le préfixe de rôle ({@link GrantedAuthorityDefaults}) et la {@link RoleHierarchy} sont, comme pour le gestionnaire
+ * d'expressions par défaut, les beans uniques de ces types s'ils existent.
+ */
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true)
+public class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+    /**
+     * Préfixe par défaut de {@code DefaultMethodSecurityExpressionHandler}.
+     */
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final AuthorizationMetrics authorizationMetrics = new AuthorizationMetrics();
+
+    @Value("${security.authorization.direct-decisions:true}")
+    private boolean directDecisions;
+
+    @Autowired
+    private ObjectProvider<GrantedAuthorityDefaults> grantedAuthorityDefaults;
+
+    @Autowired
+    private ObjectProvider<RoleHierarchy> roleHierarchy;
+
+    @Override
+    protected AccessDecisionManager accessDecisionManager() {
+        ExpressionBasedPreInvocationAdvice expressionAdvice = new ExpressionBasedPreInvocationAdvice();
+        expressionAdvice.setExpressionHandler(getExpressionHandler());
+
+        List<AccessDecisionVoter<?>> decisionVoters = new ArrayList<>();
+        GrantedAuthorityDefaults defaults = grantedAuthorityDefaults.getIfUnique();
+        decisionVoters.add(new PreInvocationAuthorizationAdviceVoter(new CachingPreInvocationAdvice(expressionAdvice,
+                authorizationMetrics, directDecisions, defaults != null ? defaults.getRolePrefix() : ROLE_PREFIX,
+                roleHierarchy.getIfUnique())));
+        decisionVoters.add(new RoleVoter());
+        decisionVoters.add(new AuthenticatedVoter());
+        return new AffirmativeBased(decisionVoters);
+    }
+
+    @Bean
+    public AuthorizationMetrics authorizationMetrics() {
+        return authorizationMetrics;
+    }
+}
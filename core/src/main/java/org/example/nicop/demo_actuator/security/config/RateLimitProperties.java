@@ -0,0 +1,38 @@
+package org.example.nicop.demo_actuator.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramétrage de la limitation de débit par client du port principal, voir
+ * {@link org.example.nicop.demo_actuator.security.authentication.RateLimiter}.
+ *
+ * Désactivée par défaut : les requêtes anonymes sont comptées par adresse distante, et tous les clients derrière un
+ * même proxy ou NAT partageraient alors un seul seau.
+ */
+@Data
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Nombre de requêtes qu'un client peut émettre en rafale.
+     */
+    private int capacity = 200;
+
+    /**
+     * Nombre de requêtes par seconde rendues à chaque client.
+     */
+    private double refillPerSecond = 100;
+
+    /**
+     * Durée, en secondes, au-delà de laquelle le compteur d'un client inactif est supprimé.
+     */
+    private long idleTimeout = 300;
+
+    /**
+     * Nombre maximal de clients suivis ; au-delà, les nouveaux clients partagent un seau jusqu'à la purge suivante.
+     */
+    private int maxClients = 100000;
+}
@@ -1,32 +1,90 @@
 package org.example.nicop.demo_actuator.security.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.example.nicop.demo_actuator.config.RequestTimeline;
+import org.example.nicop.demo_actuator.config.ResponseWrapperWriter;
+import org.example.nicop.demo_actuator.config.TimelineMarkFilter;
+import org.example.nicop.demo_actuator.management.CorsMetrics;
+import org.example.nicop.demo_actuator.management.JwtMetrics;
+import org.example.nicop.demo_actuator.management.SlowRequestRecorder;
+import org.example.nicop.demo_actuator.security.authentication.ConfiguredJwtKeySource;
+import org.example.nicop.demo_actuator.security.authentication.CorsPreflightFilter;
+import org.example.nicop.demo_actuator.security.authentication.JwkSetFileKeySource;
+import org.example.nicop.demo_actuator.security.authentication.JwtAuthenticationFilter;
+import org.example.nicop.demo_actuator.security.authentication.JwtKeySource;
+import org.example.nicop.demo_actuator.security.authentication.JwtTokenVerifier;
+import org.example.nicop.demo_actuator.security.authentication.RateLimitFilter;
+import org.example.nicop.demo_actuator.security.authentication.RateLimiter;
 import org.example.nicop.demo_actuator.security.authentication.RestAccessDeniedHandler;
+import org.example.nicop.demo_actuator.security.authentication.SecurityErrorWriter;
 import org.example.nicop.demo_actuator.security.authentication.SecurityAuthenticationEntryPoint;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.ManagementServerProperties;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.access.ExceptionTranslationFilter;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.web.authentication.logout.LogoutFilter;
 import org.springframework.security.web.authentication.preauth.x509.X509AuthenticationFilter;
 import org.springframework.security.web.authentication.session.NullAuthenticatedSessionStrategy;
 import org.springframework.security.web.authentication.session.SessionAuthenticationStrategy;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import java.nio.file.Paths;
+
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties({JwtProperties.class, CorsProperties.class, RateLimitProperties.class})
+@Slf4j
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    @Autowired
+    private ResponseWrapperWriter responseWrapperWriter;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private CorsProperties corsProperties;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private ManagementServerProperties managementServerProperties;
+
+    /**
+     * Présent quand l'enregistrement des requêtes lentes est activé, voir {@code SlowRequestConfig}.
+     */
+    @Autowired
+    private ObjectProvider<SlowRequestRecorder> slowRequestRecorder;
+
+    /**
+     * Présent quand la limitation de débit est activée, voir {@link #rateLimiter()}.
+     */
+    @Autowired
+    private ObjectProvider<RateLimiter> rateLimiterProvider;
+
     @Override
     public void configure(WebSecurity web) throws Exception {
         // TODO NOT IN PRODUCTION !!!
@@ -35,22 +93,74 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
+        SecurityAuthenticationEntryPoint authenticationEntryPoint = new SecurityAuthenticationEntryPoint(securityErrorWriter());
         http    .csrf().disable()
                 .sessionManagement().sessionCreationPolicy(STATELESS)
                 .and()
                 .addFilterBefore(corsFilter(), ExceptionTranslationFilter.class)
-                .exceptionHandling().authenticationEntryPoint(new SecurityAuthenticationEntryPoint())
-                .accessDeniedHandler(new RestAccessDeniedHandler())
+                // après le filtre CORS : un rejet de jeton porte les en-têtes CORS
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenVerifier(), authenticationEntryPoint), ExceptionTranslationFilter.class)
+                .exceptionHandling().authenticationEntryPoint(authenticationEntryPoint)
+                .accessDeniedHandler(new RestAccessDeniedHandler(securityErrorWriter()))
                 .and()
                 .authorizeRequests()
                 // TODO A ADAPTER
                 .antMatchers("/public/**","/manage/**","/jolokia/**").permitAll()   // tous les accès public sont valides
                 .anyRequest().authenticated();           // tous les autres accès doivent être authentifiés.
 
+        RateLimiter rateLimiter = rateLimiterProvider.getIfAvailable();
+        if (rateLimiter != null) {
+            log.info("Configuring rate limiting to {} requests in burst and {} per second per client",
+                    rateLimitProperties.getCapacity(), rateLimitProperties.getRefillPerSecond());
+            // après l'authentification JWT : le sujet du jeton identifie le client
+            RequestMatcher management = new AntPathRequestMatcher(managementServerProperties.getContextPath() + "/**");
+            http.addFilterBefore(new RateLimitFilter(rateLimiter, securityErrorWriter(), management), ExceptionTranslationFilter.class);
+        }
+
+        if (slowRequestRecorder.getIfAvailable() != null) {
+            // fin de la phase de sécurité dans la décomposition des requêtes lentes
+            http.addFilterAfter(new TimelineMarkFilter(RequestTimeline.Mark.SECURITY_END), FilterSecurityInterceptor.class);
+        }
     }
 
     @Bean
-    public CorsFilter corsFilter() {
+    public SecurityErrorWriter securityErrorWriter() {
+        return new SecurityErrorWriter(responseWrapperWriter, counterService);
+    }
+
+    /**
+     * Absent tant que la limitation n'est pas activée : ni seaux, ni tâche de purge.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("security.rate-limit.enabled")
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(rateLimitProperties.getCapacity(), rateLimitProperties.getRefillPerSecond(),
+                rateLimitProperties.getIdleTimeout(), rateLimitProperties.getMaxClients());
+    }
+
+    @Bean
+    public JwtKeySource jwtKeySource() {
+        ConfiguredJwtKeySource keySource = new ConfiguredJwtKeySource(jwtProperties.getKeys());
+        if (jwtProperties.getJwkSetFile() == null) {
+            log.info("Configuring JWT authentication with {} key(s)", keySource.getKeySet().size());
+            return keySource;
+        }
+        log.info("Configuring JWT authentication with keys from {}", jwtProperties.getJwkSetFile());
+        return new JwkSetFileKeySource(Paths.get(jwtProperties.getJwkSetFile()), keySource.getKeySet().getKeys());
+    }
+
+    @Bean
+    public JwtMetrics jwtMetrics() {
+        return new JwtMetrics();
+    }
+
+    @Bean
+    public JwtTokenVerifier jwtTokenVerifier() {
+        return new JwtTokenVerifier(jwtKeySource(), jwtProperties, jwtMetrics());
+    }
+
+    @Bean
+    public UrlBasedCorsConfigurationSource corsConfigurationSource() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         CorsConfiguration config = new CorsConfiguration();
         config.addAllowedOrigin("*");
@@ -58,8 +168,33 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         config.addAllowedMethod("*");
         config.addExposedHeader("Authorization");
         config.addExposedHeader("Content-Type");
+        config.setMaxAge(corsProperties.getMaxAge());
         source.registerCorsConfiguration("/**", config);
-        return new CorsFilter(source);
+        return source;
+    }
+
+    @Bean
+    public CorsFilter corsFilter() {
+        return new CorsFilter(corsConfigurationSource());
+    }
+
+    @Bean
+    public CorsMetrics corsMetrics() {
+        return new CorsMetrics();
+    }
+
+    /**
+     * Les pré-vérifications CORS sont traitées avant la chaîne de sécurité ; {@link #corsFilter()} reste en place pour
+     * les en-têtes des requêtes effectives.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "security.cors.preflight-fast-path", matchIfMissing = true)
+    public FilterRegistrationBean corsPreflightFilter() {
+        log.info("Configuring CORS preflight responses ahead of the security chain, max-age {} s", corsProperties.getMaxAge());
+        FilterRegistrationBean registration = new FilterRegistrationBean(
+                new CorsPreflightFilter(corsConfigurationSource().getCorsConfigurations(), corsMetrics()));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
     }
 
 }
@@ -3,6 +3,8 @@ package org.example.nicop.demo_actuator.service;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.example.nicop.demo_actuator.config.CompressedCacheable;
+import org.example.nicop.demo_actuator.config.Enrichment;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,6 +16,8 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
 @Slf4j
 public class PublicController {
 
+    @Enrichment(Enrichment.Mode.MINIMAL)
+    @CompressedCacheable(minResponseSize = 0) // route de démonstration : réponse bien en dessous du seuil global
     @GetMapping(value = "hello", produces = APPLICATION_JSON_UTF8_VALUE)
     public WelcomeMessage helloworld() {
         log.info("Hello World !");
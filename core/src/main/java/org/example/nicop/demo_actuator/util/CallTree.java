@@ -0,0 +1,172 @@
+package org.example.nicop.demo_actuator.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbre d'appels agrégeant des piles échantillonnées : chaque nœud est une frame, les piles de même préfixe partagent
+ * leurs nœuds et chaque nœud compte les échantillons qui s'y terminent.
+ *
+ * Le nombre de nœuds est borné par un {@link Budget}, éventuellement partagé entre plusieurs arbres : une fois le budget
+ * épuisé, un échantillon qui emprunterait un chemin nouveau est compté sur le plus long préfixe existant. Non
+ * synchronisé, pas plus que le budget.
+ */
+public final class CallTree {
+
+    private final Budget budget;
+
+    private final Node root = new Node();
+
+    private int nodes;
+
+    private long samples;
+
+    /**
+     * @param maxNodes nombre maximal de frames distinctes conservées
+     */
+    public CallTree(int maxNodes) {
+        this(new Budget(maxNodes));
+    }
+
+    /**
+     * @param budget nombre de nœuds disponibles, partagé avec d'autres arbres
+     */
+    public CallTree(Budget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @param frames pile de la frame racine à la frame en cours d'exécution
+     */
+    public void add(List<String> frames) {
+        add(frames, 1);
+    }
+
+    private void add(List<String> frames, long count) {
+        Node node = root;
+        for (String frame : frames) {
+            Node child = node.children.get(frame);
+            if (child == null) {
+                if (!budget.acquire()) {
+                    break;
+                }
+                child = new Node();
+                node.children.put(frame, child);
+                nodes++;
+            }
+            node = child;
+        }
+        node.self += count;
+        samples += count;
+    }
+
+    /**
+     * Ajoute à cet arbre les échantillons d'un autre.
+     */
+    public void merge(CallTree other) {
+        merge(other.root, new ArrayList<>());
+    }
+
+    private void merge(Node node, List<String> path) {
+        if (node.self > 0) {
+            add(path, node.self);
+        }
+        for (Map.Entry<String, Node> child : node.children.entrySet()) {
+            path.add(child.getKey());
+            merge(child.getValue(), path);
+            path.remove(path.size() - 1);
+        }
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Vide l'arbre et rend ses nœuds au budget.
+     */
+    public void clear() {
+        budget.release(nodes);
+        root.children.clear();
+        root.self = 0;
+        nodes = 0;
+        samples = 0;
+    }
+
+    /**
+     * Écrit l'arbre au format « collapsed stacks » de {@code flamegraph.pl} : une ligne par pile, frames séparées par
+     * {@code ;} puis le nombre d'échantillons.
+     */
+    public void writeCollapsed(Appendable out) throws IOException {
+        StringBuilder path = new StringBuilder();
+        for (Map.Entry<String, Node> child : root.children.entrySet()) {
+            writeCollapsed(out, path, child.getKey(), child.getValue());
+        }
+    }
+
+    private static void writeCollapsed(Appendable out, StringBuilder path, String frame, Node node) throws IOException {
+        int length = path.length();
+        if (length > 0) {
+            path.append(';');
+        }
+        path.append(frame);
+        if (node.self > 0) {
+            out.append(path).append(' ').append(Long.toString(node.self)).append('\n');
+        }
+        for (Map.Entry<String, Node> child : node.children.entrySet()) {
+            writeCollapsed(out, path, child.getKey(), child.getValue());
+        }
+        path.setLength(length);
+    }
+
+    /**
+     * Nombre de nœuds que peuvent créer les arbres qui le partagent.
+     */
+    public static final class Budget {
+
+        private final int capacity;
+
+        private int used;
+
+        public Budget(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Call tree must hold at least one node");
+            }
+            this.capacity = capacity;
+        }
+
+        private boolean acquire() {
+            if (used == capacity) {
+                return false;
+            }
+            used++;
+            return true;
+        }
+
+        private void release(int count) {
+            used -= count;
+        }
+
+        public int getRemaining() {
+            return capacity - used;
+        }
+
+        public int getUsed() {
+            return used;
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>(4);
+
+        private long self;
+    }
+}
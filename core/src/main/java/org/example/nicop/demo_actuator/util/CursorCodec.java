@@ -0,0 +1,128 @@
+package org.example.nicop.demo_actuator.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Encode et vérifie les jetons de continuation de la pagination par curseur.
+ *
+ * Un jeton contient le tri de la requête et les valeurs des clés de tri de la dernière ligne renvoyée, le tout signé en
+ * HMAC-SHA256 : un client ne peut ni le forger, ni le rejouer avec un autre tri.
+ */
+public final class CursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SIGNATURE_SEPARATOR = ".";
+    private static final int GENERATED_SECRET_LENGTH = 32;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Payload> PAYLOAD_TYPE = new TypeReference<Payload>() {};
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    /**
+     * @param secret clé de signature, partagée par toutes les instances de l'application
+     */
+    public CursorCodec(byte[] secret) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    /**
+     * Crée un codec avec une clé aléatoire : les jetons ne survivent pas à un redémarrage et ne sont valides que sur
+     * l'instance qui les a émis.
+     */
+    public static CursorCodec withGeneratedSecret() {
+        byte[] secret = new byte[GENERATED_SECRET_LENGTH];
+        new SecureRandom().nextBytes(secret);
+        return new CursorCodec(secret);
+    }
+
+    public String encode(Sort sort, List<Object> keys) {
+        try {
+            byte[] payload = MAPPER.writeValueAsBytes(new Payload(signature(sort), keys));
+            return ENCODER.encodeToString(payload) + SIGNATURE_SEPARATOR + ENCODER.encodeToString(sign(payload));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cursor keys must be JSON scalar values", e);
+        }
+    }
+
+    /**
+     * Vérifie le jeton et retourne les valeurs des clés de tri qu'il contient.
+     *
+     * @throws RestServiceException si le jeton est mal formé, mal signé, ou émis pour un autre tri
+     */
+    public List<Object> decode(Sort sort, String token) {
+        int idx = token.indexOf(SIGNATURE_SEPARATOR);
+        if (idx == -1) {
+            throw invalidCursor("malformed cursor");
+        }
+        Payload payload;
+        try {
+            byte[] content = DECODER.decode(token.substring(0, idx));
+            byte[] signature = DECODER.decode(token.substring(idx + 1));
+            if (!MessageDigest.isEqual(sign(content), signature)) {
+                throw invalidCursor("cursor signature does not match");
+            }
+            payload = MAPPER.readValue(content, PAYLOAD_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw invalidCursor("malformed cursor");
+        }
+        if (!signature(sort).equals(payload.getSort())) {
+            throw invalidCursor("cursor was issued for another sort order");
+        }
+        return payload.getKeys();
+    }
+
+    private byte[] sign(byte[] content) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(content);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign cursor", e);
+        }
+    }
+
+    private static String signature(Sort sort) {
+        StringBuilder builder = new StringBuilder();
+        for (Sort.Order order : sort) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(order.getProperty()).append(':').append(order.getDirection());
+        }
+        return builder.toString();
+    }
+
+    private static RestServiceException invalidCursor(String detail) {
+        return new RestServiceException(BAD_REQUEST, "Curseur de pagination invalide", "E001", detail);
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    private static class Payload {
+
+        private String sort;
+
+        private List<Object> keys;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.nicop.demo_actuator.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Résout les paramètres {@link CursorPageable} à partir des paramètres {@code cursor}, {@code size} et {@code sort}.
+ *
+ * Le tri suit les mêmes règles que {@link SortHandlerMethodArgumentResolver} ({@code @SortDefault} compris) et doit
+ * être déterministe : il est obligatoire, idéalement terminé par une clé unique.
+ */
+@Slf4j
+public class CursorHandlerMethodArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String CURSOR_PARAMETER = "cursor";
+    private static final String SIZE_PARAMETER = "size";
+    private static final int DEFAULT_SIZE = 20;
+
+    private final CursorCodec codec;
+    private final SortHandlerMethodArgumentResolver sortResolver;
+
+    private int defaultSize = DEFAULT_SIZE;
+
+    /**
+     * @param codec codec de signature des jetons
+     * @param sortResolver The sort resolver to use, may be {@literal null}
+     */
+    public CursorHandlerMethodArgumentResolver(CursorCodec codec, SortHandlerMethodArgumentResolver sortResolver) {
+        this.codec = codec;
+        this.sortResolver = sortResolver == null ? new SortHandlerMethodArgumentResolver() : sortResolver;
+    }
+
+    /**
+     * Taille de page utilisée quand le paramètre {@code size} est absent.
+     */
+    public void setDefaultSize(int defaultSize) {
+        this.defaultSize = defaultSize;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CursorPageable.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public CursorPageable resolveArgument(MethodParameter methodParameter, ModelAndViewContainer mavContainer,
+                                          NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+
+        Sort sort = sortResolver.resolveArgument(methodParameter, mavContainer, webRequest, binderFactory);
+        if (sort == null) {
+            throw new RestServiceException(BAD_REQUEST, "Erreur de pagination", "E002",
+                    "cursor pagination requires a sort parameter");
+        }
+
+        String sizeString = webRequest.getParameter(SIZE_PARAMETER);
+        int size = StringUtils.hasText(sizeString) ? parseAndLowerBoundary(sizeString, 1) : defaultSize;
+
+        String cursor = webRequest.getParameter(CURSOR_PARAMETER);
+        List<Object> after = StringUtils.hasText(cursor) ? codec.decode(sort, cursor) : null;
+
+        return new CursorPageable(size, sort, after, codec);
+    }
+
+    private int parseAndLowerBoundary(String parameter, int lowerLimit) {
+
+        try {
+            int parsed = Integer.parseInt(parameter);
+            return parsed < lowerLimit ? lowerLimit : parsed;
+        } catch (NumberFormatException e) {
+            return lowerLimit;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.nicop.demo_actuator.util;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requête de pagination par curseur (keyset) : la page suivante commence après les valeurs de clés de tri
+ * {@link #getAfter()} de la dernière ligne déjà renvoyée, sans offset ni comptage total.
+ *
+ * Vue comme un {@link Pageable}, elle désigne toujours la première page ({@code offset = 0}) : la requête d'accès aux
+ * données filtre sur {@code (clés de tri) > after} et limite le résultat à {@link #getPageSize()} lignes.
+ */
+@EqualsAndHashCode(exclude = {"last", "codec"})
+@ToString(exclude = {"last", "codec"})
+public final class CursorPageable implements Pageable {
+
+    private final int size;
+
+    private final Sort sort;
+
+    /**
+     * Valeurs des clés de tri de la dernière ligne renvoyée, dans l'ordre du tri ; {@literal null} pour la première page.
+     */
+    @Getter
+    private final List<Object> after;
+
+    private final CursorCodec codec;
+
+    /**
+     * Valeurs des clés de tri de la dernière ligne de la page lue, {@literal null} tant que la page n'est pas lue.
+     */
+    private final List<Object> last;
+
+    CursorPageable(int size, Sort sort, List<Object> after, CursorCodec codec) {
+        this(size, sort, after, null, codec);
+    }
+
+    private CursorPageable(int size, Sort sort, List<Object> after, List<Object> last, CursorCodec codec) {
+        this.size = size;
+        this.sort = sort;
+        this.after = after == null ? null : Collections.unmodifiableList(after);
+        this.last = last == null ? null : Collections.unmodifiableList(last);
+        this.codec = codec;
+    }
+
+    /**
+     * Calcule le jeton de continuation à partir de la dernière ligne de la page : les propriétés du tri sont lues sur
+     * le bean (chemins imbriqués acceptés) ou sur la {@link Map}.
+     */
+    public String nextCursor(Object lastRow) {
+        return codec.encode(sort, keysOf(lastRow));
+    }
+
+    /**
+     * Retourne la requête rattachée à la page lue, dont {@link #next()} désigne la page qui suit sa dernière ligne.
+     */
+    CursorPageable forPage(List<?> content) {
+        return content.isEmpty() ? this : new CursorPageable(size, sort, after, keysOf(content.get(content.size() - 1)), codec);
+    }
+
+    private List<Object> keysOf(Object row) {
+        List<Object> keys = new ArrayList<>();
+        BeanWrapper wrapper = row instanceof Map ? null : PropertyAccessorFactory.forBeanPropertyAccess(row);
+        for (Sort.Order order : sort) {
+            keys.add(wrapper == null ? ((Map<?, ?>) row).get(order.getProperty()) : wrapper.getPropertyValue(order.getProperty()));
+        }
+        return keys;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return 0;
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public int getOffset() {
+        return 0;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * Désigne la page qui commence après la dernière ligne de la page lue, voir {@link CursorSlice#nextPageable()}.
+     *
+     * @throws IllegalStateException si la requête n'est pas encore rattachée à une page lue
+     */
+    @Override
+    public CursorPageable next() {
+        if (last == null) {
+            throw new IllegalStateException("The next cursor is only known once the page has been read");
+        }
+        return new CursorPageable(size, sort, last, codec);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new CursorPageable(size, sort, null, codec);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return after != null;
+    }
+}
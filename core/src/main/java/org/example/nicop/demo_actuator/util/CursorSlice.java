@@ -0,0 +1,49 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Tranche de résultats d'une pagination par curseur. Aucun total n'est calculé : il suffit que la requête lise
+ * {@code size + 1} lignes pour savoir s'il existe une suite.
+ *
+ * @param <T> type des éléments
+ */
+public class CursorSlice<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CursorPageable pageable;
+
+    public CursorSlice(List<T> content, CursorPageable pageable, boolean hasNext) {
+        super(content, pageable, hasNext);
+        this.pageable = pageable;
+    }
+
+    /**
+     * @return le jeton de la page suivante, ou {@literal null} s'il n'y en a pas
+     */
+    public String getNextCursor() {
+        List<T> content = getContent();
+        return hasNext() && !content.isEmpty() ? pageable.nextCursor(content.get(content.size() - 1)) : null;
+    }
+
+    /**
+     * @return la requête de la page qui suit la dernière ligne de celle-ci, ou {@literal null} s'il n'y en a pas
+     */
+    @Override
+    public CursorPageable nextPageable() {
+        return hasNext() && !getContent().isEmpty() ? pageable.forPage(getContent()).next() : null;
+    }
+
+    @Override
+    public boolean isFirst() {
+        return !hasPrevious();
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return pageable.hasPrevious();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.nicop.demo_actuator.util;
+
+/**
+ * Outils de comparaison des ETag pour les requêtes conditionnelles ({@code If-None-Match}).
+ */
+public final class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+    private static final char CODING_SEPARATOR = '-';
+
+    private EntityTags() {
+    }
+
+    /**
+     * Formate une valeur en ETag fort.
+     */
+    public static String strong(String value) {
+        return '"' + value + '"';
+    }
+
+    /**
+     * Dérive l'ETag d'une représentation encodée ({@code Content-Encoding}) de celui de la représentation identité :
+     * {@code "abc"} devient {@code "abc-gzip"}, le préfixe {@code W/} est conservé.
+     *
+     * @param etag ETag de la représentation identité
+     * @param coding jeton de l'encodage, {@code gzip} par exemple
+     */
+    public static String withCoding(String etag, String coding) {
+        int close = etag.length() - 1;
+        if (close < 1 || etag.charAt(close) != '"') {
+            return etag;
+        }
+        return etag.substring(0, close) + CODING_SEPARATOR + coding + '"';
+    }
+
+    /**
+     * Ramène les ETag encodés d'un en-tête {@code If-None-Match} à leur forme identité, pour les comparer aux ETag
+     * calculés sur le corps non compressé.
+     *
+     * @param ifNoneMatch valeur de l'en-tête, peut être {@literal null}
+     * @param coding jeton de l'encodage
+     * @return l'en-tête sans le suffixe d'encodage, inchangé s'il ne le contient pas
+     */
+    public static String withoutCoding(String ifNoneMatch, String coding) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        return ifNoneMatch.replace(CODING_SEPARATOR + coding + '"', "\"");
+    }
+
+    /**
+     * Indique si l'en-tête {@code If-None-Match} désigne l'ETag donné. La comparaison est faible, comme l'impose la
+     * RFC 7232 pour cet en-tête : le préfixe {@code W/} est ignoré des deux côtés.
+     *
+     * @param ifNoneMatch valeur de l'en-tête, peut être {@literal null}
+     * @param etag ETag de la représentation courante
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String current = stripWeakPrefix(etag);
+        int start = 0;
+        while (start < ifNoneMatch.length()) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end == -1) {
+                end = ifNoneMatch.length();
+            }
+            String candidate = stripWeakPrefix(ifNoneMatch.substring(start, end).trim());
+            if (ANY.equals(candidate) || current.equals(candidate)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+}
@@ -0,0 +1,314 @@
+package org.example.nicop.demo_actuator.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Projection compilée d'une réponse partielle ({@code fields} ou {@code excluded_fields}).
+ *
+ * L'expression est découpée une seule fois en un arbre de chemins immuable (ex : {@code data.items.name}), puis partagée
+ * entre toutes les requêtes qui portent la même valeur de paramètre. Le filtre résout le chemin de chaque propriété à
+ * partir du contexte d'écriture du {@link JsonGenerator}, sans allocation.
+ *
+ * Les chemins s'appliquent au bloc {@code data} de l'enveloppe : {@code name} et {@code data.name} sont équivalents,
+ * {@code data} désigne le bloc entier, {@code metadata} et {@code errors} sont toujours sérialisés.
+ *
+ * Seule l'enveloppe porte le filtre ({@link FieldProjectionModule}) : sans projection, les réponses, endpoints Actuator
+ * compris, sont sérialisées sans filtre. Un bloc {@code data} projeté est écrit dans le même générateur par une copie de
+ * l'ObjectMapper qui affecte le filtre à tous les beans, afin que la projection s'applique aussi aux objets imbriqués.
+ */
+public final class FieldProjection extends SimpleFilterProvider {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identifiant de filtre Jackson de l'enveloppe {@link ResponseWrapper}, voir {@link FieldProjectionModule}.
+     */
+    public static final String FILTER_ID = "partialResponse";
+
+    /**
+     * Identifiant de filtre des beans du bloc {@code data}, affecté par l'ObjectMapper de projection uniquement.
+     */
+    private static final String DATA_FILTER_ID = FILTER_ID + ".data";
+
+    /**
+     * Projection vide, fournisseur de filtres par défaut de l'ObjectMapper : l'enveloppe est sérialisée sans filtre.
+     */
+    public static final FieldProjection NONE = new FieldProjection(Node.PASS);
+
+    private static final String SEPARATOR = ",";
+    private static final char PATH_SEPARATOR = '.';
+    private static final String DATA_FIELD = "data";
+
+    private static final int CACHE_CAPACITY = 256;
+
+    private static final LruCache<String, FieldProjection> INCLUDING = new LruCache<>(CACHE_CAPACITY);
+    private static final LruCache<String, FieldProjection> EXCLUDING = new LruCache<>(CACHE_CAPACITY);
+
+    /**
+     * ObjectMapper de projection de chaque ObjectMapper de l'application (JSON et formats binaires), créé à la première
+     * réponse projetée.
+     */
+    private static final Map<ObjectCodec, ObjectMapper> PROJECTING_MAPPERS =
+            new ConcurrentReferenceHashMap<>(4, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+    private final Node root;
+
+    private final PropertyFilter envelopeFilter;
+
+    private final PropertyFilter dataFilter;
+
+    private FieldProjection(Node dataNode) {
+        this.root = Node.envelope(dataNode);
+        this.envelopeFilter = dataNode == Node.PASS ? null : new EnvelopeFilter();
+        this.dataFilter = dataNode == Node.PASS ? null : new ProjectionFilter(root);
+    }
+
+    /**
+     * Retourne la projection qui ne sérialise que les chemins listés.
+     *
+     * @param fields valeur brute du paramètre {@code fields}
+     */
+    public static FieldProjection including(String fields) {
+        return INCLUDING.get(fields, f -> new FieldProjection(compile(f, Node.PASS, Node.DROP)));
+    }
+
+    /**
+     * Retourne la projection qui sérialise tout sauf les chemins listés.
+     *
+     * @param fields valeur brute du paramètre {@code excluded_fields}
+     */
+    public static FieldProjection excluding(String fields) {
+        return EXCLUDING.get(fields, f -> new FieldProjection(compile(f, Node.DROP, Node.PASS)));
+    }
+
+    /**
+     * @return {@literal null} pour la projection vide : Jackson sérialise alors l'enveloppe sans filtre
+     */
+    @Override
+    public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+        return DATA_FILTER_ID.equals(filterId) ? dataFilter : envelopeFilter;
+    }
+
+    /**
+     * Noeud du chemin {@code data.<path>}, pour les tests.
+     */
+    Node node(String... path) {
+        Node node = root.child(DATA_FIELD);
+        for (String name : path) {
+            node = node.child(name);
+        }
+        return node;
+    }
+
+    /**
+     * Compile l'expression en arbre de chemins.
+     *
+     * @param expression liste de chemins séparés par des virgules
+     * @param leaf noeud affecté à la fin d'un chemin listé
+     * @param fallback noeud affecté aux propriétés non listées
+     */
+    private static Node compile(String expression, Node leaf, Node fallback) {
+        Builder root = new Builder();
+        int start = 0;
+        while (start <= expression.length()) {
+            int end = expression.indexOf(SEPARATOR, start);
+            if (end == -1) {
+                end = expression.length();
+            }
+            String path = expression.substring(start, end).trim();
+            if (path.equals(DATA_FIELD)) {
+                root.all();
+            } else if (!path.isEmpty()) {
+                root.add(path.startsWith(DATA_FIELD + PATH_SEPARATOR) ? path.substring(DATA_FIELD.length() + 1) : path);
+            }
+            start = end + SEPARATOR.length();
+        }
+        return root.build(leaf, fallback);
+    }
+
+    /**
+     * Noeud immuable de l'arbre de projection.
+     */
+    static final class Node {
+
+        /** La propriété et toute sa descendance sont sérialisées. */
+        static final Node PASS = new Node(Collections.emptyMap(), null);
+
+        /** La propriété n'est pas sérialisée. */
+        static final Node DROP = new Node(Collections.emptyMap(), null);
+
+        private final Map<String, Node> children;
+
+        private final Node fallback;
+
+        private Node(Map<String, Node> children, Node fallback) {
+            this.children = children;
+            this.fallback = fallback;
+        }
+
+        static Node envelope(Node data) {
+            return new Node(Collections.singletonMap(DATA_FIELD, data), PASS);
+        }
+
+        Node child(String name) {
+            if (this == PASS || this == DROP) {
+                return this;
+            }
+            Node child = children.get(name);
+            return child != null ? child : fallback;
+        }
+    }
+
+    /**
+     * Construction mutable de l'arbre, utilisée uniquement à la compilation.
+     */
+    private static final class Builder {
+
+        private final Map<String, Builder> children = new HashMap<>();
+
+        private boolean terminal;
+
+        /**
+         * Le chemin désigne ce noeud entier, qui absorbe les chemins plus longs.
+         */
+        void all() {
+            terminal = true;
+            children.clear();
+        }
+
+        void add(String path) {
+            Builder current = this;
+            int start = 0;
+            while (!current.terminal) {
+                int end = path.indexOf(PATH_SEPARATOR, start);
+                String name = end == -1 ? path.substring(start) : path.substring(start, end);
+                current = current.children.computeIfAbsent(name, n -> new Builder());
+                if (end == -1) {
+                    current.all();
+                    return;
+                }
+                start = end + 1;
+            }
+        }
+
+        Node build(Node leaf, Node fallback) {
+            if (terminal) {
+                return leaf;
+            }
+            Map<String, Node> nodes = new HashMap<>();
+            for (Map.Entry<String, Builder> entry : children.entrySet()) {
+                nodes.put(entry.getKey(), entry.getValue().build(leaf, fallback));
+            }
+            return new Node(Collections.unmodifiableMap(nodes), fallback);
+        }
+    }
+
+    /**
+     * Filtre de l'enveloppe : {@code metadata} et {@code errors} sont écrits tels quels, un bloc {@code data} projeté
+     * est écrit par l'ObjectMapper de projection.
+     */
+    private final class EnvelopeFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+            Node node = root.child(writer.getName());
+            if (node == Node.PASS || !(writer instanceof BeanPropertyWriter)) {
+                writer.serializeAsField(pojo, jgen, provider);
+                return;
+            }
+            Object value = ((BeanPropertyWriter) writer).get(pojo);
+            if (node != Node.DROP && value != null) {
+                jgen.writeFieldName(writer.getName());
+                projectingMapper(jgen.getCodec()).writer(FieldProjection.this)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .writeValue(jgen, value);
+            } else {
+                if (value instanceof StreamingData) {
+                    // le sérialiseur ne s'exécutera pas : la source doit être libérée ici
+                    ((StreamingData) value).skip();
+                }
+                if (!jgen.canOmitFields()) {
+                    writer.serializeAsOmittedField(pojo, jgen, provider);
+                }
+            }
+        }
+    }
+
+    private static ObjectMapper projectingMapper(ObjectCodec codec) {
+        if (!(codec instanceof ObjectMapper)) {
+            throw new IllegalStateException("Partial responses need a generator created by an ObjectMapper");
+        }
+        return PROJECTING_MAPPERS.computeIfAbsent(codec, c -> {
+            ObjectMapper mapper = ((ObjectMapper) c).copy();
+            return mapper.setAnnotationIntrospector(AnnotationIntrospector.pair(new DataFilterIntrospector(),
+                    mapper.getSerializationConfig().getAnnotationIntrospector()));
+        });
+    }
+
+    /**
+     * Affecte le filtre du bloc {@code data} à tous les beans, y compris ceux sans annotation {@code @JsonFilter}.
+     */
+    private static final class DataFilterIntrospector extends NopAnnotationIntrospector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            return annotated instanceof AnnotatedClass ? DATA_FILTER_ID : null;
+        }
+    }
+
+    /**
+     * Filtre partagé du bloc {@code data} : la décision dépend uniquement du chemin de la propriété dans le document
+     * en cours d'écriture.
+     */
+    private static final class ProjectionFilter extends SimpleBeanPropertyFilter {
+
+        private final Node root;
+
+        ProjectionFilter(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+            if (nodeFor(jgen.getOutputContext()).child(writer.getName()) != Node.DROP) {
+                writer.serializeAsField(pojo, jgen, provider);
+            } else if (!jgen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, jgen, provider);
+            }
+        }
+
+        /**
+         * Retrouve le noeud de l'objet en cours d'écriture en remontant les contextes : un objet ouvert sous un champ
+         * correspond au fils de ce champ, un élément de tableau au noeud du tableau lui-même.
+         */
+        private Node nodeFor(JsonStreamContext context) {
+            JsonStreamContext parent = context.getParent();
+            if (parent == null || parent.inRoot()) {
+                return root;
+            }
+            Node parentNode = nodeFor(parent);
+            return parent.inObject() ? parentNode.child(parent.getCurrentName()) : parentNode;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.nicop.demo_actuator.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Module Jackson qui affecte le filtre de réponse partielle à l'enveloppe {@link ResponseWrapper}, et à elle seule :
+ * les autres beans, endpoints Actuator compris, restent sur le chemin de sérialisation sans filtre. Le bloc
+ * {@code data} projeté est filtré par {@link FieldProjection}.
+ */
+public class FieldProjectionModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public FieldProjectionModule() {
+        super(FieldProjectionModule.class.getSimpleName());
+        setMixInAnnotation(ResponseWrapper.class, ProjectedEnvelope.class);
+    }
+
+    @JsonFilter(FieldProjection.FILTER_ID)
+    private abstract static class ProjectedEnvelope {
+    }
+}
@@ -0,0 +1,211 @@
+package org.example.nicop.demo_actuator.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences à mémoire fixe, sans verrou, sur le modèle de HdrHistogram.
+ *
+ * Les valeurs sont rangées dans des cases log-linéaires : chaque puissance de deux est découpée en sous-cases dont le
+ * nombre garantit la précision demandée ({@code significantDigits} chiffres significatifs). L'enregistrement se
+ * réduit à un calcul d'indice et un incrément atomique ; la mémoire dépend seulement de la précision et de la valeur
+ * maximale suivie, au-delà de laquelle les valeurs sont ramenées à ce maximum.
+ */
+public final class LatencyHistogram {
+
+    private final long highestTrackableValue;
+
+    private final int subBucketHalfCountMagnitude;
+
+    private final int subBucketHalfCount;
+
+    private final long subBucketMask;
+
+    private final int leadingZeroCountBase;
+
+    private final AtomicLongArray counts;
+
+    private final LongAdder totalCount = new LongAdder();
+
+    private final LongAdder totalSum = new LongAdder();
+
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param highestTrackableValue plus grande valeur distinguée, au moins 2
+     * @param significantDigits précision des valeurs restituées, de 1 à 4 chiffres significatifs
+     */
+    public LatencyHistogram(long highestTrackableValue, int significantDigits) {
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("Highest trackable value must be at least 2");
+        }
+        if (significantDigits < 1 || significantDigits > 4) {
+            throw new IllegalArgumentException("Significant digits must be between 1 and 4");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+
+        long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestValueWithSingleUnitResolution) / Math.log(2));
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+        long smallestUntrackableValue = subBucketCount;
+        int bucketCount = 1;
+        while (smallestUntrackableValue <= highestTrackableValue) {
+            if (smallestUntrackableValue > Long.MAX_VALUE / 2) {
+                bucketCount++;
+                break;
+            }
+            smallestUntrackableValue <<= 1;
+            bucketCount++;
+        }
+        this.counts = new AtomicLongArray((bucketCount + 1) * subBucketHalfCount);
+    }
+
+    /**
+     * Enregistre une valeur ; une valeur négative compte pour 0.
+     */
+    public void record(long value) {
+        long bounded = Math.min(Math.max(value, 0), highestTrackableValue);
+        counts.incrementAndGet(countsIndex(bounded));
+        totalCount.increment();
+        totalSum.add(bounded);
+        maxValue.accumulate(bounded);
+    }
+
+    int countsIndex(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    /**
+     * @return la plus grande valeur rangée dans la même case que l'indice donné
+     */
+    long highestEquivalentValue(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        long lowest = (long) subBucketIndex << bucketIndex;
+        return lowest + (1L << bucketIndex) - 1;
+    }
+
+    /**
+     * Copie des compteurs pour le calcul des centiles. Les enregistrements concurrents peuvent y apparaître en partie.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, totalSum.sum(), maxValue.get());
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Remet l'histogramme à zéro. Un enregistrement concurrent peut être perdu ou compté en partie.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        maxValue.reset();
+    }
+
+    /**
+     * @return un instantané vide, neutre pour {@link Snapshot#merge(Snapshot)}
+     */
+    public Snapshot emptySnapshot() {
+        return new Snapshot(new long[counts.length()], 0, 0);
+    }
+
+    /**
+     * Centiles et statistiques d'un histogramme à un instant donné.
+     */
+    public final class Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long max;
+
+        private Snapshot(long[] counts, long sum, long max) {
+            long total = 0;
+            for (long bucket : counts) {
+                total += bucket;
+            }
+            this.counts = counts;
+            this.count = total;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @param other instantané d'un histogramme de même précision et de même valeur maximale
+         * @return la somme des deux instantanés
+         */
+        public Snapshot merge(Snapshot other) {
+            if (other.counts.length != counts.length) {
+                throw new IllegalArgumentException("Cannot merge histograms of different layouts");
+            }
+            long[] merged = new long[counts.length];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(merged, sum + other.sum, Math.max(max, other.max));
+        }
+
+        /**
+         * @return la somme exacte des valeurs enregistrées
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * @param percentile centile entre 0 et 100
+         * @return la valeur sous laquelle se trouve au moins ce pourcentage des enregistrements, 0 si vide
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestEquivalentValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.nicop.demo_actuator.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Cache borné, partagé entre les threads de requête, sans verrou.
+ *
+ * Une lecture se réduit à une recherche dans une {@link ConcurrentHashMap} et au marquage de l'entrée. L'éviction suit
+ * l'algorithme de l'horloge (seconde chance), approximation du LRU : les entrées sont parcourues dans l'ordre
+ * d'insertion, une entrée lue depuis son dernier passage est conservée et perd sa marque, les autres sont retirées.
+ * La taille peut dépasser brièvement la capacité pendant des insertions concurrentes.
+ *
+ * La valeur est calculée hors de toute section critique : un calcul concurrent de la même clé est donc possible mais
+ * sans conséquence pour des valeurs immuables.
+ *
+ * @param <K> type de la clé
+ * @param <V> type de la valeur, qui doit être immuable
+ */
+public final class LruCache<K, V> {
+
+    private final int capacity;
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Entrées dans l'ordre de passage de l'horloge. Une entrée retirée ou remplacée y reste jusqu'à son prochain
+     * passage.
+     */
+    private final Queue<Entry<K, V>> clock = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public LruCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must not be less than one");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Retourne la valeur associée à la clé, en la calculant puis en la mémorisant si elle est absente.
+     *
+     * @param key clé, ne doit pas être {@literal null}
+     * @param loader fonction de calcul de la valeur
+     * @return la valeur en cache ou nouvellement calculée
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        Entry<K, V> created = new Entry<>(key, loader.apply(key));
+        Entry<K, V> previous = entries.putIfAbsent(key, created);
+        if (previous != null) {
+            return previous.read();
+        }
+        admit(created);
+        return created.value;
+    }
+
+    /**
+     * Retourne la valeur en cache, ou {@literal null} si elle est absente.
+     */
+    public V getIfPresent(K key) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null ? entry.read() : null;
+    }
+
+    public void put(K key, V value) {
+        Entry<K, V> created = new Entry<>(key, value);
+        entries.put(key, created);
+        admit(created);
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Inscrit l'entrée dans l'horloge puis fait avancer celle-ci tant que le cache dépasse sa capacité, ou que les
+     * entrées retirées en attente dans l'horloge sont plus nombreuses que la capacité.
+     */
+    private void admit(Entry<K, V> entry) {
+        clock.offer(entry);
+        queued.incrementAndGet();
+        while (entries.size() > capacity || queued.get() > 2 * capacity) {
+            Entry<K, V> candidate = clock.poll();
+            if (candidate == null) {
+                return;
+            }
+            if (entries.get(candidate.key) != candidate) {
+                // retirée ou remplacée depuis son inscription
+                queued.decrementAndGet();
+            } else if (candidate.referenced && entries.size() > capacity) {
+                candidate.referenced = false;
+                clock.offer(candidate);
+            } else if (entries.size() > capacity) {
+                entries.remove(candidate.key, candidate);
+                queued.decrementAndGet();
+            } else {
+                clock.offer(candidate);
+            }
+        }
+    }
+
+    private static final class Entry<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        /**
+         * Lue depuis le dernier passage de l'horloge. Écrite sans synchronisation : une marque perdue ne fait
+         * qu'avancer l'éviction de l'entrée.
+         */
+        private volatile boolean referenced;
+
+        private Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        V read() {
+            if (!referenced) {
+                referenced = true;
+            }
+            return value;
+        }
+    }
+}
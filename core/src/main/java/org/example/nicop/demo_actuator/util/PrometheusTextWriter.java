@@ -0,0 +1,255 @@
+package org.example.nicop.demo_actuator.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Écriture du format texte d'exposition Prometheus (version 0.0.4) dans un tampon d'octets réutilisé, vidé dans le flux
+ * de sortie à mesure qu'il se remplit.
+ *
+ * Noms, étiquettes et valeurs entières sont encodés caractère par caractère, sans chaîne ni table intermédiaire. Un
+ * échantillon s'écrit {@code name(...).label(...)...value(...)}.
+ */
+public final class PrometheusTextWriter {
+
+    private static final byte[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private boolean labelsOpen;
+
+    /**
+     * @param buffer tampon de travail, réutilisable d'une écriture à l'autre une fois {@link #flush()} appelé
+     */
+    public PrometheusTextWriter(OutputStream out, byte[] buffer) {
+        if (buffer.length < 8) {
+            throw new IllegalArgumentException("Buffer must hold at least 8 bytes");
+        }
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return le nom donné, ses caractères hors de {@code [a-zA-Z0-9_:]} remplacés par {@code _}
+     */
+    public static String sanitize(String name) {
+        StringBuilder sanitized = null;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_' || c == ':'
+                    || c >= '0' && c <= '9' && i > 0;
+            if (!valid && sanitized == null) {
+                sanitized = new StringBuilder(name.length() + 1);
+                sanitized.append(name, 0, i);
+            }
+            if (sanitized != null) {
+                sanitized.append(valid ? c : '_');
+            }
+        }
+        return sanitized == null ? name : sanitized.toString();
+    }
+
+    /**
+     * Écrit la ligne {@code # TYPE} d'une famille de métriques.
+     *
+     * @param name nom déjà conforme, voir {@link #sanitize(String)}
+     * @param type {@code counter}, {@code gauge}, {@code summary}...
+     */
+    public PrometheusTextWriter type(String name, String type) throws IOException {
+        ascii("# TYPE ");
+        text(name);
+        write(' ');
+        ascii(type);
+        write('\n');
+        return this;
+    }
+
+    /**
+     * Commence un échantillon.
+     *
+     * @param name nom déjà conforme, voir {@link #sanitize(String)}
+     */
+    public PrometheusTextWriter name(String name) throws IOException {
+        text(name);
+        return this;
+    }
+
+    /**
+     * Commence un échantillon dont le nom est suivi d'un suffixe ({@code _sum}, {@code _count}).
+     */
+    public PrometheusTextWriter name(String name, String suffix) throws IOException {
+        text(name);
+        ascii(suffix);
+        return this;
+    }
+
+    public PrometheusTextWriter label(String name, String value) throws IOException {
+        write(labelsOpen ? ',' : '{');
+        labelsOpen = true;
+        ascii(name);
+        write('=');
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                write('\\');
+                write(c);
+            } else if (c == '\n') {
+                write('\\');
+                write('n');
+            } else {
+                i = character(value, i);
+            }
+        }
+        write('"');
+        return this;
+    }
+
+    /**
+     * Termine l'échantillon par une valeur entière.
+     */
+    public void value(long value) throws IOException {
+        endLabels();
+        digits(value);
+        write('\n');
+    }
+
+    /**
+     * Termine l'échantillon par une valeur décimale exacte {@code unscaled / 10^scale}, par exemple des microsecondes
+     * exprimées en secondes avec {@code scale} 6.
+     */
+    public void value(long unscaled, int scale) throws IOException {
+        endLabels();
+        if (unscaled < 0) {
+            write('-');
+            unscaled = -unscaled;
+        }
+        long divisor = 1;
+        for (int i = 0; i < scale; i++) {
+            divisor *= 10;
+        }
+        digits(unscaled / divisor);
+        if (scale > 0) {
+            write('.');
+            long fraction = unscaled % divisor;
+            for (long digit = divisor / 10; digit > 0; digit /= 10) {
+                write(DIGITS[(int) (fraction / digit % 10)]);
+            }
+        }
+        write('\n');
+    }
+
+    /**
+     * Termine l'échantillon par une valeur quelconque ; seules les valeurs décimales non entières passent par une chaîne.
+     */
+    public void value(Number value) throws IOException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            value(value.longValue());
+            return;
+        }
+        double number = value.doubleValue();
+        if (number == (long) number && Math.abs(number) < 1e15) {
+            value((long) number);
+            return;
+        }
+        endLabels();
+        if (Double.isNaN(number)) {
+            ascii("NaN");
+        } else if (Double.isInfinite(number)) {
+            ascii(number > 0 ? "+Inf" : "-Inf");
+        } else {
+            ascii(Double.toString(number));
+        }
+        write('\n');
+    }
+
+    /**
+     * Vide le tampon dans le flux de sortie.
+     */
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    private void endLabels() throws IOException {
+        if (labelsOpen) {
+            write('}');
+            labelsOpen = false;
+        }
+        write(' ');
+    }
+
+    private void digits(long value) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                ascii(Long.toString(value));
+                return;
+            }
+            write('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            write(DIGITS[(int) (value / divisor % 10)]);
+        }
+    }
+
+    private void ascii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            write(value.charAt(i));
+        }
+    }
+
+    private void text(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            i = character(value, i);
+        }
+    }
+
+    /**
+     * Écrit en UTF-8 le caractère à l'indice donné.
+     *
+     * @return l'indice du dernier {@code char} consommé, le second d'une paire de substitution
+     */
+    private int character(String value, int index) throws IOException {
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            write(c);
+        } else if (c < 0x800) {
+            write(0xC0 | c >> 6);
+            write(0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++index));
+            write(0xF0 | codePoint >> 18);
+            write(0x80 | codePoint >> 12 & 0x3F);
+            write(0x80 | codePoint >> 6 & 0x3F);
+            write(0x80 | codePoint & 0x3F);
+        } else if (Character.isSurrogate(c)) {
+            write('?');
+        } else {
+            write(0xE0 | c >> 12);
+            write(0x80 | c >> 6 & 0x3F);
+            write(0x80 | c & 0x3F);
+        }
+        return index;
+    }
+
+    private void write(int b) throws IOException {
+        if (position == buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = (byte) b;
+    }
+}
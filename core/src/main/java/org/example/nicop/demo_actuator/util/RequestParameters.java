@@ -0,0 +1,42 @@
+package org.example.nicop.demo_actuator.util;
+
+import javax.servlet.ServletRequest;
+import java.util.Map;
+
+/**
+ * Vue en lecture seule sur les paramètres de la requête, adossée à la table déjà analysée et décodée par le conteneur
+ * de servlets. Aucune copie n'est faite : seuls les paramètres effectivement lus sont consultés.
+ *
+ * Contrairement à une analyse de la chaîne de requête en table simple, les valeurs répétées d'un même paramètre sont
+ * conservées.
+ * Pour une requête {@code POST} de formulaire, la table du conteneur contient aussi les paramètres du corps.
+ */
+public final class RequestParameters {
+
+    private final Map<String, String[]> parameters;
+
+    private RequestParameters(Map<String, String[]> parameters) {
+        this.parameters = parameters;
+    }
+
+    public static RequestParameters of(ServletRequest request) {
+        return new RequestParameters(request.getParameterMap());
+    }
+
+    public boolean contains(String name) {
+        return parameters.containsKey(name);
+    }
+
+    /**
+     * Retourne les valeurs du paramètre concaténées avec le séparateur ; sans copie quand le paramètre n'a qu'une valeur.
+     *
+     * @return la valeur concaténée, ou {@literal null} si le paramètre est absent
+     */
+    public String getJoined(String name, String separator) {
+        String[] values = parameters.get(name);
+        if (values == null || values.length == 0) {
+            return null;
+        }
+        return values.length == 1 ? values[0] : String.join(separator, values);
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.nicop.demo_actuator.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bloc {@code metadata} de l'enveloppe {@link ResponseWrapper}.
+ *
+ * Quatre formes existent : la page ({@code page}, {@code size}, {@code total_elements}, {@code total_pages},
+ * {@code first}, {@code last}), la tranche sans total ({@code page}, {@code size}, {@code first}, {@code has_next}), la
+ * tranche par curseur ({@code size}, {@code first}, {@code has_next}, {@code next_cursor}) et l'erreur ({@code status}).
+ * Les valeurs sont écrites en nombres et booléens JSON par un sérialiseur dédié, dont les noms de champs sont
+ * pré-encodés.
+ *
+ * Les instances sont immuables : les métadonnées d'erreur de chaque statut et celles des petites collections sur une
+ * seule page sont mises en cache.
+ */
+@Getter
+@JsonSerialize(using = ResponseMetadata.Serializer.class)
+public final class ResponseMetadata {
+
+    private static final int CACHED_SINGLE_PAGES = 256;
+
+    private static final ResponseMetadata[] SINGLE_PAGES = new ResponseMetadata[CACHED_SINGLE_PAGES];
+
+    private static final Map<HttpStatus, ResponseMetadata> ERRORS = new EnumMap<>(HttpStatus.class);
+
+    static {
+        for (int size = 0; size < CACHED_SINGLE_PAGES; size++) {
+            SINGLE_PAGES[size] = new ResponseMetadata(Kind.PAGE, null, 1, size, size, 1, true, true, null);
+        }
+        for (HttpStatus status : HttpStatus.values()) {
+            ERRORS.put(status, new ResponseMetadata(Kind.ERROR, status, 0, 0, 0, 0, false, false, null));
+        }
+    }
+
+    @Getter(AccessLevel.NONE)
+    private final Kind kind;
+
+    /**
+     * Statut d'une réponse en erreur, {@literal null} pour une réponse paginée.
+     */
+    private final HttpStatus status;
+
+    private final int page;
+
+    private final int size;
+
+    private final long totalElements;
+
+    private final int totalPages;
+
+    private final boolean first;
+
+    /**
+     * Pour une page ou une tranche, indique s'il n'y a pas de suite.
+     */
+    private final boolean last;
+
+    /**
+     * Jeton de la page suivante d'une pagination par curseur.
+     */
+    private final String nextCursor;
+
+    private ResponseMetadata(Kind kind, HttpStatus status, int page, int size, long totalElements, int totalPages,
+                             boolean first, boolean last, String nextCursor) {
+        this.kind = kind;
+        this.status = status;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.first = first;
+        this.last = last;
+        this.nextCursor = nextCursor;
+    }
+
+    public static ResponseMetadata page(int page, int size, long totalElements, int totalPages, boolean first, boolean last) {
+        return new ResponseMetadata(Kind.PAGE, null, page, size, totalElements, totalPages, first, last, null);
+    }
+
+    /**
+     * Métadonnées d'une {@link org.springframework.data.domain.Slice}, sans comptage total.
+     */
+    public static ResponseMetadata slice(int page, int size, boolean first, boolean hasNext) {
+        return new ResponseMetadata(Kind.SLICE, null, page, size, 0, 0, first, !hasNext, null);
+    }
+
+    /**
+     * Métadonnées d'une {@link CursorSlice}.
+     *
+     * @param nextCursor jeton de la page suivante, {@literal null} s'il n'y en a pas
+     */
+    public static ResponseMetadata cursor(int size, boolean first, boolean hasNext, String nextCursor) {
+        return new ResponseMetadata(Kind.CURSOR, null, 0, size, 0, 0, first, !hasNext, nextCursor);
+    }
+
+    /**
+     * Métadonnées d'une collection renvoyée en une seule page.
+     *
+     * @param count nombre d'éléments de la collection
+     */
+    public static ResponseMetadata singlePage(long count) {
+        if (count < CACHED_SINGLE_PAGES) {
+            return SINGLE_PAGES[(int) count];
+        }
+        return new ResponseMetadata(Kind.PAGE, null, 1, (int) Math.min(count, Integer.MAX_VALUE), count, 1, true, true, null);
+    }
+
+    public static ResponseMetadata error(HttpStatus status) {
+        return ERRORS.get(status);
+    }
+
+    public boolean isError() {
+        return kind == Kind.ERROR;
+    }
+
+    public boolean hasNext() {
+        return !last;
+    }
+
+    private enum Kind {
+        PAGE, SLICE, CURSOR, ERROR
+    }
+
+    static final class Serializer extends StdSerializer<ResponseMetadata> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final SerializableString STATUS = new SerializedString("status");
+        private static final SerializableString PAGE = new SerializedString("page");
+        private static final SerializableString SIZE = new SerializedString("size");
+        private static final SerializableString TOTAL_ELEMENTS = new SerializedString("total_elements");
+        private static final SerializableString TOTAL_PAGES = new SerializedString("total_pages");
+        private static final SerializableString FIRST = new SerializedString("first");
+        private static final SerializableString LAST = new SerializedString("last");
+        private static final SerializableString HAS_NEXT = new SerializedString("has_next");
+        private static final SerializableString NEXT_CURSOR = new SerializedString("next_cursor");
+
+        Serializer() {
+            super(ResponseMetadata.class);
+        }
+
+        @Override
+        public void serialize(ResponseMetadata value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            switch (value.kind) {
+                case ERROR:
+                    gen.writeFieldName(STATUS);
+                    gen.writeNumber(value.status.value());
+                    break;
+                case PAGE:
+                    gen.writeFieldName(PAGE);
+                    gen.writeNumber(value.page);
+                    gen.writeFieldName(SIZE);
+                    gen.writeNumber(value.size);
+                    gen.writeFieldName(TOTAL_ELEMENTS);
+                    gen.writeNumber(value.totalElements);
+                    gen.writeFieldName(TOTAL_PAGES);
+                    gen.writeNumber(value.totalPages);
+                    gen.writeFieldName(FIRST);
+                    gen.writeBoolean(value.first);
+                    gen.writeFieldName(LAST);
+                    gen.writeBoolean(value.last);
+                    break;
+                case SLICE:
+                    gen.writeFieldName(PAGE);
+                    gen.writeNumber(value.page);
+                    gen.writeFieldName(SIZE);
+                    gen.writeNumber(value.size);
+                    gen.writeFieldName(FIRST);
+                    gen.writeBoolean(value.first);
+                    gen.writeFieldName(HAS_NEXT);
+                    gen.writeBoolean(value.hasNext());
+                    break;
+                case CURSOR:
+                    gen.writeFieldName(SIZE);
+                    gen.writeNumber(value.size);
+                    gen.writeFieldName(FIRST);
+                    gen.writeBoolean(value.first);
+                    gen.writeFieldName(HAS_NEXT);
+                    gen.writeBoolean(value.hasNext());
+                    if (value.nextCursor != null) {
+                        gen.writeFieldName(NEXT_CURSOR);
+                        gen.writeString(value.nextCursor);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown metadata kind " + value.kind);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.nicop.demo_actuator.util;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,8 +10,13 @@ import java.util.List;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.*;
 
+/**
+ * Enveloppe des réponses. Le bloc {@code metadata} est écrit après {@code data} : les métadonnées d'une réponse streamée
+ * ne sont connues qu'une fois les éléments écrits, voir {@link StreamingData}.
+ */
 @Data
 @JsonInclude(NON_NULL)
+@JsonPropertyOrder({"data", "metadata", "errors"})
 @AllArgsConstructor
 @NoArgsConstructor
 public class ResponseWrapper {
@@ -1,12 +1,8 @@
 package org.example.nicop.demo_actuator.util;
 
-import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.ser.PropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter.FilterExceptFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter.SerializeExceptFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import lombok.Getter;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,7 +11,6 @@ import org.springframework.http.converter.json.MappingJacksonValue;
 import java.text.MessageFormat;
 import java.util.*;
 
-import static java.util.Collections.emptySet;
 import static org.springframework.http.HttpStatus.*;
 
 
@@ -27,8 +22,11 @@ import static org.springframework.http.HttpStatus.*;
  *  ResponseEntity<Object>
  *  Page<Object>
  *  ResponseEntity<Page<Object>>
+ *  Slice<Object>, CursorSlice<Object>
  *  Collection<Object>
  *  ResponseEntity<Collection<Object>>
+ *  Stream<Object>, Iterator<Object>
+ *  StreamingPage<Object>
  *  Exception
  *
  */
@@ -48,8 +46,12 @@ public final class ResponseWrapperProcessor {
 
     private ResponseEntity wrappingEntity;
     private Page wrappingPage;
+    private Slice wrappingSlice;
+    private StreamingPage wrappingStreamingPage;
+    @Getter
+    private StreamingData streamingData;
 
-    private Map<String, String> pathParams;
+    private RequestParameters requestParams;
 
     private Object body;
 
@@ -59,8 +61,8 @@ public final class ResponseWrapperProcessor {
     @Getter
     private MappingJacksonValue mappingJacksonValue;
 
-    public ResponseWrapperProcessor(Object body, Map<String, String> pathParams) {
-        this.pathParams = pathParams;
+    public ResponseWrapperProcessor(Object body, RequestParameters requestParams) {
+        this.requestParams = requestParams;
         this.body = body;
     }
 
@@ -71,6 +73,8 @@ public final class ResponseWrapperProcessor {
 
             unwrapFromPage();
 
+            unwrapFromStream();
+
             wrapResponseBody();
 
             filterPartialResponse();
@@ -80,7 +84,11 @@ public final class ResponseWrapperProcessor {
             determineStatusCode();
 
         } catch(RestServiceException bde) {
+            if(isStreamed()) {
+                streamingData.close();
+            }
             wrapError(bde.getErrors());
+            mappingJacksonValue = new MappingJacksonValue(responseWrapper);
             responseHeaders.clear();
             status = bde.getErrors().getStatus();
         }
@@ -97,6 +105,20 @@ public final class ResponseWrapperProcessor {
         if(isPaged()) {
             wrappingPage = ((Page<?>) body);
             body = wrappingPage.getContent();
+        } else if(isSliced()) {
+            wrappingSlice = ((Slice<?>) body);
+            body = wrappingSlice.getContent();
+        }
+    }
+
+    private void unwrapFromStream() {
+        if(body instanceof StreamingPage) {
+            wrappingStreamingPage = (StreamingPage<?>) body;
+            body = wrappingStreamingPage.getContent();
+        }
+        if(StreamingData.isStreamable(body)) {
+            streamingData = StreamingData.of(body);
+            body = streamingData;
         }
     }
 
@@ -108,34 +130,35 @@ public final class ResponseWrapperProcessor {
         } else {
             responseWrapper.setData(body);
             if(hasPageInformation()) {
-                Map<String, String> metadata= new HashMap<>();
-                metadata.put("page", Integer.toString(wrappingPage.getNumber()));
-                metadata.put("size", Integer.toString(wrappingPage.getSize()));
-                metadata.put("total_elements", Long.toString(wrappingPage.getTotalElements()));
-                metadata.put("total_pages", Integer.toString(wrappingPage.getTotalPages()));
-                metadata.put("last", Boolean.toString(wrappingPage.isLast()));
-                metadata.put("first", Boolean.toString(wrappingPage.isFirst()));
-                responseWrapper.setMetadata(metadata);
-            }else if(isCollection()) {
-                Map<String, String> metadata= new HashMap<>();
-                Collection collection = (Collection) body;
-                metadata.put("page", "1");
-                metadata.put("size", Integer.toString(collection.size()));
-                metadata.put("total_elements", Integer.toString(collection.size()));
-                metadata.put("total_pages", "1");
-                metadata.put("last", "true");
-                metadata.put("first", "true");
-                responseWrapper.setMetadata(metadata);
+                responseWrapper.setMetadata(ResponseMetadata.page(wrappingPage.getNumber(), wrappingPage.getSize(),
+                        wrappingPage.getTotalElements(), wrappingPage.getTotalPages(), wrappingPage.isFirst(), wrappingPage.isLast()));
+            } else if(hasSliceInformation()) {
+                responseWrapper.setMetadata(sliceMetadata());
+            } else if(hasStreamingPageInformation()) {
+                responseWrapper.setMetadata(ResponseMetadata.page(wrappingStreamingPage.getNumber(), wrappingStreamingPage.getSize(),
+                        wrappingStreamingPage.getTotalElements(), wrappingStreamingPage.getTotalPages(),
+                        wrappingStreamingPage.isFirst(), wrappingStreamingPage.isLast()));
+            } else if(isStreamed()) {
+                // le nombre d'éléments n'est connu qu'après l'écriture du bloc data
+                responseWrapper.setMetadata(streamingData.getMetadata());
+            } else if(isCollection()) {
+                responseWrapper.setMetadata(ResponseMetadata.singlePage(((Collection) body).size()));
             }
         }
     }
 
+    private ResponseMetadata sliceMetadata() {
+        if(wrappingSlice instanceof CursorSlice) {
+            return ResponseMetadata.cursor(wrappingSlice.getSize(), wrappingSlice.isFirst(), wrappingSlice.hasNext(),
+                    ((CursorSlice<?>) wrappingSlice).getNextCursor());
+        }
+        return ResponseMetadata.slice(wrappingSlice.getNumber(), wrappingSlice.getSize(), wrappingSlice.isFirst(), wrappingSlice.hasNext());
+    }
+
     private void wrapError(RestErrorList errors) {
         responseWrapper = new ResponseWrapper();
         responseWrapper.setData(null);
-        Map<String, String> metadata = new HashMap<>();
-        metadata.put("status", String.valueOf(errors.getStatus()));
-        responseWrapper.setMetadata(metadata);
+        responseWrapper.setMetadata(ResponseMetadata.error(errors.getStatus()));
         responseWrapper.setErrors(errors);
     }
 
@@ -144,29 +167,16 @@ public final class ResponseWrapperProcessor {
 
         assertOnlyOnePartialContentParam();
 
-        FilterProvider filters;
-
-        if(pathParams.containsKey(PARTIAL_RESPONSE_INCLUDED_PARAM)) {
-            Set<String> fields = extractFieldsToFilter(PARTIAL_RESPONSE_INCLUDED_PARAM, PARTIAL_RESPONSE_SEPARATOR);
-            filters = new ExcludeAllButFilterProvider(fields);
-        } else if(pathParams.containsKey(PARTIAL_RESPONSE_EXCLUDED_PARAM)) {
-            Set<String> fields = extractFieldsToFilter(PARTIAL_RESPONSE_EXCLUDED_PARAM, PARTIAL_RESPONSE_SEPARATOR);
-            filters = new IncludeAllButFilterProvider(fields);
-        } else {
-            filters = new NoFilterProvider();
+        // sans projection, le fournisseur de filtres par défaut de l'ObjectMapper s'applique
+        if(requestParams.contains(PARTIAL_RESPONSE_INCLUDED_PARAM)) {
+            mappingJacksonValue.setFilters(FieldProjection.including(requestParams.getJoined(PARTIAL_RESPONSE_INCLUDED_PARAM, PARTIAL_RESPONSE_SEPARATOR)));
+        } else if(requestParams.contains(PARTIAL_RESPONSE_EXCLUDED_PARAM)) {
+            mappingJacksonValue.setFilters(FieldProjection.excluding(requestParams.getJoined(PARTIAL_RESPONSE_EXCLUDED_PARAM, PARTIAL_RESPONSE_SEPARATOR)));
         }
-
-        mappingJacksonValue.setFilters(filters);
-    }
-
-    private Set<String> extractFieldsToFilter(String param, String separator) {
-        String filter = pathParams.get(param);
-        String[] fields = filter.split(separator);
-        return new HashSet<>(Arrays.asList(fields));
     }
 
     private void assertOnlyOnePartialContentParam() {
-        if(pathParams.containsKey(PARTIAL_RESPONSE_INCLUDED_PARAM) && pathParams.containsKey(PARTIAL_RESPONSE_EXCLUDED_PARAM)) {
+        if(requestParams.contains(PARTIAL_RESPONSE_INCLUDED_PARAM) && requestParams.contains(PARTIAL_RESPONSE_EXCLUDED_PARAM)) {
             String detail = MessageFormat.format("only one of {0} or {1} should be set in the request", PARTIAL_RESPONSE_INCLUDED_PARAM, PARTIAL_RESPONSE_EXCLUDED_PARAM);
             String msg = "Erreur de requête partielle";
             throw new RestServiceException(BAD_REQUEST, msg, "E000", detail);
@@ -180,6 +190,10 @@ public final class ResponseWrapperProcessor {
             status = wrappingEntity.getStatusCode();
         } else if(hasPageInformation()) {
             status = wrappingPage.getTotalPages() == 1 ? OK : PARTIAL_CONTENT;
+        } else if(hasSliceInformation()) {
+            status = wrappingSlice.isFirst() && !wrappingSlice.hasNext() ? OK : PARTIAL_CONTENT;
+        } else if(hasStreamingPageInformation()) {
+            status = wrappingStreamingPage.getTotalPages() == 1 ? OK : PARTIAL_CONTENT;
         } else {
             status = OK;
         }
@@ -199,6 +213,10 @@ public final class ResponseWrapperProcessor {
         return  body instanceof Page;
     }
 
+    boolean isSliced() {
+        return body instanceof Slice;
+    }
+
     boolean hasStatusCode() {
         return wrappingEntity != null;
     }
@@ -211,58 +229,21 @@ public final class ResponseWrapperProcessor {
         return wrappingPage != null;
     }
 
-    boolean isCollection() {
-        return body instanceof Collection;
+    boolean hasSliceInformation() {
+        return wrappingSlice != null;
     }
 
-
-    /*
-    /**********************************************************
-    /* Sub-classes
-    /**********************************************************
-    */
-
-
-    /**
-     * Filter provider implementation which defaults to no filter.
-     */
-    public static class NoFilterProvider extends SimpleFilterProvider {
-        @Override
-        public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
-            return new SerializeExceptFilter(emptySet());
-        }
+    boolean hasStreamingPageInformation() {
+        return wrappingStreamingPage != null;
     }
 
-    /**
-     * Filter implementation which serializes all properties except the ones explicitly listed.
-     */
-    public static class IncludeAllButFilterProvider extends SimpleFilterProvider {
-        Set<String> properties;
-
-        IncludeAllButFilterProvider(Set<String> properties) {
-            this.properties = properties;
-        }
-
-        @Override
-        public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
-            return new SerializeExceptFilter(properties);
-        }
+    public boolean isStreamed() {
+        return streamingData != null;
     }
 
-    /**
-     * Filter implementation which filters out all properties and only serializes ones explicitly listed.
-     */
-    public static class ExcludeAllButFilterProvider extends SimpleFilterProvider {
-        Set<String> properties;
-
-        ExcludeAllButFilterProvider(Set<String> properties) {
-            this.properties = properties;
-        }
-
-        @Override
-        public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
-            return new FilterExceptFilter(properties);
-        }
+    boolean isCollection() {
+        return body instanceof Collection;
     }
 
+
 }
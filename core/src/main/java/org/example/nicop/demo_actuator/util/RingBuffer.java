@@ -0,0 +1,74 @@
+package org.example.nicop.demo_actuator.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Anneau préalloué sans verrou conservant les derniers éléments ajoutés.
+ *
+ * Chaque ajout réserve un numéro de séquence par incrément atomique et écrit sa case ; les plus anciens éléments sont
+ * écrasés. La lecture parcourt l'anneau du plus récent au plus ancien et ignore les cases réécrites pendant le
+ * parcours.
+ */
+public final class RingBuffer<T> {
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+
+    private final int mask;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param capacity nombre d'éléments conservés, arrondi à la puissance de deux supérieure
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void add(T value) {
+        long index = sequence.getAndIncrement();
+        slots.set((int) (index & mask), new Slot<>(index, value));
+    }
+
+    /**
+     * @return au plus {@code limit} éléments acceptés par le filtre, du plus récent au plus ancien
+     */
+    public List<T> find(Predicate<? super T> filter, int limit) {
+        List<T> values = new ArrayList<>();
+        long last = sequence.get() - 1;
+        for (long index = last; index >= 0 && index > last - slots.length() && values.size() < limit; index--) {
+            Slot<T> slot = slots.get((int) (index & mask));
+            // case pas encore écrite ou déjà réécrite par un ajout plus récent
+            if (slot == null || slot.index != index) {
+                continue;
+            }
+            if (filter.test(slot.value)) {
+                values.add(slot.value);
+            }
+        }
+        return values;
+    }
+
+    private static final class Slot<T> {
+
+        private final long index;
+
+        private final T value;
+
+        private Slot(long index, T value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.nicop.demo_actuator.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link LatencyHistogram} cumulé depuis le démarrage, doublé d'histogrammes glissants.
+ *
+ * Le temps est découpé en tranches de {@code slotMillis} ; un anneau de {@code slotCount} histogrammes conserve les
+ * dernières tranches, réutilisées en tournant. Une fenêtre se lit en fusionnant les tranches qu'elle couvre, tranche en
+ * cours comprise. La mémoire reste fixe ; les enregistrements concurrents d'un changement de tranche peuvent être
+ * perdus.
+ */
+public final class RollingLatencyHistogram {
+
+    private final LatencyHistogram cumulative;
+
+    private final long slotMillis;
+
+    private final Slot[] slots;
+
+    /**
+     * @param slotCount nombre de tranches conservées : la plus longue fenêtre lisible vaut {@code slotCount * slotMillis}
+     */
+    public RollingLatencyHistogram(long highestTrackableValue, int significantDigits, long slotMillis, int slotCount) {
+        if (slotMillis < 1 || slotCount < 1) {
+            throw new IllegalArgumentException("Slot duration and count must be positive");
+        }
+        this.cumulative = new LatencyHistogram(highestTrackableValue, significantDigits);
+        this.slotMillis = slotMillis;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot(new LatencyHistogram(highestTrackableValue, significantDigits));
+        }
+    }
+
+    public void record(long value) {
+        cumulative.record(value);
+        long epoch = System.currentTimeMillis() / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        long slotEpoch = slot.epoch.get();
+        // le premier enregistrement d'une nouvelle tranche recycle l'histogramme
+        if (slotEpoch < epoch && slot.epoch.compareAndSet(slotEpoch, epoch)) {
+            slot.histogram.reset();
+        }
+        slot.histogram.record(value);
+    }
+
+    /**
+     * @return les valeurs enregistrées depuis le démarrage
+     */
+    public LatencyHistogram.Snapshot snapshot() {
+        return cumulative.snapshot();
+    }
+
+    /**
+     * @param windowMillis durée de la fenêtre, arrondie à la tranche supérieure et bornée par l'anneau
+     * @return les valeurs enregistrées pendant la fenêtre
+     */
+    public LatencyHistogram.Snapshot snapshot(long windowMillis) {
+        long epoch = System.currentTimeMillis() / slotMillis;
+        long windowSlots = Math.min(slots.length, (windowMillis + slotMillis - 1) / slotMillis);
+        LatencyHistogram.Snapshot snapshot = cumulative.emptySnapshot();
+        for (Slot slot : slots) {
+            long slotEpoch = slot.epoch.get();
+            if (slotEpoch > epoch - windowSlots && slotEpoch <= epoch) {
+                snapshot = snapshot.merge(slot.histogram.snapshot());
+            }
+        }
+        return snapshot;
+    }
+
+    private static final class Slot {
+
+        private final AtomicLong epoch = new AtomicLong(-1);
+
+        private final LatencyHistogram histogram;
+
+        private Slot(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+    }
+}
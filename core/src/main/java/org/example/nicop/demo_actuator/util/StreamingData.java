@@ -0,0 +1,142 @@
+package org.example.nicop.demo_actuator.util;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
+/**
+ * Bloc {@code data} d'une réponse streamée. Les éléments d'un {@link java.util.stream.Stream} ou d'un {@link Iterator}
+ * sont écrits un par un dans le {@link JsonGenerator} du convertisseur, donc directement dans le flux de la réponse :
+ * aucun élément n'est conservé une fois écrit.
+ *
+ * Le nombre d'éléments n'est connu qu'à la fin de l'écriture, les métadonnées ({@link #getMetadata()}) sont donc
+ * évaluées au moment de leur sérialisation, après le bloc {@code data}.
+ *
+ * La source est libérée à la fin de l'écriture du bloc {@code data}, ou à la fin de la requête s'il n'a pas été écrit
+ * (erreur, bloc exclu par une réponse partielle) : {@link #close()} peut être appelé plusieurs fois.
+ */
+@Slf4j
+@JsonSerialize(using = StreamingData.Serializer.class)
+public final class StreamingData implements AutoCloseable {
+
+    private final Iterator<?> iterator;
+
+    private final AutoCloseable resource;
+
+    private long count;
+
+    private boolean closed;
+
+    private StreamingData(Iterator<?> iterator, AutoCloseable resource) {
+        this.iterator = iterator;
+        this.resource = resource;
+    }
+
+    /**
+     * @param source un {@link BaseStream} ou un {@link Iterator}
+     */
+    public static StreamingData of(Object source) {
+        if (source instanceof BaseStream) {
+            BaseStream<?, ?> stream = (BaseStream<?, ?>) source;
+            return new StreamingData(stream.iterator(), stream);
+        }
+        if (source instanceof Iterator) {
+            Iterator<?> iterator = (Iterator<?>) source;
+            return new StreamingData(iterator, iterator instanceof AutoCloseable ? (AutoCloseable) iterator : null);
+        }
+        throw new IllegalArgumentException("Unsupported streaming source " + source.getClass().getName());
+    }
+
+    public static boolean isStreamable(Object source) {
+        return source instanceof BaseStream || source instanceof Iterator;
+    }
+
+    /**
+     * Nombre d'éléments écrits jusqu'ici.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Métadonnées d'une collection streamée sur une seule page, calculées lors de leur sérialisation.
+     */
+    public Object getMetadata() {
+        return new Metadata();
+    }
+
+    /**
+     * Parcourt les éléments restants sans les écrire, pour des métadonnées exactes, puis libère la source ; appelé
+     * quand le bloc {@code data} est exclu de la réponse.
+     */
+    void skip() {
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Libère la source ; appelé après l'écriture, ou directement si la réponse n'est finalement pas streamée.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            log.warn("Unable to close streamed response source", e);
+        }
+    }
+
+    private final class Metadata {
+
+        @JsonValue
+        public ResponseMetadata toMetadata() {
+            return ResponseMetadata.singlePage(count);
+        }
+    }
+
+    /**
+     * Écrit les éléments au fil de l'itération puis libère la source, y compris en cas d'erreur.
+     */
+    static final class Serializer extends StdSerializer<StreamingData> {
+
+        private static final long serialVersionUID = 1L;
+
+        Serializer() {
+            super(StreamingData.class);
+        }
+
+        @Override
+        public void serialize(StreamingData value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray();
+            try {
+                while (value.iterator.hasNext()) {
+                    provider.defaultSerializeValue(value.iterator.next(), gen);
+                    value.count++;
+                }
+            } finally {
+                value.close();
+            }
+            gen.writeEndArray();
+        }
+    }
+}
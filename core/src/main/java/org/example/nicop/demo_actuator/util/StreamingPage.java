@@ -0,0 +1,61 @@
+package org.example.nicop.demo_actuator.util;
+
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page dont le contenu est streamé : seules les informations de pagination sont connues à la construction, les
+ * éléments sont lus au moment de l'écriture de la réponse (voir {@link StreamingData}).
+ *
+ * Équivalent paresseux d'une {@link org.springframework.data.domain.PageImpl}, pour les contrôleurs qui lisent leur
+ * page depuis un curseur ou un {@link java.util.stream.Stream}.
+ *
+ * @param <T> type des éléments
+ */
+public final class StreamingPage<T> {
+
+    /**
+     * Un {@link java.util.stream.Stream} ou un {@link java.util.Iterator}.
+     */
+    @Getter
+    private final Object content;
+
+    private final Pageable pageable;
+
+    @Getter
+    private final long totalElements;
+
+    /**
+     * @param content un {@link java.util.stream.Stream} ou un {@link java.util.Iterator} sur les éléments de la page
+     * @param pageable la page demandée
+     * @param totalElements nombre total d'éléments, toutes pages confondues
+     */
+    public StreamingPage(Object content, Pageable pageable, long totalElements) {
+        if (!StreamingData.isStreamable(content)) {
+            throw new IllegalArgumentException("Page content must be a Stream or an Iterator");
+        }
+        this.content = content;
+        this.pageable = pageable;
+        this.totalElements = totalElements;
+    }
+
+    public int getNumber() {
+        return pageable.getPageNumber();
+    }
+
+    public int getSize() {
+        return pageable.getPageSize();
+    }
+
+    public int getTotalPages() {
+        return getSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / (double) getSize());
+    }
+
+    public boolean isFirst() {
+        return getNumber() == 0;
+    }
+
+    public boolean isLast() {
+        return getNumber() + 1 >= getTotalPages();
+    }
+}
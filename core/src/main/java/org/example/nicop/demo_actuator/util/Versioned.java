@@ -0,0 +1,39 @@
+package org.example.nicop.demo_actuator.util;
+
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+/**
+ * Réponse accompagnée d'une clé de version peu coûteuse (numéro de révision, date de mise à jour...).
+ *
+ * {@link org.example.nicop.demo_actuator.config.ResponseEnricher} en dérive l'ETag et répond {@code 304} quand le
+ * client possède déjà cette version : le corps n'est alors ni chargé, ni sérialisé. La version peut être renvoyée
+ * directement ou dans une {@code ResponseEntity}, quel que soit le mode d'enrichissement.
+ *
+ * @param <T> type du corps
+ */
+public final class Versioned<T> {
+
+    @Getter
+    private final String version;
+
+    private final Supplier<T> body;
+
+    private Versioned(String version, Supplier<T> body) {
+        this.version = version;
+        this.body = body;
+    }
+
+    /**
+     * @param version clé de version de la ressource
+     * @param body chargement du corps, appelé uniquement si la réponse doit être écrite
+     */
+    public static <T> Versioned<T> of(String version, Supplier<T> body) {
+        return new Versioned<>(version, body);
+    }
+
+    public T getBody() {
+        return body.get();
+    }
+}
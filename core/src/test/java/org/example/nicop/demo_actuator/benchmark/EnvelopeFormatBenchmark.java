@@ -0,0 +1,173 @@
+package org.example.nicop.demo_actuator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.nicop.demo_actuator.config.BinaryFormatsConfig;
+import org.example.nicop.demo_actuator.config.BinaryJacksonHttpMessageConverter;
+import org.example.nicop.demo_actuator.util.FieldProjection;
+import org.example.nicop.demo_actuator.util.FieldProjectionModule;
+import org.example.nicop.demo_actuator.util.ResponseWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taille et coût d'encodage/décodage de l'enveloppe de réponse pour chaque format négociable (JSON, Smile, CBOR,
+ * MessagePack), avec les convertisseurs configurés par {@link BinaryFormatsConfig}.
+ *
+ * Les tailles encodées sont affichées avant les mesures. Lancement, après {@code mvn test-compile} :
+ * <pre>
+ * java -cp core/target/test-classes:core/target/classes:&lt;classpath de test&gt; \
+ *     org.example.nicop.demo_actuator.benchmark.EnvelopeFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvelopeFormatBenchmark {
+
+    private static final int ITEMS = 500;
+
+    @Param({"json", "smile", "cbor", "msgpack"})
+    private String format;
+
+    private AbstractJackson2HttpMessageConverter converter;
+
+    private ObjectMapper objectMapper;
+
+    private MappingJacksonValue envelope;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        converter = converter(format);
+        objectMapper = converter.getObjectMapper();
+        envelope = envelope();
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(envelope, mediaType(format), message);
+        return message.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return objectMapper.readValue(encoded, ResponseWrapper.class);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        EnvelopeFormatBenchmark benchmark = new EnvelopeFormatBenchmark();
+        for (String format : new String[]{"json", "smile", "cbor", "msgpack"}) {
+            benchmark.format = format;
+            benchmark.setUp();
+            System.out.printf("%-8s %6d B%n", format, benchmark.encoded.length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(EnvelopeFormatBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Reproduit la configuration de l'application : module et filtre de réponse partielle, convertisseurs binaires
+     * dérivés du même {@link Jackson2ObjectMapperBuilder}.
+     */
+    private static AbstractJackson2HttpMessageConverter converter(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new FieldProjectionModule())
+                .filters(FieldProjection.NONE);
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter(builder.build()));
+        new BinaryFormatsConfig(builder, (MappingJackson2HttpMessageConverter) converters.get(0))
+                .extendMessageConverters(converters);
+        MediaType mediaType = mediaType(format);
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter.getSupportedMediaTypes().contains(mediaType)) {
+                return (AbstractJackson2HttpMessageConverter) converter;
+            }
+        }
+        throw new IllegalArgumentException(format);
+    }
+
+    private static MediaType mediaType(String format) {
+        switch (format) {
+            case "smile":
+                return BinaryJacksonHttpMessageConverter.SMILE;
+            case "cbor":
+                return BinaryJacksonHttpMessageConverter.CBOR;
+            case "msgpack":
+                return BinaryJacksonHttpMessageConverter.MSGPACK;
+            default:
+                return MediaType.APPLICATION_JSON;
+        }
+    }
+
+    private static MappingJacksonValue envelope() {
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Item(i, "item " + i, 10.0 + i / 100.0, i % 2 == 0));
+        }
+        return new MappingJacksonValue(new ResponseWrapper(items, null, null));
+    }
+
+    public static final class Item {
+
+        private final long id;
+        private final String name;
+        private final double price;
+        private final boolean available;
+
+        Item(long id, String name, double price, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.available = available;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+}
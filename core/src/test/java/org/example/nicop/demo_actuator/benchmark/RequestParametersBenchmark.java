@@ -0,0 +1,110 @@
+package org.example.nicop.demo_actuator.benchmark;
+
+import org.example.nicop.demo_actuator.util.RequestParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Coût par réponse de la lecture des paramètres du pipeline : analyse de la chaîne de requête reconstruite
+ * ({@link #splitQuery(URI)}, l'ancienne implémentation du pipeline, conservée ici comme référence) contre la vue sur la
+ * table du conteneur ({@link RequestParameters}).
+ *
+ * L'allocation par opération est donnée par {@code gc.alloc.rate.norm}. Lancement, après {@code mvn test-compile} :
+ * <pre>
+ * java -cp core/target/test-classes:core/target/classes:&lt;classpath de test&gt; \
+ *     org.example.nicop.demo_actuator.benchmark.RequestParametersBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParametersBenchmark {
+
+    private static final String QUERY = "fields=name,items.id&page=2&size=50&sort=name,desc&q=caf%C3%A9%20cr%C3%A8me";
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/public/items");
+        request.setServerName("localhost");
+        request.setServerPort(8180);
+        request.setQueryString(QUERY);
+        request.addParameter("fields", "name,items.id");
+        request.addParameter("page", "2");
+        request.addParameter("size", "50");
+        request.addParameter("sort", "name,desc");
+        request.addParameter("q", "café crème");
+    }
+
+    @Benchmark
+    public String splitQuery() {
+        Map<String, String> parameters = splitQuery(new ServletServerHttpRequest(request).getURI());
+        return parameters.get("fields");
+    }
+
+    @Benchmark
+    public String requestParameters() {
+        RequestParameters parameters = RequestParameters.of(request);
+        return parameters.contains("fields") ? parameters.getJoined("fields", ",") : null;
+    }
+
+    static Map<String, String> splitQuery(URI uri) {
+
+        String query = uri.getQuery();
+        if(query == null) {
+            return emptyMap();
+        }
+        Map<String, String> queryPairs = new HashMap<>();
+        String[] pairs = query.split("&");
+        for (String pair : pairs) {
+            int idx = pair.indexOf("=");
+            if(idx != -1)
+                queryPairs.put(decodeAsUtf8(pair.substring(0, idx)), decodeAsUtf8(pair.substring(idx + 1)));
+            else
+                queryPairs.put(decodeAsUtf8(pair), "");
+        }
+        return queryPairs;
+    }
+
+    private static String decodeAsUtf8(String str) {
+        try {
+            return URLDecoder.decode(str, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return "";
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestParametersBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
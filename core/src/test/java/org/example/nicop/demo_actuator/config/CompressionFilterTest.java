@@ -0,0 +1,284 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.management.CompressionMetrics;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+
+public class CompressionFilterTest {
+
+    private static final String SMALL_BODY = "{\"data\":{\"value\":\"Hello World !\"}}";
+
+    private static final String LARGE_BODY = largeBody();
+
+    private final CompressionMetrics metrics = new CompressionMetrics();
+
+    private final CompressionFilter filter = new CompressionFilter(new CompressionProperties(), metrics);
+
+    @Test
+    public void writesSmallResponseAsIs() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("gzip"), response, writing(SMALL_BODY));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(SMALL_BODY);
+    }
+
+    @Test
+    public void gzipsLargeResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("deflate, gzip"), response, writing(LARGE_BODY));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(LARGE_BODY);
+        assertThat(response.getContentAsByteArray().length).isLessThan(LARGE_BODY.length());
+    }
+
+    @Test
+    public void fallsBackToDeflateWhenGzipIsRefused() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("gzip;q=0, deflate"), response, writing(LARGE_BODY));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        assertThat(inflate(response.getContentAsByteArray())).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    public void picksCodingWithHighestQuality() throws Exception {
+        MockHttpServletResponse deflate = new MockHttpServletResponse();
+        filter.doFilter(get("gzip;q=0.5, deflate"), deflate, writing(LARGE_BODY));
+        MockHttpServletResponse wildcard = new MockHttpServletResponse();
+        filter.doFilter(get("deflate;q=0.3, *;q=0.8"), wildcard, writing(LARGE_BODY));
+        MockHttpServletResponse tie = new MockHttpServletResponse();
+        filter.doFilter(get("deflate;q=0.7, gzip;q=0.7"), tie, writing(LARGE_BODY));
+
+        assertThat(deflate.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        assertThat(wildcard.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(tie.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    public void explicitCodingOverridesWildcard() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("gzip;q=0, *"), response, writing(LARGE_BODY));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+    }
+
+    @Test
+    public void appliesRouteThreshold() throws Exception {
+        MockHttpServletRequest request = cacheable(get("gzip"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            // posé par l'intercepteur, une fois le filtre traversé
+            req.setAttribute(CompressionFilter.MIN_RESPONSE_SIZE_ATTRIBUTE, 0);
+            writing(SMALL_BODY).doFilter(req, res);
+        });
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(SMALL_BODY);
+    }
+
+    @Test
+    public void registersWriteListenerOnContainerStream() throws Exception {
+        AtomicReference<WriteListener> registered = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+
+            private final ServletOutputStream target = super.getOutputStream();
+
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return false;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        registered.set(writeListener);
+                    }
+                };
+            }
+        };
+        WriteListener listener = mock(WriteListener.class);
+        AtomicReference<Boolean> readyWhilePending = new AtomicReference<>();
+        AtomicReference<Boolean> readyWhileCompressing = new AtomicReference<>();
+
+        filter.doFilter(get("gzip"), response, (req, res) -> {
+            ServletOutputStream out = res.getOutputStream();
+            out.setWriteListener(listener);
+            out.write(SMALL_BODY.getBytes(StandardCharsets.UTF_8));
+            readyWhilePending.set(out.isReady());
+            out.write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+            readyWhileCompressing.set(out.isReady());
+        });
+
+        assertThat(registered.get()).isSameAs(listener);
+        assertThat(readyWhilePending.get()).isTrue();
+        assertThat(readyWhileCompressing.get()).isFalse();
+    }
+
+    @Test
+    public void suffixesEtagOfCompressedResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("gzip"), response, withEtag(LARGE_BODY));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).matches("\"0[0-9a-f]{32}-gzip\"");
+    }
+
+    @Test
+    public void answersNotModifiedForEncodedEtag() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(get("gzip"), first, withEtag(LARGE_BODY));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = get("gzip");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(request, second, withEtag(LARGE_BODY));
+
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(second.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void servesCacheableResponseFromCache() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(cacheable(get("gzip")), first, withEtag(LARGE_BODY));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(cacheable(get("gzip")), second, withEtag(LARGE_BODY));
+
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+        assertThat(metric("compression.cache.misses")).isEqualTo(1L);
+        assertThat(metric("compression.cache.hits")).isEqualTo(1L);
+    }
+
+    @Test
+    public void keysCacheByContentType() throws Exception {
+        FilterChain json = (request, response) -> {
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setHeader(HttpHeaders.ETAG, "\"v1\"");
+            response.getOutputStream().write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+        };
+        FilterChain smile = (request, response) -> {
+            response.setContentType("application/x-jackson-smile");
+            ((HttpServletResponse) response).setHeader(HttpHeaders.ETAG, "\"v1\"");
+            response.getOutputStream().write(LARGE_BODY.getBytes(StandardCharsets.UTF_16));
+        };
+
+        filter.doFilter(cacheable(get("gzip")), new MockHttpServletResponse(), json);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(cacheable(get("gzip")), response, smile);
+
+        assertThat(metric("compression.cache.misses")).isEqualTo(2L);
+        assertThat(metric("compression.cache.hits")).isEqualTo(0L);
+        assertThat(gunzip(response.getContentAsByteArray(), StandardCharsets.UTF_16)).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    public void leavesResponseUncommittedWhenChainThrows() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilter(get("gzip"), response, (req, res) -> {
+                res.getOutputStream().write(SMALL_BODY.getBytes(StandardCharsets.UTF_8));
+                throw new AccessDeniedException("Access is denied");
+            });
+            fail("AccessDeniedException expected");
+        } catch (AccessDeniedException e) {
+            // propagée au traitement d'erreur
+        }
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private static MockHttpServletRequest get(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/public/items");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return request;
+    }
+
+    private static MockHttpServletRequest cacheable(MockHttpServletRequest request) {
+        request.setAttribute(CompressionFilter.CACHEABLE_ATTRIBUTE, Boolean.TRUE);
+        return request;
+    }
+
+    private static FilterChain writing(String body) {
+        return (request, response) -> response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@link EtagFilter} s'exécute à l'intérieur du filtre de compression, comme dans l'application.
+     */
+    private static FilterChain withEtag(String body) {
+        EtagFilter etagFilter = new EtagFilter();
+        return (request, response) -> etagFilter.doFilter(request, response, writing(body));
+    }
+
+    private long metric(String name) {
+        for (Metric<?> metric : metrics.metrics()) {
+            if (metric.getName().equals(name)) {
+                return metric.getValue().longValue();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        return gunzip(content, StandardCharsets.UTF_8);
+    }
+
+    private static String gunzip(byte[] content, Charset charset) throws IOException {
+        return StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(content)), charset);
+    }
+
+    private static String inflate(byte[] content) throws IOException {
+        return StreamUtils.copyToString(new InflaterInputStream(new ByteArrayInputStream(content)), StandardCharsets.UTF_8);
+    }
+
+    private static String largeBody() {
+        StringBuilder body = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < 200; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"item ").append(i).append("\"}");
+        }
+        return body.append("]}").toString();
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class EtagFilterTest {
+
+    private static final String BODY = "{\"data\":{\"value\":\"Hello World !\"}}";
+
+    private final EtagFilter filter = new EtagFilter();
+
+    @Test
+    public void setsStrongEtagOnGet() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get(), response, writing(BODY));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).matches("\"0[0-9a-f]{32}\"");
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+        assertThat(response.getContentLength()).isEqualTo(BODY.length());
+    }
+
+    @Test
+    public void answersNotModifiedWhenIfNoneMatchMatches() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(get(), first, writing(BODY));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(request, second, writing(BODY));
+
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(second.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void keepsEtagSetByController() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get(), response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"v42\"");
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"v42\"");
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    public void ignoresUnsafeMethods() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/public/hello"), response, writing(BODY));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    public void streamsWithoutEtagWhenMarkedStreaming() throws Exception {
+        MockHttpServletRequest request = get();
+        request.setAttribute(EtagFilter.STREAMING_ATTRIBUTE, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, writing(BODY));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    public void leavesResponseUncommittedWhenChainThrows() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilter(get(), response, (req, res) -> {
+                res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+                throw new AccessDeniedException("Access is denied");
+            });
+            fail("AccessDeniedException expected");
+        } catch (AccessDeniedException e) {
+            // propagée au traitement d'erreur
+        }
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void setsEtagOnAsyncDispatch() throws Exception {
+        MockHttpServletRequest request = get();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        DeferredResult<String> result = new DeferredResult<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(req);
+            asyncManager.setAsyncWebRequest(
+                    new StandardServletAsyncWebRequest((HttpServletRequest) req, (HttpServletResponse) res));
+            try {
+                asyncManager.startDeferredResultProcessing(result);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+
+        result.setResult(BODY);
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, request.getAsyncContext().getResponse(), writing(BODY));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).matches("\"0[0-9a-f]{32}\"");
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    public void registersWriteListenerOnContainerStream() throws Exception {
+        AtomicReference<WriteListener> registered = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+
+            private final ServletOutputStream target = super.getOutputStream();
+
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        registered.set(writeListener);
+                    }
+                };
+            }
+        };
+        WriteListener listener = new WriteListener() {
+
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+
+        filter.doFilter(get(), response, (req, res) -> {
+            res.getOutputStream().setWriteListener(listener);
+            assertThat(res.getOutputStream().isReady()).isTrue();
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(registered.get()).isSameAs(listener);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/public/hello");
+    }
+
+    private static FilterChain writing(String body) {
+        return (request, response) -> response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.config.RequestTimeline.Mark;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class RequestTimelineTest {
+
+    private final RequestTimeline timeline = new RequestTimeline();
+
+    @Test
+    public void splitsSynchronousRequest() {
+        timeline.mark(Mark.START, 0);
+        timeline.markFirst(Mark.SECURITY_START, 10);
+        timeline.markFirst(Mark.SECURITY_END, 30);
+        timeline.mark(Mark.ARGUMENTS_START, 35);
+        timeline.mark(Mark.CONTROLLER_START, 40);
+        timeline.mark(Mark.CONTROLLER_END, 100);
+        timeline.mark(Mark.PROCESSING_START, 100);
+        timeline.mark(Mark.PROCESSING_END, 110);
+        timeline.mark(Mark.HANDLER_END, 150);
+        timeline.mark(Mark.END, 160);
+
+        assertThat(timeline.getDuration()).isEqualTo(160);
+        assertThat(timeline.getPhases()).containsExactly(entry("security", 20L), entry("arguments", 5L),
+                entry("controller", 60L), entry("processing", 10L), entry("serialization", 40L),
+                entry("write", 10L), entry("other", 15L));
+    }
+
+    @Test
+    public void splitsAsynchronousRequest() {
+        timeline.mark(Mark.START, 0);
+        // premier dispatch, jusqu'au retour du contrôleur
+        timeline.markFirst(Mark.SECURITY_START, 10);
+        timeline.markFirst(Mark.SECURITY_END, 30);
+        timeline.mark(Mark.ARGUMENTS_START, 35);
+        timeline.mark(Mark.CONTROLLER_START, 40);
+        timeline.mark(Mark.CONTROLLER_END, 60);
+        timeline.mark(Mark.HANDLER_END, 65);
+        // dispatch de reprise : la chaîne de sécurité est retraversée, seul le premier passage compte
+        timeline.markFirst(Mark.SECURITY_START, 390);
+        timeline.markFirst(Mark.SECURITY_END, 395);
+        timeline.mark(Mark.ASYNC_RESUME, 400);
+        timeline.mark(Mark.PROCESSING_START, 405);
+        timeline.mark(Mark.PROCESSING_END, 410);
+        timeline.mark(Mark.HANDLER_END, 450);
+        timeline.mark(Mark.END, 460);
+
+        Map<String, Long> phases = timeline.getPhases();
+
+        assertThat(phases).containsExactly(entry("security", 20L), entry("arguments", 5L),
+                entry("controller", 20L), entry("async", 340L), entry("processing", 5L),
+                entry("serialization", 40L), entry("write", 10L), entry("other", 20L));
+        assertThat(phases.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(timeline.getDuration());
+    }
+
+    @Test
+    public void serializesFromAsyncResumeWithoutProcessing() {
+        timeline.mark(Mark.START, 0);
+        timeline.mark(Mark.CONTROLLER_START, 10);
+        timeline.mark(Mark.CONTROLLER_END, 20);
+        timeline.mark(Mark.ASYNC_RESUME, 120);
+        timeline.mark(Mark.HANDLER_END, 150);
+        timeline.mark(Mark.END, 150);
+
+        assertThat(timeline.getPhases()).containsExactly(entry("controller", 10L), entry("async", 100L),
+                entry("serialization", 30L), entry("write", 0L), entry("other", 10L));
+    }
+
+    @Test
+    public void chargesRejectedRequestToSecurity() {
+        timeline.mark(Mark.START, 0);
+        timeline.markFirst(Mark.SECURITY_START, 10);
+        timeline.mark(Mark.END, 50);
+
+        assertThat(timeline.getPhases()).containsExactly(entry("security", 40L), entry("other", 10L));
+    }
+
+    @Test
+    public void neverReportsNegativeDurations() {
+        timeline.mark(Mark.START, 0);
+        timeline.mark(Mark.CONTROLLER_START, 50);
+        timeline.mark(Mark.CONTROLLER_END, 40);
+        timeline.mark(Mark.HANDLER_END, 30);
+        timeline.mark(Mark.END, 20);
+
+        assertThat(timeline.getPhases()).containsExactly(entry("controller", 0L), entry("serialization", 0L),
+                entry("write", 0L), entry("other", 20L));
+    }
+}
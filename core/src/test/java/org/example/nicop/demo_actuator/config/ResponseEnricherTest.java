@@ -0,0 +1,111 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.util.ResponseWrapper;
+import org.example.nicop.demo_actuator.util.Versioned;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.mvc.HealthMvcEndpoint;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletRequest;
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ResponseEnricherTest {
+
+    private final ResponseEnricher enricher = new ResponseEnricher(mock(CounterService.class));
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    public void unwrapsVersionedBodyOfRawResponse() throws Exception {
+        MethodParameter returnType = returnType("raw");
+
+        assertThat(enricher.supports(returnType, null)).isTrue();
+        assertThat(write(Versioned.of("v1", () -> "item"), returnType)).isEqualTo("item");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"v1-");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    public void leavesOtherRawBodiesUntouched() throws Exception {
+        assertThat(write("item", returnType("raw"))).isEqualTo("item");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.VARY)).isNull();
+    }
+
+    @Test
+    public void answersNotModifiedForRawResponse() throws Exception {
+        write(Versioned.of("v1", () -> "item"), returnType("raw"));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        Object body = enricher.beforeBodyWrite(Versioned.of("v1", () -> {
+            throw new AssertionError("body must not be loaded");
+        }), returnType("raw"), MediaType.APPLICATION_JSON, null, new ServletServerHttpRequest(request),
+                new ServletServerHttpResponse(second));
+
+        assertThat(body).isNull();
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    public void unwrapsVersionedBodyOfResponseEntity() throws Exception {
+        ResponseEntity<?> entity = ResponseEntity.status(HttpStatus.ACCEPTED).header("X-Item", "1")
+                .body(Versioned.of("v2", () -> "item"));
+
+        Object body = write(entity, returnType("full"));
+
+        ResponseWrapper envelope = (ResponseWrapper) ((MappingJacksonValue) body).getValue();
+        assertThat(envelope.getData()).isEqualTo("item");
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.ACCEPTED.value());
+        assertThat(response.getHeader("X-Item")).isEqualTo("1");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"v2-");
+    }
+
+    @Test
+    public void skipsActuatorEndpoints() throws Exception {
+        MethodParameter returnType = new MethodParameter(
+                HealthMvcEndpoint.class.getMethod("invoke", HttpServletRequest.class, Principal.class), -1);
+
+        assertThat(enricher.supports(returnType, null)).isFalse();
+    }
+
+    private Object write(Object body, MethodParameter returnType) {
+        ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
+        Object written = enricher.beforeBodyWrite(body, returnType, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), outputMessage);
+        // les en-têtes du message ne sont reportés sur la réponse servlet qu'à la fermeture
+        outputMessage.close();
+        return written;
+    }
+
+    private static MethodParameter returnType(String method) throws NoSuchMethodException {
+        return new MethodParameter(Controller.class.getMethod(method), -1);
+    }
+
+    public static class Controller {
+
+        @Enrichment(Enrichment.Mode.RAW)
+        public Object raw() {
+            return null;
+        }
+
+        public Object full() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.util.RestErrorList;
+import org.example.nicop.demo_actuator.util.RestServiceException;
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+public class RestServiceExceptionHandlerTest {
+
+    private final RestServiceExceptionHandler handler = new RestServiceExceptionHandler();
+
+    @Test
+    public void unwrapsRestServiceExceptionFromFailedFuture() throws Exception {
+        RestServiceException cause = new RestServiceException(NOT_FOUND, "Introuvable", "E001", "no such item");
+
+        RestErrorList errors = handler.handleAsyncFailure(new CompletionException(new ExecutionException(cause)));
+
+        assertThat(errors).isSameAs(cause.getErrors());
+        assertThat(errors.getStatus()).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    public void mapsRejectedTaskToServiceUnavailable() throws Exception {
+        RestErrorList errors = handler.handleAsyncFailure(new CompletionException(new TaskRejectedException("full")));
+
+        assertThat(errors.getStatus()).isEqualTo(SERVICE_UNAVAILABLE);
+        assertThat(errors.get(0).getCode()).isEqualTo("E005");
+    }
+
+    @Test(expected = CompletionException.class)
+    public void rethrowsOtherFailures() throws Exception {
+        handler.handleAsyncFailure(new CompletionException(new IllegalStateException("boom")));
+    }
+}
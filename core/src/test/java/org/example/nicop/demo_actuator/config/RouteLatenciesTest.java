@@ -0,0 +1,55 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.junit.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RouteLatenciesTest {
+
+    private final RouteLatencies routeLatencies = new RouteLatencies(new LatencyProperties());
+
+    @Test
+    public void namesOverloadedHandlersApart() throws Exception {
+        Controller controller = new Controller();
+        routeLatencies.record(new HandlerMethod(controller, Controller.class.getMethod("find")), 1_000);
+        routeLatencies.record(new HandlerMethod(controller, Controller.class.getMethod("find", String.class)), 1_000);
+
+        assertThat(names()).containsExactlyInAnyOrder(
+                Controller.class.getName() + ".find()",
+                Controller.class.getName() + ".find(java.lang.String)");
+    }
+
+    @Test
+    public void namesHomonymousControllersApart() throws Exception {
+        routeLatencies.record(new HandlerMethod(new Controller(), Controller.class.getMethod("find")), 1_000);
+        routeLatencies.record(new HandlerMethod(new Other.Controller(), Other.Controller.class.getMethod("find")), 1_000);
+
+        assertThat(names()).hasSize(2).doesNotHaveDuplicates();
+    }
+
+    private List<String> names() {
+        return routeLatencies.getRoutes().stream().map(RouteLatencies.Route::getName).collect(Collectors.toList());
+    }
+
+    public static class Controller {
+
+        public void find() {
+        }
+
+        public void find(String name) {
+        }
+    }
+
+    public static class Other {
+
+        public static class Controller {
+
+            public void find() {
+            }
+        }
+    }
+}
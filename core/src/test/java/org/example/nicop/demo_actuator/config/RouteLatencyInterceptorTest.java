@@ -0,0 +1,55 @@
+package org.example.nicop.demo_actuator.config;
+
+import org.example.nicop.demo_actuator.util.LatencyHistogram;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.DispatcherType;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RouteLatencyInterceptorTest {
+
+    private final RouteLatencies routeLatencies = new RouteLatencies(new LatencyProperties());
+
+    private final RouteLatencyInterceptor interceptor = new RouteLatencyInterceptor(routeLatencies);
+
+    @Test
+    public void measuresErrorDispatchSeparately() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HandlerMethod failing = new HandlerMethod(new Controller(), Controller.class.getMethod("fail"));
+        HandlerMethod error = new HandlerMethod(new Controller(), Controller.class.getMethod("error"));
+
+        interceptor.preHandle(request, response, failing);
+        Thread.sleep(50);
+        interceptor.afterCompletion(request, response, failing, new IllegalStateException("unhandled"));
+
+        // dispatch d'erreur du conteneur vers le contrôleur d'erreur, sur la même requête
+        request.setDispatcherType(DispatcherType.ERROR);
+        interceptor.preHandle(request, response, error);
+        interceptor.afterCompletion(request, response, error, null);
+
+        assertThat(route("fail").getCount()).isEqualTo(1);
+        assertThat(route("error").getCount()).isEqualTo(1);
+        assertThat(route("error").getMax()).isLessThan(TimeUnit.MILLISECONDS.toMicros(50));
+    }
+
+    private LatencyHistogram.Snapshot route(String method) {
+        return routeLatencies.getRoutes().stream()
+                .filter(route -> route.getName().endsWith("." + method + "()"))
+                .findFirst().get().getHistogram().snapshot();
+    }
+
+    public static class Controller {
+
+        public void fail() {
+        }
+
+        public void error() {
+        }
+    }
+}
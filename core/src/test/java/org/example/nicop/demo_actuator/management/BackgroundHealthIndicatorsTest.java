@@ -0,0 +1,85 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackgroundHealthIndicatorsTest {
+
+    private BackgroundHealthIndicators indicators;
+
+    @After
+    public void close() {
+        indicators.close();
+    }
+
+    @Test
+    public void keepsResultPublishedBeforeTimeout() throws InterruptedException {
+        CountDownLatch checked = new CountDownLatch(1);
+        HealthIndicator indicator = start(() -> {
+            checked.countDown();
+            return Health.up().build();
+        });
+
+        assertThat(checked.await(1, TimeUnit.SECONDS)).isTrue();
+        // au-delà du délai de la vérification
+        Thread.sleep(300);
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    public void publishesDownWhenCheckTimesOut() throws InterruptedException {
+        HealthIndicator indicator = start(BackgroundHealthIndicatorsTest::hang);
+
+        Thread.sleep(300);
+
+        Health health = indicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails().get("error")).isEqualTo("Timed out after 100 ms");
+    }
+
+    @Test
+    public void appliesPerIndicatorTimeout() throws InterruptedException {
+        BackgroundHealthProperties properties = properties();
+        properties.getTimeouts().put("slow", 50L);
+        HealthIndicator indicator = start(BackgroundHealthIndicatorsTest::hang, properties);
+
+        Thread.sleep(300);
+
+        assertThat(indicator.health().getDetails().get("error")).isEqualTo("Timed out after 50 ms");
+    }
+
+    private static Health hang() {
+        try {
+            Thread.sleep(10000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Health.up().build();
+    }
+
+    private HealthIndicator start(HealthIndicator delegate) {
+        return start(delegate, properties());
+    }
+
+    private HealthIndicator start(HealthIndicator delegate, BackgroundHealthProperties properties) {
+        indicators = new BackgroundHealthIndicators(Collections.singletonMap("slowHealthIndicator", delegate), properties);
+        return indicators.getIndicators().get("slowHealthIndicator");
+    }
+
+    private static BackgroundHealthProperties properties() {
+        BackgroundHealthProperties properties = new BackgroundHealthProperties();
+        properties.setTimeout(100);
+        properties.setInterval(60000);
+        return properties;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.config.LatencyProperties;
+import org.example.nicop.demo_actuator.config.RouteLatencies;
+import org.junit.Test;
+import org.springframework.jmx.export.MBeanExportException;
+import org.springframework.jmx.export.MBeanExporter;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class JmxSnapshotsTest {
+
+    private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+    @Test
+    public void registersAndUnregistersSnapshots() throws Exception {
+        JmxSnapshots snapshots = start(false);
+        ObjectName requests = new ObjectName("test:type=Snapshot,name=Requests");
+
+        assertThat(server.isRegistered(requests)).isTrue();
+        snapshots.close();
+        assertThat(server.isRegistered(requests)).isFalse();
+    }
+
+    @Test
+    public void sharesServerBetweenContextsWithUniqueNames() throws Exception {
+        JmxSnapshots first = start(true);
+        JmxSnapshots second = start(true);
+
+        assertThat(server.queryNames(new ObjectName("test:type=Snapshot,name=Jvm,*"), null)).hasSize(2);
+        first.close();
+        second.close();
+        assertThat(server.queryNames(new ObjectName("test:*"), null)).isEmpty();
+    }
+
+    @Test
+    public void rejectsSecondContextWithoutUniqueNames() {
+        JmxSnapshots first = start(false);
+        try {
+            start(false);
+            fail("MBeanExportException expected");
+        } catch (MBeanExportException e) {
+            // même comportement que les MBeans de Spring Boot
+        } finally {
+            first.close();
+        }
+    }
+
+    private JmxSnapshots start(boolean uniqueNames) {
+        MBeanExporter exporter = new MBeanExporter();
+        exporter.setServer(server);
+        JmxSnapshotProperties properties = new JmxSnapshotProperties();
+        properties.setDomain("test");
+        return new JmxSnapshots(exporter, uniqueNames, properties, new RouteLatencies(new LatencyProperties()));
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.example.nicop.demo_actuator.config.FilterTimings;
+import org.example.nicop.demo_actuator.config.LatencyProperties;
+import org.example.nicop.demo_actuator.config.RouteLatencies;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrometheusEndpointTest {
+
+    @Test
+    public void writesPublicMetricsWithType() throws Exception {
+        String output = scrape(() -> Arrays.asList(new Metric<>("counter.status.200.hello", 3L),
+                new Metric<>("gauge.response.hello", 1.5), new Metric<>("mem.free", 1024)));
+
+        assertThat(output).isEqualTo("# TYPE counter_status_200_hello counter\n"
+                + "counter_status_200_hello 3\n"
+                + "# TYPE gauge_response_hello gauge\n"
+                + "gauge_response_hello 1.5\n"
+                + "mem_free 1024\n");
+    }
+
+    @Test
+    public void skipsMetricsSanitizedToAnExistingName() throws Exception {
+        PublicMetrics first = () -> Arrays.asList(new Metric<>("gauge.response.a-b", 1L),
+                new Metric<>("gauge.response.a_b", 2L));
+        PublicMetrics second = () -> Arrays.asList(new Metric<>("gauge.response.a.b", 3L),
+                new Metric<>("http_handler_latency_seconds_count", 4L));
+
+        String output = scrape(first, second);
+
+        assertThat(output).isEqualTo("# TYPE gauge_response_a_b gauge\ngauge_response_a_b 1\n");
+    }
+
+    private static String scrape(PublicMetrics... sources) throws Exception {
+        PrometheusEndpoint endpoint = new PrometheusEndpoint(Arrays.asList(sources),
+                new RouteLatencies(new LatencyProperties()), new FilterTimings(false, 2));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        endpoint.invoke(response);
+        return response.getContentAsString();
+    }
+}
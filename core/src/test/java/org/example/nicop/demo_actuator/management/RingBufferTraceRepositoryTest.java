@@ -0,0 +1,80 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.trace.Trace;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferTraceRepositoryTest {
+
+    @Test
+    public void filtersByStatusClass() {
+        RingBufferTraceRepository repository = new RingBufferTraceRepository(8);
+        repository.add(trace(0, 200, 1));
+        repository.add(trace(1, 500, 1));
+        repository.add(trace(2, 404, 1));
+        repository.add(trace(3, 503, 1));
+
+        assertThat(ids(repository.find("5xx", null, Integer.MAX_VALUE))).containsExactly(3, 1);
+        assertThat(ids(repository.find("4XX", null, Integer.MAX_VALUE))).containsExactly(2);
+    }
+
+    @Test
+    public void filtersByExactStatus() {
+        RingBufferTraceRepository repository = new RingBufferTraceRepository(8);
+        repository.add(trace(0, 500, 1));
+        repository.add(trace(1, 503, 1));
+
+        assertThat(ids(repository.find("503", null, Integer.MAX_VALUE))).containsExactly(1);
+        assertThat(repository.find("abc", null, Integer.MAX_VALUE)).isEmpty();
+        assertThat(repository.find("", null, Integer.MAX_VALUE)).hasSize(2);
+    }
+
+    @Test
+    public void filtersByMinDurationOnStringTimeTaken() {
+        RingBufferTraceRepository repository = new RingBufferTraceRepository(8);
+        repository.add(trace(0, 200, 5));
+        repository.add(trace(1, 200, 150));
+        repository.add(trace(2, 200, 100));
+        Map<String, Object> untimed = new HashMap<>(trace(3, 200, 1));
+        untimed.remove("timeTaken");
+        repository.add(untimed);
+
+        assertThat(ids(repository.find(null, 100L, Integer.MAX_VALUE))).containsExactly(2, 1);
+        assertThat(ids(repository.find("2xx", 0L, Integer.MAX_VALUE))).containsExactly(2, 1, 0);
+    }
+
+    @Test
+    public void limitsMatchingTraces() {
+        RingBufferTraceRepository repository = new RingBufferTraceRepository(8);
+        for (int i = 0; i < 6; i++) {
+            repository.add(trace(i, i % 2 == 0 ? 200 : 500, 1));
+        }
+
+        assertThat(ids(repository.find(null, null, 2))).containsExactly(5, 4);
+        assertThat(ids(repository.find("5xx", null, 2))).containsExactly(5, 3);
+        assertThat(repository.find(null, null, 0)).isEmpty();
+    }
+
+    /**
+     * Trace au format de {@code WebRequestTraceFilter} : statut sous {@code headers.response.status} et durée
+     * {@code timeTaken} en chaîne.
+     */
+    private static Map<String, Object> trace(int id, int status, long timeTaken) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("id", id);
+        info.put("headers", Collections.singletonMap("response", Collections.singletonMap("status", String.valueOf(status))));
+        info.put("timeTaken", String.valueOf(timeTaken));
+        return info;
+    }
+
+    private static List<Integer> ids(List<Trace> traces) {
+        return traces.stream().map(trace -> (Integer) trace.getInfo().get("id")).collect(Collectors.toList());
+    }
+}
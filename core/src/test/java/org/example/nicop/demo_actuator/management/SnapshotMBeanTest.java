@@ -0,0 +1,69 @@
+package org.example.nicop.demo_actuator.management;
+
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotMBeanTest {
+
+    private final SnapshotMBean mbean = new SnapshotMBean("Thread pool usage");
+
+    @Test
+    public void keepsDeclaredAttributesWhenLayoutShrinks() throws Exception {
+        mbean.update(attributes("SnapshotTime", 1L, "tomcat-8180.Active", 3));
+        MBeanInfo info = mbean.getMBeanInfo();
+
+        mbean.update(attributes("SnapshotTime", 2L));
+
+        for (MBeanAttributeInfo attribute : info.getAttributes()) {
+            mbean.getAttribute(attribute.getName());
+        }
+        assertThat(mbean.getAttribute("tomcat-8180.Active")).isNull();
+        assertThat(mbean.getAttribute("SnapshotTime")).isEqualTo(2L);
+        assertThat(mbean.getMBeanInfo()).isSameAs(info);
+    }
+
+    @Test
+    public void declaresNewAttributes() throws Exception {
+        mbean.update(attributes("SnapshotTime", 1L));
+        MBeanInfo info = mbean.getMBeanInfo();
+
+        mbean.update(attributes("SnapshotTime", 2L, "mvcAsyncExecutor.Queued", 0));
+
+        assertThat(mbean.getMBeanInfo()).isNotSameAs(info);
+        assertThat(mbean.getMBeanInfo().getAttributes()).extracting(MBeanAttributeInfo::getName)
+                .containsExactly("SnapshotTime", "mvcAsyncExecutor.Queued");
+        assertThat(mbean.getAttribute("mvcAsyncExecutor.Queued")).isEqualTo(0);
+    }
+
+    @Test
+    public void readsBulkAttributesFromOneSnapshot() {
+        mbean.update(attributes("SnapshotTime", 1L, "Count", 10L));
+
+        assertThat(mbean.getAttributes(new String[]{"SnapshotTime", "Count", "Unknown"}).asList())
+                .extracting(Attribute::getValue)
+                .containsExactly(1L, 10L);
+    }
+
+    @Test(expected = AttributeNotFoundException.class)
+    public void rejectsUndeclaredAttribute() throws Exception {
+        mbean.update(attributes("SnapshotTime", 1L));
+
+        mbean.getAttribute("Unknown");
+    }
+
+    private static Map<String, Object> attributes(Object... entries) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            attributes.put((String) entries[i], entries[i + 1]);
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import org.example.nicop.demo_actuator.management.AuthorizationMetrics;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingPreInvocationAdviceTest {
+
+    private static final Authentication READER = new TestingAuthenticationToken("alice", null, "reader", "ROLE_user");
+
+    private final AuthorizationMetrics metrics = new AuthorizationMetrics();
+
+    @Test
+    public void decidesSimpleExpressionsLikeSpel() throws Exception {
+        String[] expressions = {
+                "hasAuthority('reader')", "hasAuthority('writer')", "hasAnyAuthority('writer', 'reader')",
+                "hasRole('user')", "hasRole('ROLE_user')", "hasRole('admin')", "hasAnyRole('admin', 'user')",
+                "hasAnyAuthority('user')"
+        };
+        for (String expression : expressions) {
+            assertThat(decide("ROLE_", null, expression, true))
+                    .as(expression)
+                    .isEqualTo(decide("ROLE_", null, expression, false));
+        }
+        assertThat(metric("decisions.direct")).isEqualTo(expressions.length);
+    }
+
+    @Test
+    public void evaluatesOtherExpressionsWithSpel() throws Exception {
+        assertThat(decide("ROLE_", null, "hasAuthority('reader') and isAuthenticated()", true)).isTrue();
+        assertThat(decide("ROLE_", null, "hasRole(#root.authentication.name)", true)).isFalse();
+
+        assertThat(metric("decisions.direct")).isZero();
+        assertThat(metric("decisions.expression")).isEqualTo(2);
+    }
+
+    @Test
+    public void honorsConfiguredRolePrefix() throws Exception {
+        Authentication authentication = new TestingAuthenticationToken("alice", null, "GROUP_user");
+
+        assertThat(decide("GROUP_", null, authentication, "hasRole('user')", true)).isTrue();
+        assertThat(decide("GROUP_", null, authentication, "hasRole('user')", false)).isTrue();
+        assertThat(decide("ROLE_", null, authentication, "hasRole('user')", true)).isFalse();
+    }
+
+    @Test
+    public void honorsRoleHierarchy() throws Exception {
+        RoleHierarchyImpl hierarchy = new RoleHierarchyImpl();
+        hierarchy.setHierarchy("ROLE_user > ROLE_guest");
+
+        assertThat(decide("ROLE_", hierarchy, "hasRole('guest')", true)).isTrue();
+        assertThat(decide("ROLE_", hierarchy, "hasRole('guest')", false)).isTrue();
+        assertThat(decide("ROLE_", null, "hasRole('guest')", true)).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedExpressionBeforeAnyDecision() {
+        // virgule manquante : refusée par l'analyse SpEL, comme sans cette évaluation directe
+        attribute(handler("ROLE_", null), "hasAnyRole('admin' 'user')");
+    }
+
+    private boolean decide(String rolePrefix, RoleHierarchy hierarchy, String expression, boolean direct)
+            throws NoSuchMethodException {
+        return decide(rolePrefix, hierarchy, READER, expression, direct);
+    }
+
+    private boolean decide(String rolePrefix, RoleHierarchy hierarchy, Authentication authentication, String expression,
+                           boolean direct) throws NoSuchMethodException {
+        DefaultMethodSecurityExpressionHandler handler = handler(rolePrefix, hierarchy);
+        ExpressionBasedPreInvocationAdvice expressionAdvice = new ExpressionBasedPreInvocationAdvice();
+        expressionAdvice.setExpressionHandler(handler);
+        CachingPreInvocationAdvice advice =
+                new CachingPreInvocationAdvice(expressionAdvice, metrics, direct, rolePrefix, hierarchy);
+
+        return advice.before(authentication,
+                new SimpleMethodInvocation(this, CachingPreInvocationAdviceTest.class.getDeclaredMethod("secured")),
+                attribute(handler, expression));
+    }
+
+    private static DefaultMethodSecurityExpressionHandler handler(String rolePrefix, RoleHierarchy hierarchy) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setDefaultRolePrefix(rolePrefix);
+        handler.setRoleHierarchy(hierarchy);
+        return handler;
+    }
+
+    private static PreInvocationAttribute attribute(DefaultMethodSecurityExpressionHandler handler, String expression) {
+        return new ExpressionBasedAnnotationAttributeFactory(handler).createPreInvocationAttribute(null, null, expression);
+    }
+
+    private long metric(String name) {
+        for (Metric<?> metric : metrics.metrics()) {
+            if (metric.getName().equals("security.authorization." + name)) {
+                return metric.getValue().longValue();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @SuppressWarnings("unused")
+    private void secured() {
+    }
+}
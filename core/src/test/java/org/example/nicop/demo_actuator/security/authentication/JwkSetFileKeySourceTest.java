@@ -0,0 +1,132 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.MACVerifier;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwkSetFileKeySourceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    /**
+     * Au-delà du délai de regroupement des événements de la source.
+     */
+    private static final long RELOAD_WAIT_MILLIS = 500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JwkSetFileKeySource keySource;
+
+    @After
+    public void close() throws IOException {
+        if (keySource != null) {
+            keySource.close();
+        }
+    }
+
+    @Test
+    public void servesRewrittenKeySet() throws Exception {
+        Path file = write(folder.newFile("jwks.json").toPath(), "k1");
+        keySource = new JwkSetFileKeySource(file, Collections.<JwtKeySet.Key>emptyList());
+        assertThat(ids()).containsExactly("k1");
+
+        write(file, "k2");
+
+        assertThat(awaitKey("k2")).isTrue();
+        assertThat(ids()).containsExactly("k2");
+    }
+
+    @Test
+    public void keepsKeySetWhenFileIsMalformed() throws Exception {
+        Path file = write(folder.newFile("jwks.json").toPath(), "k1");
+        keySource = new JwkSetFileKeySource(file, Collections.<JwtKeySet.Key>emptyList());
+        JwtKeySet loaded = keySource.getKeySet();
+
+        Files.write(file, "{\"keys\": [".getBytes(UTF_8));
+        Thread.sleep(RELOAD_WAIT_MILLIS);
+
+        assertThat(keySource.getKeySet()).isSameAs(loaded);
+        assertThat(keySource.reload()).isFalse();
+        assertThat(keySource.getKeySet()).isSameAs(loaded);
+
+        // un fichier corrigé est de nouveau pris en compte
+        write(file, "k2");
+        assertThat(awaitKey("k2")).isTrue();
+    }
+
+    @Test
+    public void keepsConfiguredKeysOnReload() throws Exception {
+        Path file = write(folder.newFile("jwks.json").toPath(), "k1");
+        JwtKeySet.Key configured = new JwtKeySet.Key("static", JWSAlgorithm.HS256,
+                new MACVerifier(SECRET.getBytes(UTF_8)), "configuration", 0);
+        keySource = new JwkSetFileKeySource(file, Collections.singletonList(configured));
+
+        write(file, "k2");
+
+        assertThat(awaitKey("k2")).isTrue();
+        assertThat(ids()).containsExactly("static", "k2");
+    }
+
+    @Test
+    public void stopsWatchingOnClose() throws Exception {
+        Path file = write(folder.newFile("jwks.json").toPath(), "k1");
+        keySource = new JwkSetFileKeySource(file, Collections.<JwtKeySet.Key>emptyList());
+
+        keySource.close();
+        write(file, "k2");
+        Thread.sleep(RELOAD_WAIT_MILLIS);
+
+        assertThat(ids()).containsExactly("k1");
+        assertThat(Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("jwk-set-watcher"))
+                .collect(Collectors.toList())).isEmpty();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsOnMissingFileAtStartup() {
+        keySource = new JwkSetFileKeySource(folder.getRoot().toPath().resolve("missing.json"),
+                Collections.<JwtKeySet.Key>emptyList());
+    }
+
+    /**
+     * Attend le rechargement par le thread de surveillance ; le délai couvre les {@code WatchService} par scrutation.
+     */
+    private boolean awaitKey(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (System.nanoTime() < deadline) {
+            if (ids().contains(id)) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private List<String> ids() {
+        Collection<JwtKeySet.Key> keys = keySource.getKeySet().getKeys();
+        return keys.stream().map(JwtKeySet.Key::getId).collect(Collectors.toList());
+    }
+
+    private static Path write(Path file, String kid) throws IOException {
+        String k = Base64.getUrlEncoder().withoutPadding().encodeToString(SECRET.getBytes(UTF_8));
+        String json = "{\"keys\": [{\"kty\": \"oct\", \"kid\": \"" + kid + "\", \"alg\": \"HS256\", \"k\": \"" + k + "\"}]}";
+        return Files.write(file, json.getBytes(UTF_8));
+    }
+}
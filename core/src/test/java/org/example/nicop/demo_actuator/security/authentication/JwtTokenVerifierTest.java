@@ -0,0 +1,128 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.example.nicop.demo_actuator.management.JwtMetrics;
+import org.example.nicop.demo_actuator.security.config.JwtProperties;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.security.authentication.AccountExpiredException;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtTokenVerifierTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final JwtProperties properties = properties();
+
+    private final JwtMetrics metrics = new JwtMetrics();
+
+    private final JwtTokenVerifier verifier = new JwtTokenVerifier(
+            new ConfiguredJwtKeySource(properties.getKeys()), properties, metrics);
+
+    @Test
+    public void verifiesSignedToken() throws Exception {
+        String token = sign(SECRET, claims().build());
+
+        JwtAuthenticationToken authentication = verifier.verify(token);
+
+        assertThat(authentication.getPrincipal()).isEqualTo("alice");
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities())).containsExactly("reader");
+    }
+
+    @Test
+    public void servesRepeatedTokenFromCache() throws Exception {
+        String token = sign(SECRET, claims().build());
+
+        JwtAuthenticationToken first = verifier.verify(token);
+        JwtAuthenticationToken second = verifier.verify(token);
+
+        assertThat(second.getClaims()).isSameAs(first.getClaims());
+        assertThat(metric("jwt.cache.hits")).isEqualTo(1L);
+    }
+
+    @Test
+    public void issuesOwnAuthenticationPerCall() throws Exception {
+        String token = sign(SECRET, claims().build());
+        JwtAuthenticationToken first = verifier.verify(token);
+        first.setDetails("request 1");
+        first.setAuthenticated(false);
+
+        JwtAuthenticationToken second = verifier.verify(token);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test(expected = AccountExpiredException.class)
+    public void rejectsExpiredToken() throws Exception {
+        // au-delà de la tolérance de 60 secondes
+        verifier.verify(sign(SECRET, claims().expirationTime(new Date(System.currentTimeMillis() - 120000)).build()));
+    }
+
+    @Test(expected = MalformedJwtException.class)
+    public void rejectsTokenSignedWithAnotherKey() throws Exception {
+        verifier.verify(sign("fedcba9876543210fedcba9876543210", claims().build()));
+    }
+
+    @Test(expected = MalformedJwtException.class)
+    public void rejectsUnparsableToken() {
+        verifier.verify("not.a.jwt");
+    }
+
+    @Test(expected = InvalidGrantException.class)
+    public void rejectsUnexpectedIssuer() throws Exception {
+        verifier.verify(sign(SECRET, claims().issuer("https://other.example.org").build()));
+    }
+
+    @Test(expected = InvalidGrantException.class)
+    public void rejectsTokenNotValidYet() throws Exception {
+        verifier.verify(sign(SECRET, claims().notBeforeTime(new Date(System.currentTimeMillis() + 120000)).build()));
+    }
+
+    private long metric(String name) {
+        for (Metric<?> metric : metrics.metrics()) {
+            if (metric.getName().equals(name)) {
+                return metric.getValue().longValue();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static JwtProperties properties() {
+        JwtProperties.Key key = new JwtProperties.Key();
+        key.setId("k1");
+        key.setSecret(SECRET);
+        JwtProperties properties = new JwtProperties();
+        properties.setKeys(Collections.singletonList(key));
+        properties.setIssuer("https://auth.example.org");
+        return properties;
+    }
+
+    private static JWTClaimsSet.Builder claims() {
+        return new JWTClaimsSet.Builder()
+                .subject("alice")
+                .issuer("https://auth.example.org")
+                .expirationTime(new Date(System.currentTimeMillis() + 600000))
+                .claim("authorities", Arrays.asList("reader"));
+    }
+
+    private static String sign(String secret, JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("k1").build(), claims);
+        jwt.sign(new MACSigner(secret.getBytes(UTF_8)));
+        return jwt.serialize();
+    }
+}
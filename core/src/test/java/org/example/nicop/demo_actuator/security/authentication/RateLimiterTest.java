@@ -0,0 +1,73 @@
+package org.example.nicop.demo_actuator.security.authentication;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTest {
+
+    private RateLimiter rateLimiter;
+
+    @After
+    public void close() {
+        rateLimiter.close();
+    }
+
+    @Test
+    public void rejectsBeyondBurstWithRetryDelay() {
+        rateLimiter = new RateLimiter(3, 1, 300, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.acquire("ip:10.0.0.1")).isZero();
+        }
+        long wait = rateLimiter.acquire("ip:10.0.0.1");
+
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.acquire("ip:10.0.0.2")).isZero();
+        assertThat(rateLimiter.getAllowed()).isEqualTo(4);
+        assertThat(rateLimiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    public void sharesOverflowBucketBeyondMaxClients() {
+        rateLimiter = new RateLimiter(2, 1, 300, 2);
+        rateLimiter.acquire("ip:10.0.0.1");
+        rateLimiter.acquire("ip:10.0.0.2");
+
+        assertThat(rateLimiter.acquire("ip:10.0.0.3")).isZero();
+        assertThat(rateLimiter.acquire("ip:10.0.0.4")).isZero();
+        assertThat(rateLimiter.acquire("ip:10.0.0.5")).isPositive();
+
+        assertThat(rateLimiter.getClients()).isEqualTo(2);
+        assertThat(rateLimiter.topConsumers(10)).extracting(RateLimiter.Usage::getClient)
+                .contains(RateLimiter.OVERFLOW_CLIENT);
+    }
+
+    @Test
+    public void sweepsOnlyFullBucketsWhenFull() throws InterruptedException {
+        rateLimiter = new RateLimiter(1000, 1, 300, 2);
+        rateLimiter.acquire("ip:10.0.0.1");
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire("ip:10.0.0.2");
+        }
+        // le premier seau se remplit en une seconde, le second en dix
+        Thread.sleep(1100);
+
+        rateLimiter.sweep(true);
+
+        assertThat(rateLimiter.topConsumers(10)).extracting(RateLimiter.Usage::getClient).containsExactly("ip:10.0.0.2");
+    }
+
+    @Test
+    public void keepsRecentBucketsOnPeriodicSweep() {
+        rateLimiter = new RateLimiter(10, 1, 300, 10);
+        rateLimiter.acquire("ip:10.0.0.1");
+
+        rateLimiter.sweep(false);
+
+        assertThat(rateLimiter.getClients()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallTreeTest {
+
+    @Test
+    public void sharesNodeBudgetBetweenTrees() throws IOException {
+        CallTree.Budget budget = new CallTree.Budget(3);
+        CallTree first = new CallTree(budget);
+        CallTree second = new CallTree(budget);
+
+        first.add(Arrays.asList("Thread.run", "Worker.work"));
+        second.add(Arrays.asList("Thread.run", "Worker.work", "Worker.sleep"));
+
+        assertThat(budget.getRemaining()).isZero();
+        assertThat(second.getNodes()).isEqualTo(1);
+        // compté sur le plus long préfixe existant
+        assertThat(collapsed(second)).isEqualTo("Thread.run 1\n");
+    }
+
+    @Test
+    public void clearReleasesNodes() {
+        CallTree.Budget budget = new CallTree.Budget(2);
+        CallTree first = new CallTree(budget);
+        CallTree second = new CallTree(budget);
+        first.add(Arrays.asList("Thread.run", "Worker.work"));
+
+        first.clear();
+        second.add(Arrays.asList("Thread.run", "Worker.sleep"));
+
+        assertThat(budget.getUsed()).isEqualTo(2);
+        assertThat(second.getNodes()).isEqualTo(2);
+    }
+
+    @Test
+    public void mergesSamples() throws IOException {
+        CallTree first = new CallTree(10);
+        first.add(Arrays.asList("Thread.run", "Worker.work"));
+        CallTree second = new CallTree(10);
+        second.add(Arrays.asList("Thread.run", "Worker.work"));
+        second.add(Arrays.asList("Thread.run"));
+
+        first.merge(second);
+
+        assertThat(first.getSamples()).isEqualTo(3);
+        assertThat(collapsed(first)).isEqualTo("Thread.run 1\nThread.run;Worker.work 2\n");
+    }
+
+    private static String collapsed(CallTree tree) throws IOException {
+        StringBuilder out = new StringBuilder();
+        tree.writeCollapsed(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class CursorPagingTest {
+
+    private final CursorHandlerMethodArgumentResolver resolver =
+            new CursorHandlerMethodArgumentResolver(CursorCodec.withGeneratedSecret(), null);
+
+    @Test
+    public void resolvesFirstPage() throws Exception {
+        CursorPageable pageable = resolve("sort", "name,id", "size", "2");
+
+        assertThat(pageable.getPageSize()).isEqualTo(2);
+        assertThat(pageable.getOffset()).isZero();
+        assertThat(pageable.getAfter()).isNull();
+        assertThat(pageable.hasPrevious()).isFalse();
+    }
+
+    @Test
+    public void nextCursorResumesAfterLastRow() throws Exception {
+        CursorPageable first = resolve("sort", "name,id", "size", "2");
+        CursorSlice<Map<String, Object>> slice = new CursorSlice<>(Arrays.asList(row("alice", 1), row("bob", 2)), first, true);
+
+        assertThat(slice.isFirst()).isTrue();
+        String cursor = slice.getNextCursor();
+        assertThat(cursor).isNotNull();
+
+        CursorPageable second = resolve("sort", "name,id", "size", "2", "cursor", cursor);
+        assertThat(second.getAfter()).containsExactly("bob", 2);
+        assertThat(second.hasPrevious()).isTrue();
+        assertThat(slice.nextPageable()).isEqualTo(second);
+        assertThat(slice.nextPageable().getAfter()).isEqualTo(second.getAfter());
+    }
+
+    @Test
+    public void lastSliceHasNoNextPage() throws Exception {
+        CursorPageable pageable = resolve("sort", "name", "size", "2");
+        CursorSlice<Map<String, Object>> slice = new CursorSlice<>(Arrays.asList(row("alice", 1)), pageable, false);
+
+        assertThat(slice.getNextCursor()).isNull();
+        assertThat(slice.nextPageable()).isNull();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nextIsUnknownBeforeThePageIsRead() throws Exception {
+        resolve("sort", "name").next();
+    }
+
+    @Test
+    public void rejectsCursorIssuedForAnotherSort() throws Exception {
+        CursorPageable byName = resolve("sort", "name", "size", "1");
+        String cursor = new CursorSlice<>(Arrays.asList(row("alice", 1)), byName, true).getNextCursor();
+
+        try {
+            resolve("sort", "id", "cursor", cursor);
+            fail("RestServiceException expected");
+        } catch (RestServiceException e) {
+            assertThat(e.getErrors().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Test
+    public void rejectsTamperedCursor() throws Exception {
+        CursorPageable pageable = resolve("sort", "name", "size", "1");
+        String cursor = new CursorSlice<>(Arrays.asList(row("alice", 1)), pageable, true).getNextCursor();
+        String tampered = (cursor.charAt(0) == 'x' ? "y" : "x") + cursor.substring(1);
+
+        try {
+            resolve("sort", "name", "cursor", tampered);
+            fail("RestServiceException expected");
+        } catch (RestServiceException e) {
+            assertThat(e.getErrors().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Test(expected = RestServiceException.class)
+    public void requiresSort() throws Exception {
+        resolve("size", "2");
+    }
+
+    private CursorPageable resolve(String... parameters) throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.addParameter(parameters[i], parameters[i + 1]);
+        }
+        MethodParameter parameter = new MethodParameter(
+                CursorPagingTest.class.getDeclaredMethod("handler", CursorPageable.class), 0);
+        return resolver.resolveArgument(parameter, null, new ServletWebRequest(request), null);
+    }
+
+    private static Map<String, Object> row(String name, int id) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", name);
+        row.put("id", id);
+        return row;
+    }
+
+    @SuppressWarnings("unused")
+    private void handler(CursorPageable pageable) {
+    }
+}
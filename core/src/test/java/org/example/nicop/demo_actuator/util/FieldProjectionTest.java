@@ -0,0 +1,162 @@
+package org.example.nicop.demo_actuator.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldProjectionTest {
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new FieldProjectionModule())
+            .filters(FieldProjection.NONE)
+            .build();
+
+    @Test
+    public void compilesNestedPaths() {
+        FieldProjection projection = FieldProjection.including("name, items.id,items.price");
+
+        assertThat(projection.node("name")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(projection.node("items", "id")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(projection.node("items", "price")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(projection.node("items", "label")).isSameAs(FieldProjection.Node.DROP);
+        assertThat(projection.node("other")).isSameAs(FieldProjection.Node.DROP);
+    }
+
+    @Test
+    public void dataPrefixIsOptional() {
+        FieldProjection projection = FieldProjection.including("data.items.id,name");
+
+        assertThat(projection.node("items", "id")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(projection.node("name")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(projection.node("data")).isSameAs(FieldProjection.Node.DROP);
+    }
+
+    @Test
+    public void shorterPathAbsorbsLongerOnes() {
+        FieldProjection before = FieldProjection.including("items.id,items");
+        FieldProjection after = FieldProjection.including("items,items.id");
+
+        assertThat(before.node("items", "label")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(after.node("items", "label")).isSameAs(FieldProjection.Node.PASS);
+    }
+
+    @Test
+    public void dataSelectsWholeBlock() {
+        assertThat(FieldProjection.including("data").node()).isSameAs(FieldProjection.Node.PASS);
+        assertThat(FieldProjection.including("data,data.items.id").node("items", "label"))
+                .isSameAs(FieldProjection.Node.PASS);
+        assertThat(FieldProjection.excluding("data").node()).isSameAs(FieldProjection.Node.DROP);
+    }
+
+    @Test
+    public void excludingKeepsUnlistedPaths() {
+        FieldProjection projection = FieldProjection.excluding("items.price");
+
+        assertThat(projection.node("name")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(projection.node("items", "id")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(projection.node("items", "price")).isSameAs(FieldProjection.Node.DROP);
+    }
+
+    @Test
+    public void ignoresEmptyPaths() {
+        assertThat(FieldProjection.including(" ,name,,").node("name")).isSameAs(FieldProjection.Node.PASS);
+        assertThat(FieldProjection.including(" ,name,,").node("other")).isSameAs(FieldProjection.Node.DROP);
+    }
+
+    @Test
+    public void sharesCompiledProjections() {
+        assertThat(FieldProjection.including("name")).isSameAs(FieldProjection.including("name"));
+        assertThat(FieldProjection.excluding("name")).isNotSameAs(FieldProjection.including("name"));
+    }
+
+    @Test
+    public void projectsNestedBeansOfTheDataBlock() throws Exception {
+        ResponseWrapper envelope = new ResponseWrapper(new Order("o1", Arrays.asList(new Item(1, 10.5), new Item(2, 3.0))),
+                ResponseMetadata.singlePage(1), null);
+
+        assertThat(write(envelope, FieldProjection.including("items.id")))
+                .isEqualTo("{\"data\":{\"items\":[{\"id\":1},{\"id\":2}]},\"metadata\":" + metadata() + "}");
+        assertThat(write(envelope, FieldProjection.excluding("data.items.price,name")))
+                .isEqualTo("{\"data\":{\"items\":[{\"id\":1},{\"id\":2}]},\"metadata\":" + metadata() + "}");
+        assertThat(write(envelope, FieldProjection.including("data")))
+                .isEqualTo(mapper.writeValueAsString(envelope));
+    }
+
+    @Test
+    public void projectsStreamedData() throws Exception {
+        ResponseWrapper envelope = new ResponseWrapper();
+        StreamingData data = StreamingData.of(Arrays.asList(new Item(1, 10.5), new Item(2, 3.0)).iterator());
+        envelope.setData(data);
+        envelope.setMetadata(data.getMetadata());
+
+        assertThat(write(envelope, FieldProjection.including("price")))
+                .isEqualTo("{\"data\":[{\"price\":10.5},{\"price\":3.0}],\"metadata\":"
+                        + mapper.writeValueAsString(ResponseMetadata.singlePage(2)) + "}");
+    }
+
+    @Test
+    public void serializesWithoutProjection() throws Exception {
+        ResponseWrapper envelope = new ResponseWrapper(Collections.singletonList(new Item(1, 10.5)), null, null);
+
+        assertThat(mapper.writeValueAsString(envelope)).isEqualTo("{\"data\":[{\"id\":1,\"price\":10.5}]}");
+        // les beans hors enveloppe ne portent pas le filtre, même sous une projection
+        assertThat(mapper.writer(FieldProjection.including("id")).writeValueAsString(new Item(1, 10.5)))
+                .isEqualTo("{\"id\":1,\"price\":10.5}");
+    }
+
+    private String write(ResponseWrapper envelope, FieldProjection projection) throws Exception {
+        ObjectWriter writer = mapper.writer(projection);
+        return writer.writeValueAsString(envelope);
+    }
+
+    private String metadata() throws Exception {
+        return mapper.writeValueAsString(ResponseMetadata.singlePage(1));
+    }
+
+    public static final class Order {
+
+        private final String name;
+
+        private final List<Item> items;
+
+        Order(String name, List<Item> items) {
+            this.name = name;
+            this.items = items;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+    }
+
+    public static final class Item {
+
+        private final long id;
+
+        private final double price;
+
+        Item(long id, double price) {
+            this.id = id;
+            this.price = price;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+
+    private static final long HIGHEST = 3_600_000L;
+
+    private final LatencyHistogram histogram = new LatencyHistogram(HIGHEST, 3);
+
+    @Test
+    public void mapsIndexesBackToTheirBuckets() {
+        int last = histogram.countsIndex(HIGHEST);
+        for (int index = 0; index <= last; index++) {
+            long highest = histogram.highestEquivalentValue(index);
+            assertThat(histogram.countsIndex(highest)).isEqualTo(index);
+            assertThat(histogram.countsIndex(highest + 1)).isEqualTo(index + 1);
+        }
+    }
+
+    @Test
+    public void keepsValuesAroundPowersOfTwoInTheirBucket() {
+        // 2048 sous-cases pour 3 chiffres significatifs : la résolution unitaire s'arrête à 2047
+        for (long value : new long[]{0, 1, 1023, 1024, 2047, 2048, 2049, 4095, 4096, 1 << 20, (1 << 20) + 1}) {
+            long highest = histogram.highestEquivalentValue(histogram.countsIndex(value));
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo(value / 1000);
+        }
+        assertThat(histogram.highestEquivalentValue(histogram.countsIndex(2047))).isEqualTo(2047);
+        assertThat(histogram.highestEquivalentValue(histogram.countsIndex(2048))).isEqualTo(2049);
+    }
+
+    @Test
+    public void percentilesStayWithinSignificantDigits() {
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(100_000);
+        assertThat(snapshot.getSum()).isEqualTo(5_000_050_000L);
+        assertThat(snapshot.getMean()).isCloseTo(50_000.5, within(0.001));
+        assertThat(snapshot.getMax()).isEqualTo(100_000);
+        assertThat(snapshot.getValueAtPercentile(0)).isEqualTo(1);
+        assertThat(snapshot.getValueAtPercentile(50)).isBetween(50_000L, 50_050L);
+        assertThat(snapshot.getValueAtPercentile(99)).isBetween(99_000L, 99_099L);
+        assertThat(snapshot.getValueAtPercentile(99.9)).isBetween(99_900L, 99_999L);
+        assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(100_000);
+    }
+
+    @Test
+    public void clampsValuesOutsideTrackableRange() {
+        histogram.record(HIGHEST * 10);
+        histogram.record(-5);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getMax()).isEqualTo(HIGHEST);
+        assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(HIGHEST);
+        assertThat(snapshot.getValueAtPercentile(50)).isEqualTo(0);
+    }
+
+    @Test
+    public void mergesSnapshots() {
+        LatencyHistogram other = new LatencyHistogram(HIGHEST, 3);
+        histogram.record(10);
+        other.record(30);
+
+        LatencyHistogram.Snapshot merged = histogram.snapshot().merge(other.snapshot());
+
+        assertThat(merged.getCount()).isEqualTo(2);
+        assertThat(merged.getSum()).isEqualTo(40);
+        assertThat(merged.getMean()).isEqualTo(20.0);
+        assertThat(merged.getMax()).isEqualTo(30);
+        assertThat(histogram.emptySnapshot().merge(merged).getValueAtPercentile(50)).isEqualTo(10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSnapshotsOfAnotherLayout() {
+        histogram.snapshot().merge(new LatencyHistogram(HIGHEST, 2).snapshot());
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LruCacheTest {
+
+    @Test
+    public void loadsOnlyMissingValues() {
+        LruCache<String, String> cache = new LruCache<>(4);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", k -> k + loads.incrementAndGet())).isEqualTo("a1");
+        assertThat(cache.get("a", k -> k + loads.incrementAndGet())).isEqualTo("a1");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void staysWithinCapacity() {
+        LruCache<Integer, Integer> cache = new LruCache<>(3);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getIfPresent(99)).isEqualTo(99);
+    }
+
+    @Test
+    public void keepsEntriesReadSinceLastEviction() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.put("a", "a");
+        cache.put("b", "b");
+
+        cache.getIfPresent("a");
+        cache.put("c", "c");
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("a");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("c")).isEqualTo("c");
+    }
+
+    @Test
+    public void replacedAndRemovedEntriesDoNotCount() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        for (int i = 0; i < 10; i++) {
+            cache.put("a", "a" + i);
+        }
+        cache.put("b", "b");
+        cache.remove("b");
+        cache.put("c", "c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent("a")).isEqualTo("a9");
+        assertThat(cache.getIfPresent("c")).isEqualTo("c");
+    }
+}
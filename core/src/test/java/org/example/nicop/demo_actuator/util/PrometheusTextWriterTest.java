@@ -0,0 +1,109 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrometheusTextWriterTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final PrometheusTextWriter writer = new PrometheusTextWriter(out, new byte[8192]);
+
+    @Test
+    public void sanitizesNames() {
+        assertThat(PrometheusTextWriter.sanitize("counter.status.200.x")).isEqualTo("counter_status_200_x");
+        assertThat(PrometheusTextWriter.sanitize("gauge.response.a-b")).isEqualTo("gauge_response_a_b");
+        assertThat(PrometheusTextWriter.sanitize("2xx:ok")).isEqualTo("_xx:ok");
+        assertThat(PrometheusTextWriter.sanitize("already_valid")).isSameAs("already_valid");
+    }
+
+    @Test
+    public void writesTypeAndLabels() throws IOException {
+        writer.type("http_requests", "counter");
+        writer.name("http_requests").label("method", "GET").label("status", "200").value(3);
+        writer.name("http_requests", "_total").value(4);
+
+        assertThat(written()).isEqualTo("# TYPE http_requests counter\n"
+                + "http_requests{method=\"GET\",status=\"200\"} 3\n"
+                + "http_requests_total 4\n");
+    }
+
+    @Test
+    public void escapesLabelValues() throws IOException {
+        writer.name("m").label("path", "a\\b\"c\nd").value(1);
+
+        assertThat(written()).isEqualTo("m{path=\"a\\\\b\\\"c\\nd\"} 1\n");
+    }
+
+    @Test
+    public void encodesLabelValuesInUtf8() throws IOException {
+        writer.name("m").label("handler", "café € 😀 \uD800").value(1);
+
+        assertThat(written()).isEqualTo("m{handler=\"café € 😀 ?\"} 1\n");
+    }
+
+    @Test
+    public void writesScaledDecimals() throws IOException {
+        writer.name("a").value(1_234_567, 6);
+        writer.name("b").value(5, 6);
+        writer.name("c").value(-1_500, 3);
+        writer.name("d").value(42, 0);
+        writer.name("e").value(0, 9);
+
+        assertThat(written()).isEqualTo("a 1.234567\nb 0.000005\nc -1.500\nd 42\ne 0.000000000\n");
+    }
+
+    @Test
+    public void writesNumbers() throws IOException {
+        writer.name("a").value(Long.MIN_VALUE);
+        writer.name("b").value((Number) 2.0);
+        writer.name("c").value((Number) 1.5);
+        writer.name("d").value((Number) Double.NaN);
+        writer.name("e").value((Number) Double.NEGATIVE_INFINITY);
+        writer.name("f").value((Number) 7);
+
+        assertThat(written()).isEqualTo("a " + Long.MIN_VALUE + "\nb 2\nc 1.5\nd NaN\ne -Inf\nf 7\n");
+    }
+
+    @Test
+    public void flushesAtBufferBoundaries() throws IOException {
+        AtomicInteger writes = new AtomicInteger();
+        ByteArrayOutputStream target = new ByteArrayOutputStream() {
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                assertThat(len).isLessThanOrEqualTo(8);
+                writes.incrementAndGet();
+                super.write(b, off, len);
+            }
+        };
+        PrometheusTextWriter small = new PrometheusTextWriter(target, new byte[8]);
+
+        sample(small);
+        sample(writer);
+
+        assertThat(writes.get()).isGreaterThan(1);
+        assertThat(new String(target.toByteArray(), UTF_8)).isEqualTo(written());
+    }
+
+    /**
+     * Caractères de 2, 3 et 4 octets placés de part et d'autre des limites d'un tampon de 8 octets.
+     */
+    private static void sample(PrometheusTextWriter writer) throws IOException {
+        writer.type("latency_seconds", "summary");
+        writer.name("latency_seconds").label("handler", "é€😀éé€😀").label("quantile", "0.99")
+                .value(123_456_789, 6);
+        writer.flush();
+    }
+
+    private String written() throws IOException {
+        writer.flush();
+        return new String(out.toByteArray(), UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyCapacity() {
+        new RingBuffer<Integer>(0);
+    }
+
+    @Test
+    public void roundsCapacityToPowerOfTwo() {
+        RingBuffer<Integer> ring = new RingBuffer<>(3);
+        for (int i = 0; i < 10; i++) {
+            ring.add(i);
+        }
+
+        assertThat(ring.find(value -> true, Integer.MAX_VALUE)).containsExactly(9, 8, 7, 6);
+    }
+
+    @Test
+    public void returnsNewestFirstBeforeWrapping() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        ring.add(0);
+        ring.add(1);
+
+        assertThat(ring.find(value -> true, Integer.MAX_VALUE)).containsExactly(1, 0);
+    }
+
+    @Test
+    public void keepsNewestValuesAfterWrapping() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int i = 0; i < 6; i++) {
+            ring.add(i);
+        }
+
+        assertThat(ring.find(value -> true, Integer.MAX_VALUE)).containsExactly(5, 4, 3, 2);
+    }
+
+    @Test
+    public void filtersAndLimitsValues() {
+        RingBuffer<Integer> ring = new RingBuffer<>(8);
+        for (int i = 0; i < 8; i++) {
+            ring.add(i);
+        }
+
+        assertThat(ring.find(value -> value % 2 == 0, 2)).containsExactly(6, 4);
+        assertThat(ring.find(value -> true, 0)).isEmpty();
+    }
+
+    @Test
+    public void skipsSlotsOverwrittenDuringRead() throws InterruptedException {
+        RingBuffer<Integer> ring = new RingBuffer<>(8);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                ring.add(i);
+            }
+        });
+        writer.start();
+        try {
+            for (int read = 0; read < 10_000; read++) {
+                List<Integer> values = ring.find(value -> true, Integer.MAX_VALUE);
+                assertThat(values.size()).isLessThanOrEqualTo(8);
+                // une case réécrite pendant le parcours apparaîtrait hors d'ordre
+                for (int i = 1; i < values.size(); i++) {
+                    assertThat(values.get(i)).isLessThan(values.get(i - 1));
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.nicop.demo_actuator.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RollingLatencyHistogramTest {
+
+    private static final long SLOT_MILLIS = 50;
+
+    private static final int SLOT_COUNT = 4;
+
+    private final RollingLatencyHistogram histogram = new RollingLatencyHistogram(60_000, 3, SLOT_MILLIS, SLOT_COUNT);
+
+    @Test
+    public void readsRecentValuesInWindow() {
+        histogram.record(10);
+        histogram.record(20);
+
+        assertThat(histogram.snapshot(SLOT_MILLIS * SLOT_COUNT).getCount()).isEqualTo(2);
+        assertThat(histogram.snapshot(SLOT_MILLIS * SLOT_COUNT).getMax()).isEqualTo(20);
+    }
+
+    @Test
+    public void expiresValuesOlderThanWindow() throws InterruptedException {
+        histogram.record(10);
+
+        Thread.sleep(SLOT_MILLIS * (SLOT_COUNT + 1));
+        histogram.record(20);
+
+        LatencyHistogram.Snapshot window = histogram.snapshot(SLOT_MILLIS * SLOT_COUNT);
+        assertThat(window.getCount()).isEqualTo(1);
+        assertThat(window.getMax()).isEqualTo(20);
+        assertThat(histogram.snapshot().getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void expiresValuesWithoutNewRecords() throws InterruptedException {
+        histogram.record(10);
+
+        Thread.sleep(SLOT_MILLIS * (SLOT_COUNT + 1));
+
+        assertThat(histogram.snapshot(SLOT_MILLIS * SLOT_COUNT).getCount()).isEqualTo(0);
+        assertThat(histogram.snapshot().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void boundsWindowByRing() {
+        histogram.record(10);
+
+        assertThat(histogram.snapshot(Long.MAX_VALUE / 2).getCount()).isEqualTo(1);
+    }
+}
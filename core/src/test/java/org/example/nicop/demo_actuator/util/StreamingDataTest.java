@@ -0,0 +1,109 @@
+package org.example.nicop.demo_actuator.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class StreamingDataTest {
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new FieldProjectionModule())
+            .filters(FieldProjection.NONE)
+            .build();
+
+    @Test
+    public void streamsStreamBodyBeforeItsMetadata() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        ResponseWrapperProcessor processor = process(Stream.of("a", "b", "c").onClose(() -> closed.set(true)));
+
+        assertThat(processor.isStreamed()).isTrue();
+        assertThat(processor.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(write(processor)).isEqualTo("{\"data\":[\"a\",\"b\",\"c\"],\"metadata\":" + singlePage(3) + "}");
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void streamsIteratorBody() throws Exception {
+        ResponseWrapperProcessor processor = process(Arrays.asList(1, 2).iterator());
+
+        assertThat(processor.isStreamed()).isTrue();
+        assertThat(write(processor)).isEqualTo("{\"data\":[1,2],\"metadata\":" + singlePage(2) + "}");
+    }
+
+    @Test
+    public void streamsEmptyBody() throws Exception {
+        assertThat(write(process(Stream.empty()))).isEqualTo("{\"data\":[],\"metadata\":" + singlePage(0) + "}");
+    }
+
+    @Test
+    public void closesStreamOnSerializationError() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> failing = Stream.of("a", "b").map(s -> {
+            if ("b".equals(s)) {
+                throw new IllegalStateException("read failure");
+            }
+            return s;
+        }).onClose(() -> closed.set(true));
+
+        try {
+            write(process(failing));
+            fail("serialization should fail");
+        } catch (Exception e) {
+            assertThat(e).hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void closesStreamWhenDataIsExcluded() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        ResponseWrapperProcessor processor = process(Stream.of("a", "b", "c").onClose(() -> closed.set(true)),
+                "excluded_fields", "data");
+
+        assertThat(write(processor)).isEqualTo("{\"metadata\":" + singlePage(3) + "}");
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void closesStreamOnlyOnce() {
+        AtomicInteger closes = new AtomicInteger();
+        ResponseWrapperProcessor processor = process(Stream.of("a").onClose(closes::incrementAndGet));
+
+        processor.getStreamingData().close();
+        processor.getStreamingData().close();
+
+        assertThat(closes.get()).isEqualTo(1);
+    }
+
+    private static ResponseWrapperProcessor process(Object body, String... parameters) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.addParameter(parameters[i], parameters[i + 1]);
+        }
+        ResponseWrapperProcessor processor = new ResponseWrapperProcessor(body, RequestParameters.of(request));
+        processor.process();
+        return processor;
+    }
+
+    private String write(ResponseWrapperProcessor processor) throws Exception {
+        MappingJacksonValue value = processor.getMappingJacksonValue();
+        return value.getFilters() == null
+                ? mapper.writeValueAsString(value.getValue())
+                : mapper.writer(value.getFilters()).writeValueAsString(value.getValue());
+    }
+
+    private String singlePage(long count) throws Exception {
+        return mapper.writeValueAsString(ResponseMetadata.singlePage(count));
+    }
+}